@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Keep-alive load generator for SimpleBackend
+ *
+ * Opens the given number of connections and keeps one GET in flight on each
+ * for the whole run, then reports sustained requests per second and latency
+ * percentiles. The first seconds are a warm-up and are not counted.
+ *
+ * With a drop percentage, that share of the connections instead send a
+ * request and reset the connection (SO_LINGER 0) before the response arrives,
+ * then reconnect and repeat; the server must keep serving everyone else and
+ * still answer a health check at the end.
+ *
+ * Usage: java LoadTest.java [connections] [seconds] [host] [port] [drop-percent]
+ */
+public class LoadTest {
+    private static final int WARMUP_SECONDS = 5;
+    private static final String[] PATHS = {"/api/student/STU201", "/api/student/STU204", "/api/student/STU999",
+            "/api/health"};
+    private static final String DROP_PATH = "/api/seating";
+
+    public static void main(String[] args) throws IOException {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String host = args.length > 2 ? args[2] : "localhost";
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 8080;
+        int dropPercent = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        InetSocketAddress address = new InetSocketAddress(host, port);
+
+        byte[][] requests = new byte[PATHS.length][];
+        for (int i = 0; i < PATHS.length; i++) {
+            requests[i] = ("GET " + PATHS[i] + " HTTP/1.1\r\nHost: " + host + "\r\nConnection: keep-alive\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1);
+        }
+        byte[] dropRequest = ("GET " + DROP_PATH + " HTTP/1.1\r\nHost: " + host + "\r\nConnection: keep-alive\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+
+        System.out.println("Opening " + connections + " connections to " + address + " ...");
+        Selector selector = Selector.open();
+        for (int i = 0; i < connections; i++) {
+            boolean drop = i % 100 < dropPercent;
+            connect(selector, address, drop ? dropRequest : requests[i % requests.length], drop);
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP_SECONDS * 1_000_000_000L;
+        long end = measureFrom + seconds * 1_000_000_000L;
+        long[] latencies = new long[1 << 20];
+        int count = 0;
+        int errors = 0;
+        int dropped = 0;
+        int open = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Client client = (Client) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        client.channel.finishConnect();
+                        open++;
+                        client.send(key);
+                        if (client.drop) {
+                            // Reset mid-request, while a worker is handling it
+                            client.channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+                            key.cancel();
+                            client.channel.close();
+                            open--;
+                            dropped++;
+                            connect(selector, address, dropRequest, true);
+                        }
+                    } else if (key.isWritable()) {
+                        client.flush(key);
+                    } else if (key.isReadable()) {
+                        buffer.clear();
+                        if (client.channel.read(buffer) < 0) {
+                            throw new IOException("closed by server");
+                        }
+                        buffer.flip();
+                        if (client.receive(buffer)) {
+                            long now = System.nanoTime();
+                            if (client.status != 200) {
+                                errors++;
+                            } else if (client.sentAt >= measureFrom) {
+                                if (count == latencies.length) {
+                                    latencies = Arrays.copyOf(latencies, count * 2);
+                                }
+                                latencies[count++] = now - client.sentAt;
+                            }
+                            client.send(key);
+                        }
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    open--;
+                    key.cancel();
+                    client.channel.close();
+                    if (client.drop) {
+                        connect(selector, address, dropRequest, true);
+                    }
+                }
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+
+        Arrays.sort(latencies, 0, count);
+        System.out.println("Connections open at end: " + open + " / " + connections);
+        System.out.println("Requests:   " + count + " in " + seconds + " s (after " + WARMUP_SECONDS + " s warm-up)");
+        System.out.printf("Throughput: %.0f requests/s%n", count / (double) seconds);
+        System.out.printf("Latency:    p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(latencies, count, 0.50), percentile(latencies, count, 0.90),
+                percentile(latencies, count, 0.99), count == 0 ? 0.0 : latencies[count - 1] / 1e6);
+        System.out.println("Errors:     " + errors);
+        if (dropPercent > 0) {
+            boolean alive = healthy(address, host);
+            System.out.println("Dropped:    " + dropped + " requests reset mid-flight; server "
+                    + (alive ? "still serving" : "NOT RESPONDING"));
+            if (!alive) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void connect(Selector selector, InetSocketAddress address, byte[] request, boolean drop)
+            throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.connect(address);
+        channel.register(selector, SelectionKey.OP_CONNECT, new Client(channel, request, drop));
+    }
+
+    /**
+     * Whether a fresh connection still gets a 200 from the health check
+     */
+    private static boolean healthy(InetSocketAddress address, String host) {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.socket().setSoTimeout(5000);
+            channel.write(ByteBuffer.wrap(("GET /api/health HTTP/1.1\r\nHost: " + host
+                    + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1)));
+            byte[] status = new byte[12];
+            int n = channel.socket().getInputStream().readNBytes(status, 0, status.length);
+            return n == status.length && new String(status, StandardCharsets.ISO_8859_1).endsWith("200");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static double percentile(long[] sorted, int count, double p) {
+        return count == 0 ? 0.0 : sorted[Math.min(count - 1, (int) (count * p))] / 1e6;
+    }
+
+    /**
+     * One keep-alive connection with a single request in flight
+     */
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer request;
+        final boolean drop;
+        byte[] response = new byte[1024];
+        int length;
+        int status;
+        long sentAt;
+
+        Client(SocketChannel channel, byte[] request, boolean drop) {
+            this.channel = channel;
+            this.request = ByteBuffer.wrap(request);
+            this.drop = drop;
+        }
+
+        void send(SelectionKey key) throws IOException {
+            request.rewind();
+            length = 0;
+            sentAt = System.nanoTime();
+            flush(key);
+        }
+
+        void flush(SelectionKey key) throws IOException {
+            channel.write(request);
+            key.interestOps(request.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        /**
+         * Buffer response bytes
+         *
+         * @return Whether a complete response (by Content-Length) has arrived
+         */
+        boolean receive(ByteBuffer data) throws IOException {
+            int n = data.remaining();
+            if (length + n > response.length) {
+                response = Arrays.copyOf(response, Math.max(response.length * 2, length + n));
+            }
+            data.get(response, length, n);
+            length += n;
+
+            String text = new String(response, 0, length, StandardCharsets.ISO_8859_1);
+            int headerEnd = text.indexOf("\r\n\r\n");
+            if (headerEnd < 0) {
+                return false;
+            }
+            int lengthAt = text.toLowerCase().indexOf("content-length:");
+            if (lengthAt < 0 || lengthAt > headerEnd) {
+                throw new IOException("response without Content-Length");
+            }
+            int contentLength = Integer.parseInt(text.substring(lengthAt + 15, text.indexOf("\r\n", lengthAt)).trim());
+            if (length < headerEnd + 4 + contentLength) {
+                return false;
+            }
+            if (length > headerEnd + 4 + contentLength) {
+                throw new IOException("unexpected bytes after response");
+            }
+            status = Integer.parseInt(text.substring(9, 12));
+            return true;
+        }
+    }
+}
@@ -1,7 +1,16 @@
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.concurrent.*;
 
 /**
  * Simple HTTP Server for Exam Seating System
@@ -11,87 +20,70 @@ import java.nio.file.*;
  */
 public class SimpleBackend {
     private static final int PORT = 8080;
+    private static final int WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_QUEUED_REQUESTS = 10_000;
+    // Per-request logging costs more than most requests; turn off with -Dsimplebackend.quiet=true
+    private static final boolean LOG_REQUESTS = !Boolean.getBoolean("simplebackend.quiet");
     private static final String DATA_DIR = "../src/data/";
     private static final String SEATING_FILE = "seating_arrangement.csv";
+    private static final String SNAPSHOT_FILE = "seating_arrangement.bin";
+    
+    // Saved arrangement with its lookup indexes, replaced as a whole on every change; null until saved
+    private static volatile SeatingStore store;
     
     public static void main(String[] args) {
         System.out.println("🚀 Starting Exam Seating System Backend...");
         System.out.println("📍 Server will run on: http://localhost:" + PORT);
         System.out.println("📁 Data directory: " + DATA_DIR);
         
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
+        try {
+            store = loadSeatingStore();
+            if (store != null) {
+                System.out.println("💺 Loaded " + store.seats.seatCount() + " saved seats");
+            }
+            watchSeatingFile();
+        } catch (IOException e) {
+            System.err.println("❌ Error loading saved seating data: " + e.getMessage());
+        }
+        
+        try (SelectorServer server = new SelectorServer(PORT, WORKERS, MAX_QUEUED_REQUESTS)) {
             System.out.println("✅ Server started successfully!");
             System.out.println("🌐 Access the API at: http://localhost:" + PORT);
+            System.out.println("🧵 Worker threads: " + WORKERS);
             System.out.println("📋 Available endpoints:");
             System.out.println("   GET  /api/students     - Get all students");
             System.out.println("   GET  /api/rooms        - Get all rooms");
             System.out.println("   GET  /api/exams        - Get all exams");
             System.out.println("   POST /api/seating      - Generate seating arrangement");
+            System.out.println("   GET  /api/seating/room/{roomNo} - Get saved seats in a room");
             System.out.println("");
             System.out.println("Press Ctrl+C to stop the server");
             System.out.println("=====================================");
             
-            while (true) {
-                Socket clientSocket = serverSocket.accept();
-                new Thread(() -> handleRequest(clientSocket)).start();
-            }
+            server.run();
         } catch (IOException e) {
             System.err.println("❌ Error starting server: " + e.getMessage());
             System.err.println("💡 Make sure port " + PORT + " is not already in use");
         }
     }
     
-    private static void handleRequest(Socket clientSocket) {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-             PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
-            
-            String requestLine = in.readLine();
-            if (requestLine == null) return;
-            
-            String[] requestParts = requestLine.split(" ");
-            String method = requestParts[0];
-            String path = requestParts[1];
-            
+    /**
+     * Handle one parsed request on a worker thread
+     */
+    private static byte[] handleRequest(String method, String path, String requestBody, boolean keepAlive) {
+        if (LOG_REQUESTS) {
             System.out.println("📨 " + method + " " + path);
-            
-            // Read headers to find Content-Length
-            int contentLength = 0;
-            String line;
-            while ((line = in.readLine()) != null && !line.isEmpty()) {
-                if (line.toLowerCase().startsWith("content-length:")) {
-                    contentLength = Integer.parseInt(line.substring(15).trim());
-                }
-            }
-            
-            // Read request body for POST requests
-            String requestBody = "";
-            if (method.equals("POST") && contentLength > 0) {
-                char[] body = new char[contentLength];
-                in.read(body, 0, contentLength);
-                requestBody = new String(body);
+            if (method.equals("POST") && !requestBody.isEmpty()) {
                 System.out.println("📦 Request body: " + requestBody);
             }
-            
-            // Handle CORS - Allow both ports 3000 and 3002
-            out.println("HTTP/1.1 200 OK");
-            out.println("Content-Type: application/json");
-            out.println("Access-Control-Allow-Origin: *"); // Allow all origins for development
-            out.println("Access-Control-Allow-Methods: GET, POST, PUT, DELETE, OPTIONS");
-            out.println("Access-Control-Allow-Headers: Content-Type");
-            out.println("Connection: close");
-            out.println("");
-            
-            // Handle preflight requests
-            if (method.equals("OPTIONS")) {
-                return;
-            }
-            
-            String response = handleApiRequest(method, path, requestBody);
-            out.println(response);
-            
-        } catch (IOException e) {
-            System.err.println("❌ Error handling request: " + e.getMessage());
         }
+        
+        // Handle preflight requests
+        if (method.equals("OPTIONS")) {
+            return SelectorServer.response(204, "No Content", "", keepAlive);
+        }
+        
+        return SelectorServer.response(200, "OK", handleApiRequest(method, path, requestBody), keepAlive);
     }
     
     private static String handleApiRequest(String method, String path, String requestBody) {
@@ -118,6 +110,9 @@ public class SimpleBackend {
                 case "/api/health":
                     return "{\"status\":\"healthy\",\"message\":\"Exam Seating Backend is running\"}";
                 default:
+                    if (path.startsWith("/api/seating/room/")) {
+                        return loadRoomSeating(path.substring("/api/seating/room/".length()));
+                    }
                     if (path.startsWith("/api/student/")) {
                         // Extract student ID from path like /api/student/STU001
                         String studentId = path.substring("/api/student/".length());
@@ -185,8 +180,18 @@ public class SimpleBackend {
     }
     
     private static String searchStudent(String studentId) {
-        // Mock student search - in a real app, this would query the database
-        // For now, return the same mock data as generateSeating but filter by studentId
+        SeatingStore current = store;
+        if (current != null) {
+            SeatingSnapshot.Seat seat = new SeatingSnapshot.Seat();
+            if (!current.findStudent(studentId, seat)) {
+                return "{\"found\":false,\"message\":\"Student not found\"}";
+            }
+            StringBuilder json = new StringBuilder("{\"found\":true,\"student\":");
+            current.seats.appendJson(json, seat);
+            return json.append("}").toString();
+        }
+        
+        // No saved arrangement yet - mock student search
         String mockData = "{\"studentId\":\"" + studentId + "\",\"studentName\":\"John Doe\",\"studentExam\":\"Mathematics\",\"date\":\"2024-12-20\",\"roomNo\":\"ROOM001\",\"roomName\":\"Main Hall A\",\"seatNo\":1,\"row\":1,\"column\":1,\"roomCapacity\":50,\"roomLayout\":\"10x5\"}";
         
         // Simple mock search - in real implementation, this would search the actual seating data
@@ -200,69 +205,153 @@ public class SimpleBackend {
     }
     
     private static String loadSeatingFromFile() {
-        try {
-            Path filePath = Paths.get(DATA_DIR + SEATING_FILE);
-            if (!Files.exists(filePath)) {
-                return "{\"seatingArrangement\":[],\"message\":\"No seating data found\",\"totalStudents\":0}";
+        SeatingStore current = store;
+        if (current == null) {
+            return "{\"seatingArrangement\":[],\"message\":\"No seating data found\",\"totalStudents\":0}";
+        }
+        SeatingSnapshot seats = current.seats;
+        if (seats.seatCount() == 0) {
+            return "{\"seatingArrangement\":[],\"message\":\"Empty seating file\",\"totalStudents\":0}";
+        }
+        
+        StringBuilder json = new StringBuilder(seats.seatCount() * 240);
+        json.append("{\"seatingArrangement\":[");
+        SeatingSnapshot.Seat seat = new SeatingSnapshot.Seat();
+        for (int room = 0; room < seats.roomCount(); room++) {
+            int offset = seats.roomSeatOffset(room);
+            for (int i = 0; i < seats.roomSeatCount(room); i++) {
+                offset = seats.readSeat(room, offset, seat);
+                if (json.charAt(json.length() - 1) == '}') json.append(",");
+                seats.appendJson(json, seat);
             }
-            
-            String content = Files.readString(filePath);
-            String[] lines = content.split("\n");
-            
-            if (lines.length <= 1) {
-                return "{\"seatingArrangement\":[],\"message\":\"Empty seating file\",\"totalStudents\":0}";
+        }
+        json.append("],\"totalStudents\":").append(seats.seatCount()).append(",\"loadedFromFile\":true}");
+        return json.toString();
+    }
+    
+    private static String loadRoomSeating(String roomNo) {
+        SeatingStore current = store;
+        int room = current == null ? -1 : current.findRoom(roomNo);
+        if (room < 0) {
+            return "{\"seatingArrangement\":[],\"message\":\"Room not found\",\"totalStudents\":0}";
+        }
+        
+        SeatingSnapshot seats = current.seats;
+        StringBuilder json = new StringBuilder("{\"seatingArrangement\":[");
+        SeatingSnapshot.Seat seat = new SeatingSnapshot.Seat();
+        int offset = seats.roomSeatOffset(room);
+        for (int i = 0; i < seats.roomSeatCount(room); i++) {
+            offset = seats.readSeat(room, offset, seat);
+            if (i > 0) json.append(",");
+            seats.appendJson(json, seat);
+        }
+        json.append("],\"totalStudents\":").append(seats.roomSeatCount(room)).append("}");
+        return json.toString();
+    }
+    
+    /**
+     * Load the saved arrangement; null when nothing has been saved
+     */
+    private static SeatingStore loadSeatingStore() throws IOException {
+        synchronized (SimpleBackend.class) {
+            convertEditedCsv();
+            Path snapshotPath = Paths.get(DATA_DIR + SNAPSHOT_FILE);
+            return Files.exists(snapshotPath) ? SeatingStore.load(snapshotPath) : null;
+        }
+    }
+    
+    /**
+     * Rewrite the snapshot from the CSV if the CSV was edited (or saved by an
+     * older version) after the snapshot was written, or if the snapshot is in
+     * another format
+     *
+     * @return Whether the snapshot was rewritten
+     */
+    private static boolean convertEditedCsv() throws IOException {
+        Path snapshotPath = Paths.get(DATA_DIR + SNAPSHOT_FILE);
+        Path csvPath = Paths.get(DATA_DIR + SEATING_FILE);
+        synchronized (SimpleBackend.class) {
+            if (!Files.exists(csvPath) || (Files.exists(snapshotPath) && SeatingSnapshot.isCurrent(snapshotPath)
+                    && Files.getLastModifiedTime(csvPath).compareTo(Files.getLastModifiedTime(snapshotPath)) <= 0)) {
+                return false;
             }
-            
-            // Parse CSV and convert to JSON
-            String[] headers = lines[0].split(",");
-            StringBuilder json = new StringBuilder();
-            json.append("{\"seatingArrangement\":[");
-            
-            for (int i = 1; i < lines.length; i++) {
-                if (lines[i].trim().isEmpty()) continue;
-                
-                String[] values = lines[i].split(",");
-                if (values.length >= headers.length) {
-                    if (i > 1) json.append(",");
-                    json.append("{");
-                    json.append("\"studentId\":\"").append(cleanValue(values[0])).append("\",");
-                    json.append("\"studentName\":\"").append(cleanValue(values[1])).append("\",");
-                    json.append("\"studentExam\":\"").append(cleanValue(values[2])).append("\",");
-                    json.append("\"date\":\"").append(cleanValue(values[3])).append("\",");
-                    json.append("\"roomNo\":\"").append(cleanValue(values[4])).append("\",");
-                    json.append("\"roomName\":\"").append(cleanValue(values[5])).append("\",");
-                    json.append("\"seatNo\":").append(parseInt(values[6])).append(",");
-                    json.append("\"row\":").append(parseInt(values[7])).append(",");
-                    json.append("\"column\":").append(parseInt(values[8])).append(",");
-                    json.append("\"roomCapacity\":").append(parseInt(values[9])).append(",");
-                    json.append("\"roomLayout\":\"").append(cleanValue(values[10])).append("\"");
-                    json.append("}");
+            SeatingSnapshot.write(parseCsvRows(Files.readString(csvPath)), snapshotPath);
+            // Same timestamp as the CSV, so the CSV only counts as edited once it changes again
+            Files.setLastModifiedTime(snapshotPath, Files.getLastModifiedTime(csvPath));
+            System.out.println("💾 Converted " + csvPath + " to " + snapshotPath);
+            return true;
+        }
+    }
+    
+    /**
+     * Reload the store whenever seating_arrangement.csv is edited outside the server
+     */
+    private static void watchSeatingFile() throws IOException {
+        Path dir = Paths.get(DATA_DIR);
+        Files.createDirectories(dir);
+        WatchService watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> {
+            while (true) {
+                try {
+                    WatchKey key = watcher.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= SEATING_FILE.equals(String.valueOf(event.context()));
+                    }
+                    key.reset();
+                    if (!changed) {
+                        continue;
+                    }
+                    // Editors write in several steps; let them finish before reading
+                    Thread.sleep(200);
+                    WatchKey more;
+                    while ((more = watcher.poll()) != null) {
+                        more.pollEvents();
+                        more.reset();
+                    }
+                    synchronized (SimpleBackend.class) {
+                        if (convertEditedCsv()) {
+                            store = SeatingStore.load(Paths.get(DATA_DIR + SNAPSHOT_FILE));
+                            System.out.println("🔄 Reloaded " + SEATING_FILE + " (" + store.seats.seatCount() + " seats)");
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("❌ Error reloading " + SEATING_FILE + ": " + e.getMessage());
                 }
             }
-            
-            json.append("],\"totalStudents\":").append(lines.length - 1).append(",\"loadedFromFile\":true}");
-            return json.toString();
-            
-        } catch (IOException e) {
-            return "{\"error\":\"Failed to load seating data from file: " + e.getMessage() + "\"}";
-        }
+        }, "seating-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
     }
     
     private static String saveSeatingToFile(String requestBody) {
         try {
-            System.out.println("📦 Received seating data: " + requestBody);
+            if (LOG_REQUESTS) {
+                System.out.println("📦 Received seating data: " + requestBody);
+            }
             
             // Parse the JSON request body to extract seating data
-            String csvContent = parseJsonToCSV(requestBody);
+            List<String[]> rows = parseCsvRows(parseJsonToCSV(requestBody));
+            Path snapshotPath = Paths.get(DATA_DIR + SNAPSHOT_FILE);
             Path filePath = Paths.get(DATA_DIR + SEATING_FILE);
             
             // Ensure directory exists
             Files.createDirectories(Paths.get(DATA_DIR));
             
-            // Write CSV content to file
-            Files.write(filePath, csvContent.getBytes());
+            // The snapshot is the saved copy; the CSV is exported from it
+            synchronized (SimpleBackend.class) {
+                SeatingSnapshot.write(rows, snapshotPath);
+                SeatingStore saved = SeatingStore.load(snapshotPath);
+                saved.seats.exportCsv(filePath);
+                // The export is not an edit, so the watcher should leave it alone
+                Files.setLastModifiedTime(snapshotPath, Files.getLastModifiedTime(filePath));
+                store = saved;
+            }
             
-            System.out.println("💾 Seating data saved to: " + filePath.toString());
+            System.out.println("💾 Seating data saved to: " + snapshotPath.toString() + " and " + filePath.toString());
             return "{\"success\":true,\"message\":\"Seating data saved to file\",\"file\":\"" + SEATING_FILE + "\"}";
             
         } catch (Exception e) {
@@ -384,15 +473,803 @@ public class SimpleBackend {
                "\"STU005\",\"David Brown\",\"Physics\",\"2024-12-22\",\"ROOM002\",\"Main Hall B\",2,1,2,45,\"9x5\"";
     }
     
-    private static String cleanValue(String value) {
-        return value.replace("\"", "").trim();
+    /**
+     * Rows of a seating CSV (header skipped), split on commas outside quotes;
+     * a doubled quote inside a quoted value is a literal quote
+     */
+    private static List<String[]> parseCsvRows(String content) {
+        List<String[]> rows = new ArrayList<>();
+        String[] lines = content.split("\n");
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].trim().isEmpty()) continue;
+            
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            String line = lines[i];
+            for (int j = 0; j < line.length(); j++) {
+                char c = line.charAt(j);
+                if (c == '"' && quoted && j + 1 < line.length() && line.charAt(j + 1) == '"') {
+                    value.append('"');
+                    j++;
+                } else if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ',' && !quoted) {
+                    values.add(value.toString().trim());
+                    value.setLength(0);
+                } else if (c != '\r') {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString().trim());
+            if (values.size() >= SeatingSnapshot.CSV_HEADER.length) {
+                rows.add(values.toArray(new String[0]));
+            }
+        }
+        return rows;
     }
     
-    private static int parseInt(String value) {
-        try {
-            return Integer.parseInt(cleanValue(value));
-        } catch (NumberFormatException e) {
-            return 0;
+    /**
+     * Versioned binary copy of a saved seating arrangement, read through a
+     * memory-mapped buffer.
+     *
+     * Layout (big-endian): a header with the magic, version, counts and
+     * section offsets; a string table (offsets, then UTF-8 bytes) holding every
+     * distinct text value once; a room table of fixed-size records pointing at
+     * each room's seats; the seat records, grouped by room, as varints of
+     * string ids and seat/row/column numbers; and a student index of
+     * (seat offset, room) pairs sorted by student ID bytes for binary search.
+     * Opening a snapshot only maps the file and checks the header, and reads
+     * go through a reusable {@link Seat} without creating strings.
+     *
+     * Snapshots in any other version (a short-lived version 2 had no student
+     * index) are rebuilt from the CSV.
+     */
+    static final class SeatingSnapshot {
+        static final int MAGIC = 0x45534153; // "ESAS"
+        static final int VERSION = 1;
+        static final String[] CSV_HEADER = {"Student ID", "Student Name", "Student Exam", "Date", "Room No",
+                "Room Name", "Seat No", "Row", "Column", "Room Capacity", "Room Layout"};
+        
+        private static final int HEADER_SIZE = 36;
+        private static final int ROOM_RECORD_SIZE = 24;
+        private static final int INDEX_RECORD_SIZE = 8;
+        
+        private final ByteBuffer data;
+        private final int seatCount;
+        private final int roomCount;
+        private final int stringCount;
+        private final int stringsOffset;
+        private final int roomsOffset;
+        private final int seatsOffset;
+        private final int indexOffset;
+        
+        /**
+         * One seat, overwritten by each read; text fields are string ids
+         */
+        static final class Seat {
+            int room;
+            int studentId;
+            int studentName;
+            int studentExam;
+            int date;
+            int seatNo;
+            int row;
+            int column;
+            // Read position while decoding
+            int position;
+        }
+        
+        private SeatingSnapshot(ByteBuffer data) throws IOException {
+            this.data = data;
+            if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+                throw new IOException("Not a seating snapshot");
+            }
+            if (data.getInt(4) != VERSION) {
+                throw new IOException("Unsupported seating snapshot version " + data.getInt(4));
+            }
+            seatCount = data.getInt(8);
+            roomCount = data.getInt(12);
+            stringCount = data.getInt(16);
+            stringsOffset = data.getInt(20);
+            roomsOffset = data.getInt(24);
+            seatsOffset = data.getInt(28);
+            indexOffset = data.getInt(32);
+            if (indexOffset + (long) seatCount * INDEX_RECORD_SIZE != data.limit()) {
+                throw new IOException("Truncated seating snapshot");
+            }
+        }
+        
+        static SeatingSnapshot open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new SeatingSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        
+        /**
+         * Whether a snapshot file is in the current format
+         */
+        static boolean isCurrent(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                return in.readInt() == MAGIC && in.readInt() == VERSION;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+        
+        /**
+         * Write rows in CSV column order; seats are grouped by room in order of first appearance
+         */
+        static void write(List<String[]> rows, Path file) throws IOException {
+            Map<String, Integer> ids = new HashMap<>();
+            List<byte[]> strings = new ArrayList<>();
+            Map<String, Integer> roomOf = new LinkedHashMap<>();
+            List<String[]> roomRows = new ArrayList<>();
+            List<int[]> roomStrings = new ArrayList<>();
+            List<List<String[]>> seatsByRoom = new ArrayList<>();
+            for (String[] row : rows) {
+                Integer room = roomOf.get(row[4]);
+                if (room == null) {
+                    room = roomRows.size();
+                    roomOf.put(row[4], room);
+                    roomRows.add(row);
+                    roomStrings.add(new int[]{intern(row[4], ids, strings), intern(row[5], ids, strings),
+                            intern(row[10], ids, strings)});
+                    seatsByRoom.add(new ArrayList<>());
+                }
+                seatsByRoom.get(room).add(row);
+            }
+            
+            ByteArrayOutputStream seats = new ByteArrayOutputStream(rows.size() * 12);
+            int[] roomFirstOffset = new int[roomRows.size()];
+            int[] seatOffset = new int[rows.size()];
+            int[] seatRoom = new int[rows.size()];
+            byte[][] seatKey = new byte[rows.size()][];
+            int n = 0;
+            for (int room = 0; room < roomRows.size(); room++) {
+                roomFirstOffset[room] = seats.size();
+                for (String[] row : seatsByRoom.get(room)) {
+                    seatOffset[n] = seats.size();
+                    seatRoom[n] = room;
+                    seatKey[n] = row[0].getBytes(StandardCharsets.UTF_8);
+                    n++;
+                    for (int field = 0; field < 4; field++) {
+                        putVarint(seats, intern(row[field], ids, strings));
+                    }
+                    for (int field = 6; field < 9; field++) {
+                        putVarint(seats, number(row[field]));
+                    }
+                }
+            }
+            
+            int stringBytes = 0;
+            for (byte[] string : strings) {
+                stringBytes += string.length;
+            }
+            int stringsOffset = HEADER_SIZE;
+            int roomsOffset = stringsOffset + 4 * (strings.size() + 1) + stringBytes;
+            int seatsOffset = roomsOffset + ROOM_RECORD_SIZE * roomRows.size();
+            long indexOffset = (long) seatsOffset + seats.size();
+            if (indexOffset + (long) rows.size() * INDEX_RECORD_SIZE > Integer.MAX_VALUE) {
+                throw new IOException("Seating arrangement is too large for a snapshot");
+            }
+            
+            // Student index: seat numbers sorted by student ID bytes
+            Integer[] order = new Integer[rows.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(seatKey[a], seatKey[b]));
+            
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "seating", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(rows.size());
+                out.writeInt(roomRows.size());
+                out.writeInt(strings.size());
+                out.writeInt(stringsOffset);
+                out.writeInt(roomsOffset);
+                out.writeInt(seatsOffset);
+                out.writeInt((int) indexOffset);
+                
+                int position = 0;
+                for (byte[] string : strings) {
+                    out.writeInt(position);
+                    position += string.length;
+                }
+                out.writeInt(position);
+                for (byte[] string : strings) {
+                    out.write(string);
+                }
+                
+                for (int room = 0; room < roomRows.size(); room++) {
+                    int[] text = roomStrings.get(room);
+                    out.writeInt(text[0]);
+                    out.writeInt(text[1]);
+                    out.writeInt(number(roomRows.get(room)[9]));
+                    out.writeInt(text[2]);
+                    out.writeInt(seatsByRoom.get(room).size());
+                    out.writeInt(roomFirstOffset[room]);
+                }
+                
+                seats.writeTo(out);
+                for (int seat : order) {
+                    out.writeInt(seatOffset[seat]);
+                    out.writeInt(seatRoom[seat]);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        
+        private static int intern(String value, Map<String, Integer> ids, List<byte[]> strings) {
+            return ids.computeIfAbsent(value, v -> {
+                strings.add(v.getBytes(StandardCharsets.UTF_8));
+                return strings.size() - 1;
+            });
+        }
+        
+        private static int number(String value) {
+            try {
+                return Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        
+        private static void putVarint(ByteArrayOutputStream out, int value) {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+        
+        int seatCount() {
+            return seatCount;
+        }
+        
+        int roomCount() {
+            return roomCount;
+        }
+        
+        int roomSeatCount(int room) {
+            return data.getInt(roomsOffset + room * ROOM_RECORD_SIZE + 16);
+        }
+        
+        /**
+         * Position of a room's first seat record, for {@link #readSeat}
+         */
+        int roomSeatOffset(int room) {
+            return seatsOffset + data.getInt(roomsOffset + room * ROOM_RECORD_SIZE + 20);
+        }
+        
+        /**
+         * Decode the seat record at a position into seat
+         *
+         * @return Position of the next seat record
+         */
+        int readSeat(int room, int position, Seat seat) {
+            seat.room = room;
+            seat.position = position;
+            seat.studentId = varint(seat);
+            seat.studentName = varint(seat);
+            seat.studentExam = varint(seat);
+            seat.date = varint(seat);
+            seat.seatNo = varint(seat);
+            seat.row = varint(seat);
+            seat.column = varint(seat);
+            return seat.position;
+        }
+        
+        private int varint(Seat cursor) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(cursor.position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+        
+        /**
+         * Binary search of the student index
+         */
+        boolean findStudent(String studentId, Seat seat) {
+            byte[] key = studentId.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = seatCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int entry = indexOffset + mid * INDEX_RECORD_SIZE;
+                int position = seatsOffset + data.getInt(entry);
+                seat.position = position;
+                int cmp = compare(varint(seat), key);
+                if (cmp == 0) {
+                    readSeat(data.getInt(entry + 4), position, seat);
+                    return true;
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return false;
+        }
+        
+        private int compare(int string, byte[] key) {
+            int start = stringsOffset + 4 * (stringCount + 1) + data.getInt(stringsOffset + 4 * string);
+            int length = data.getInt(stringsOffset + 4 * (string + 1)) - data.getInt(stringsOffset + 4 * string);
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int cmp = (data.get(start + i) & 0xFF) - (key[i] & 0xFF);
+                if (cmp != 0) return cmp;
+            }
+            return length - key.length;
+        }
+        
+        String string(int string) {
+            int start = stringsOffset + 4 * (stringCount + 1) + data.getInt(stringsOffset + 4 * string);
+            byte[] bytes = new byte[data.getInt(stringsOffset + 4 * (string + 1)) - data.getInt(stringsOffset + 4 * string)];
+            ByteBuffer view = data.duplicate();
+            view.position(start);
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        int roomNo(int room) {
+            return data.getInt(roomsOffset + room * ROOM_RECORD_SIZE);
+        }
+        
+        int roomName(int room) {
+            return data.getInt(roomsOffset + room * ROOM_RECORD_SIZE + 4);
+        }
+        
+        int roomCapacity(int room) {
+            return data.getInt(roomsOffset + room * ROOM_RECORD_SIZE + 8);
+        }
+        
+        int roomLayout(int room) {
+            return data.getInt(roomsOffset + room * ROOM_RECORD_SIZE + 12);
+        }
+        
+        void appendJson(StringBuilder json, Seat seat) {
+            json.append("{\"studentId\":");
+            appendJsonString(json, seat.studentId);
+            json.append(",\"studentName\":");
+            appendJsonString(json, seat.studentName);
+            json.append(",\"studentExam\":");
+            appendJsonString(json, seat.studentExam);
+            json.append(",\"date\":");
+            appendJsonString(json, seat.date);
+            json.append(",\"roomNo\":");
+            appendJsonString(json, roomNo(seat.room));
+            json.append(",\"roomName\":");
+            appendJsonString(json, roomName(seat.room));
+            json.append(",\"seatNo\":").append(seat.seatNo);
+            json.append(",\"row\":").append(seat.row);
+            json.append(",\"column\":").append(seat.column);
+            json.append(",\"roomCapacity\":").append(roomCapacity(seat.room));
+            json.append(",\"roomLayout\":");
+            appendJsonString(json, roomLayout(seat.room));
+            json.append("}");
+        }
+        
+        private void appendJsonString(StringBuilder json, int string) {
+            json.append('"');
+            for (char c : string(string).toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            json.append('"');
+        }
+        
+        /**
+         * Write the arrangement as seating_arrangement.csv, in snapshot seat order
+         */
+        void exportCsv(Path file) throws IOException {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+                out.write(String.join(",", CSV_HEADER));
+                out.write("\n");
+                Seat seat = new Seat();
+                for (int room = 0; room < roomCount; room++) {
+                    int position = roomSeatOffset(room);
+                    for (int i = 0; i < roomSeatCount(room); i++) {
+                        position = readSeat(room, position, seat);
+                        out.write(csvQuote(string(seat.studentId)) + "," + csvQuote(string(seat.studentName)) + ","
+                                + csvQuote(string(seat.studentExam)) + "," + csvQuote(string(seat.date)) + ","
+                                + csvQuote(string(roomNo(room))) + "," + csvQuote(string(roomName(room))) + ","
+                                + seat.seatNo + "," + seat.row + "," + seat.column + ","
+                                + roomCapacity(room) + "," + csvQuote(string(roomLayout(room))) + "\n");
+                    }
+                }
+            }
+        }
+        
+        private static String csvQuote(String value) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+    
+    /**
+     * Immutable saved arrangement: a mapped snapshot plus an index of rooms by
+     * room number.
+     *
+     * Student lookups binary-search the snapshot's own sorted student index,
+     * so loading a store maps the file and reads the room table, without
+     * copying or re-indexing the seats, and requests never do file I/O beyond
+     * page faults on the mapping. A change maps the new snapshot into a new
+     * store and replaces the old one as a whole; the replaced mapping stays
+     * valid for requests still reading it.
+     */
+    static final class SeatingStore {
+        final SeatingSnapshot seats;
+        private final Map<String, Integer> rooms = new HashMap<>();
+        
+        private SeatingStore(SeatingSnapshot seats) {
+            this.seats = seats;
+            for (int room = 0; room < seats.roomCount(); room++) {
+                rooms.putIfAbsent(seats.string(seats.roomNo(room)), room);
+            }
+        }
+        
+        static SeatingStore load(Path snapshotFile) throws IOException {
+            return new SeatingStore(SeatingSnapshot.open(snapshotFile));
+        }
+        
+        boolean findStudent(String studentId, SeatingSnapshot.Seat seat) {
+            return seats.findStudent(studentId, seat);
+        }
+        
+        int findRoom(String roomNo) {
+            return rooms.getOrDefault(roomNo, -1);
+        }
+    }
+    
+    /**
+     * HTTP/1.1 server on a single selector thread with a bounded worker pool.
+     *
+     * The selector thread accepts connections, reads and frames requests (by
+     * Content-Length) and writes responses; only request handling runs on the
+     * workers, so idle keep-alive connections cost a buffer and a key rather
+     * than a thread. Each connection has at most one request in flight, and
+     * pipelined requests are picked up once the previous response is written.
+     * When the worker queue is full the request gets a 503 instead of waiting.
+     */
+    static final class SelectorServer implements Closeable {
+        private static final int READ_BUFFER_SIZE = 8 * 1024;
+        private static final int MAX_HEADER_BYTES = 64 * 1024;
+        private static final int MAX_REQUEST_BYTES = 64 * 1024 * 1024;
+        private static final long IDLE_TIMEOUT_MS = 30_000;
+        private static final int ACCEPT_BACKLOG = 4096;
+        private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        
+        private final Selector selector;
+        private final ServerSocketChannel serverChannel;
+        private final ThreadPoolExecutor workers;
+        // Connections whose response is ready, handed back from the workers
+        private final Queue<Connection> completed = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private long lastIdleSweep = System.currentTimeMillis();
+        
+        SelectorServer(int port, int threads, int maxQueued) throws IOException {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            serverChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                        Thread thread = new Thread(runnable, "http-worker");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        
+        /**
+         * Serve until the selector is closed
+         */
+        void run() throws IOException {
+            while (selector.isOpen()) {
+                selector.select(1000);
+                if (!selector.isOpen()) {
+                    break;
+                }
+                Connection done;
+                while ((done = completed.poll()) != null) {
+                    // The client may have reset the connection while its request was being handled
+                    try {
+                        write(done);
+                    } catch (IOException | CancelledKeyException e) {
+                        done.close();
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read((Connection) key.attachment());
+                        } else if (key.isWritable()) {
+                            write((Connection) key.attachment());
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        if (key.attachment() != null) {
+                            ((Connection) key.attachment()).close();
+                        }
+                    }
+                }
+                closeIdle();
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            workers.shutdownNow();
+            selector.close();
+            serverChannel.close();
+        }
+        
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+        }
+        
+        private void read(Connection connection) throws IOException {
+            readBuffer.clear();
+            int n = connection.channel.read(readBuffer);
+            if (n < 0) {
+                connection.close();
+                return;
+            }
+            readBuffer.flip();
+            connection.append(readBuffer);
+            connection.lastActive = System.currentTimeMillis();
+            dispatch(connection);
+        }
+        
+        /**
+         * Start handling the next complete request buffered on a connection, if any
+         */
+        private void dispatch(Connection connection) throws IOException {
+            if (connection.busy) {
+                return;
+            }
+            byte[] in = connection.in;
+            int headerEnd = indexOf(in, connection.length, connection.scanFrom);
+            if (headerEnd < 0) {
+                connection.scanFrom = Math.max(0, connection.length - 3);
+                if (connection.length > MAX_HEADER_BYTES) {
+                    reject(connection, 431, "Request Header Fields Too Large");
+                }
+                return;
+            }
+            
+            String head = new String(in, 0, headerEnd, StandardCharsets.ISO_8859_1);
+            String[] lines = head.split("\r\n");
+            String[] requestParts = lines[0].split(" ");
+            if (requestParts.length < 3) {
+                reject(connection, 400, "Bad Request");
+                return;
+            }
+            String method = requestParts[0];
+            String path = requestParts[1];
+            boolean keepAlive = !requestParts[2].equals("HTTP/1.0");
+            long contentLength = 0;
+            boolean expectContinue = false;
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = lines[i].substring(colon + 1).trim();
+                if (name.equals("content-length")) {
+                    try {
+                        contentLength = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        contentLength = -1;
+                    }
+                } else if (name.equals("connection")) {
+                    keepAlive = value.equalsIgnoreCase("keep-alive")
+                            || (keepAlive && !value.equalsIgnoreCase("close"));
+                } else if (name.equals("expect")) {
+                    expectContinue = value.equalsIgnoreCase("100-continue");
+                } else if (name.equals("transfer-encoding")) {
+                    // Chunked bodies are not supported; clients here always send a length
+                    reject(connection, 411, "Length Required");
+                    return;
+                }
+            }
+            if (contentLength < 0) {
+                reject(connection, 400, "Bad Request");
+                return;
+            }
+            if (contentLength > MAX_REQUEST_BYTES) {
+                reject(connection, 413, "Payload Too Large");
+                return;
+            }
+            
+            int bodyStart = headerEnd + 4;
+            int requestEnd = bodyStart + (int) contentLength;
+            if (connection.length < requestEnd) {
+                if (expectContinue && !connection.continueSent) {
+                    // A 25-byte write to an idle socket does not come back partial
+                    connection.channel.write(ByteBuffer.wrap(CONTINUE));
+                    connection.continueSent = true;
+                }
+                return;
+            }
+            
+            String body = new String(in, bodyStart, (int) contentLength, StandardCharsets.UTF_8);
+            connection.consume(requestEnd);
+            connection.busy = true;
+            connection.keepAlive = keepAlive;
+            connection.key.interestOps(0);
+            boolean close = !keepAlive;
+            try {
+                workers.execute(() -> {
+                    byte[] response;
+                    try {
+                        response = handleRequest(method, path, body, !close);
+                    } catch (RuntimeException e) {
+                        response = response(500, "Internal Server Error", "{\"error\":\"Internal server error\"}", !close);
+                    }
+                    connection.out = ByteBuffer.wrap(response);
+                    completed.add(connection);
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                connection.keepAlive = false;
+                connection.out = ByteBuffer.wrap(response(503, "Service Unavailable",
+                        "{\"error\":\"Server busy, please retry\"}", false));
+                write(connection);
+            }
+        }
+        
+        private void reject(Connection connection, int status, String reason) throws IOException {
+            connection.busy = true;
+            connection.keepAlive = false;
+            connection.out = ByteBuffer.wrap(response(status, reason, "{\"error\":\"" + reason + "\"}", false));
+            write(connection);
+        }
+        
+        private void write(Connection connection) throws IOException {
+            if (!connection.channel.isOpen()) {
+                return;
+            }
+            connection.channel.write(connection.out);
+            connection.lastActive = System.currentTimeMillis();
+            if (connection.out.hasRemaining()) {
+                connection.key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            connection.out = null;
+            if (!connection.keepAlive) {
+                connection.close();
+                return;
+            }
+            connection.busy = false;
+            connection.continueSent = false;
+            connection.key.interestOps(SelectionKey.OP_READ);
+            dispatch(connection);
+        }
+        
+        private void closeIdle() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleSweep < 1000) {
+                return;
+            }
+            lastIdleSweep = now;
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if (connection != null && !connection.busy && now - connection.lastActive > IDLE_TIMEOUT_MS) {
+                    connection.close();
+                }
+            }
+        }
+        
+        /**
+         * Position of the blank line ending the request head, or -1
+         */
+        private static int indexOf(byte[] in, int length, int from) {
+            for (int i = from; i + 3 < length; i++) {
+                if (in[i] == '\r' && in[i + 1] == '\n' && in[i + 2] == '\r' && in[i + 3] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Complete response with CORS headers and Content-Length framing
+         */
+        static byte[] response(int status, String reason, String body, boolean keepAlive) {
+            byte[] content = body.getBytes(StandardCharsets.UTF_8);
+            String head = "HTTP/1.1 " + status + " " + reason + "\r\n"
+                    + "Content-Type: application/json; charset=utf-8\r\n"
+                    + "Access-Control-Allow-Origin: *\r\n" // Allow all origins for development
+                    + "Access-Control-Allow-Methods: GET, POST, PUT, DELETE, OPTIONS\r\n"
+                    + "Access-Control-Allow-Headers: Content-Type\r\n"
+                    + "Content-Length: " + content.length + "\r\n"
+                    + "Connection: " + (keepAlive ? "keep-alive" : "close") + "\r\n"
+                    + "\r\n";
+            byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] response = Arrays.copyOf(headBytes, headBytes.length + content.length);
+            System.arraycopy(content, 0, response, headBytes.length, content.length);
+            return response;
+        }
+        
+        /**
+         * Per-connection state; only touched by the selector thread, except
+         * {@link #out}, which a worker sets before handing the connection back
+         */
+        private static final class Connection {
+            final SocketChannel channel;
+            SelectionKey key;
+            byte[] in = new byte[1024];
+            int length;
+            int scanFrom;
+            volatile ByteBuffer out;
+            boolean busy;
+            boolean keepAlive;
+            boolean continueSent;
+            long lastActive = System.currentTimeMillis();
+            
+            Connection(SocketChannel channel) {
+                this.channel = channel;
+            }
+            
+            void append(ByteBuffer data) {
+                int n = data.remaining();
+                if (length + n > in.length) {
+                    in = Arrays.copyOf(in, Math.max(in.length * 2, length + n));
+                }
+                data.get(in, length, n);
+                length += n;
+            }
+            
+            /**
+             * Drop a handled request from the front of the buffer
+             */
+            void consume(int count) {
+                System.arraycopy(in, count, in, 0, length - count);
+                length -= count;
+                scanFrom = 0;
+                if (in.length > READ_BUFFER_SIZE && length < 1024) {
+                    in = Arrays.copyOf(in, 1024);
+                }
+            }
+            
+            void close() {
+                try {
+                    key.cancel();
+                    channel.close();
+                } catch (IOException e) {
+                    // Already gone
+                }
+            }
         }
     }
 }
@@ -0,0 +1,28 @@
+#!/bin/bash
+
+# Exam Seating System - JMH benchmarks
+# Builds the test classes and runs the benchmarks in
+# src/test/java/com/examseating/benchmark whose names match PATTERN (all by
+# default). Further arguments go to JMH, e.g. -p students=100000 -f 1.
+#
+# Usage: ./benchmark.sh [pattern] [jmh options...]
+
+PATTERN=${1:-.}
+shift
+
+cd "$(dirname "$0")" || exit 1
+
+echo "⏱️ Exam Seating System - Benchmarks"
+echo "======================================"
+
+if ! command -v mvn &> /dev/null; then
+    echo "❌ Maven is not installed."
+    exit 1
+fi
+
+echo "🔨 Compiling benchmarks..."
+mvn -B -q test-compile dependency:build-classpath -Dmdep.includeScope=test \
+    -Dmdep.outputFile=target/benchmark.classpath || exit 1
+
+java -cp "target/test-classes:target/classes:$(cat target/benchmark.classpath)" \
+    org.openjdk.jmh.Main "$PATTERN" "$@"
@@ -0,0 +1,57 @@
+#!/bin/bash
+
+# Exam Seating System - SimpleBackend load test
+# Starts the lightweight backend and holds CONNECTIONS keep-alive connections
+# against it for DURATION seconds, then prints requests/s and latency percentiles.
+#
+# With DROP_PERCENT set, that share of the connections reset mid-request
+# instead, and the run fails if the server stops answering.
+#
+# Usage: ./load-test.sh [connections] [duration-seconds] [drop-percent]
+
+CONNECTIONS=${1:-10000}
+DURATION=${2:-30}
+DROP_PERCENT=${3:-0}
+PORT=8080
+
+cd "$(dirname "$0")" || exit 1
+
+echo "🔥 Exam Seating System - Load Test"
+echo "======================================"
+
+if ! command -v java &> /dev/null; then
+    echo "❌ Java is not installed. Please install Java 11 or higher."
+    exit 1
+fi
+
+# Both processes hold one descriptor per connection
+ulimit -n $((CONNECTIONS + 1024)) 2>/dev/null || {
+    echo "❌ Cannot raise the open file limit to $((CONNECTIONS + 1024)) (currently $(ulimit -n))."
+    echo "   Run with fewer connections or raise the hard limit (ulimit -Hn)."
+    exit 1
+}
+
+BUILD_DIR=$(mktemp -d)
+trap 'kill $SERVER_PID 2>/dev/null; rm -rf "$BUILD_DIR"' EXIT
+
+echo "🔨 Compiling SimpleBackend and LoadTest..."
+javac -encoding UTF-8 -d "$BUILD_DIR" SimpleBackend.java LoadTest.java || exit 1
+
+echo "🚀 Starting SimpleBackend on port $PORT..."
+java -Dsimplebackend.quiet=true -cp "$BUILD_DIR" SimpleBackend > "$BUILD_DIR/server.log" 2>&1 &
+SERVER_PID=$!
+
+for _ in $(seq 1 50); do
+    if grep -q "Server started" "$BUILD_DIR/server.log" 2>/dev/null; then
+        break
+    fi
+    sleep 0.2
+done
+if ! kill -0 $SERVER_PID 2>/dev/null; then
+    echo "❌ Server failed to start:"
+    cat "$BUILD_DIR/server.log"
+    exit 1
+fi
+
+echo "📈 $CONNECTIONS connections for $DURATION s..."
+java -cp "$BUILD_DIR" LoadTest "$CONNECTIONS" "$DURATION" localhost $PORT "$DROP_PERCENT"
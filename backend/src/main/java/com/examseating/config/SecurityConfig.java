@@ -2,6 +2,7 @@ package com.examseating.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -13,7 +14,8 @@ import java.util.Arrays;
 
 /**
  * Security configuration for the Exam Seating System
- * Disables security for development and enables CORS
+ * Leaves the API open for development, except hall-ticket token issuing
+ * and catalog cache eviction, which need the admin user; enables CORS
  */
 @Configuration
 @EnableWebSecurity
@@ -25,8 +27,13 @@ public class SecurityConfig {
             .cors().and()
             .csrf().disable()
             .authorizeRequests()
+                // Anything that mints signed hall-ticket tokens; MVC matching also covers /path/ and /path.ext
+                .mvcMatchers(HttpMethod.GET, "/api/seating/token/**", "/api/seating/qr-codes").hasRole("ADMIN")
+                // Evicting reloads the whole catalog from the database
+                .mvcMatchers(HttpMethod.POST, "/api/catalog/cache/evict").hasRole("ADMIN")
                 .anyRequest().permitAll()
             .and()
+            .httpBasic().and()
             .headers().frameOptions().disable(); // For H2 console
         
         return http.build();
@@ -0,0 +1,51 @@
+package com.examseating.controller;
+
+import com.examseating.service.CatalogCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.*;
+
+/**
+ * REST Controller for the room and exam catalog cache
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class CatalogController {
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    /**
+     * Hit, miss and eviction counts of the catalog cache
+     */
+    @GetMapping("/catalog/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(catalogCache.stats());
+    }
+    
+    /**
+     * Evict after editing the catalog outside the API: one room or exam if
+     * named, otherwise everything
+     */
+    @PostMapping("/catalog/cache/evict")
+    public ResponseEntity<Map<String, Object>> evict(@RequestParam(required = false) String roomId,
+            @RequestParam(required = false) String examId) {
+        if (roomId != null) {
+            catalogCache.evictRoom(roomId);
+        }
+        if (examId != null) {
+            catalogCache.evictExam(examId);
+        }
+        if (roomId == null && examId == null) {
+            catalogCache.evictRooms();
+            catalogCache.evictExams();
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("cache", catalogCache.stats());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,54 @@
+package com.examseating.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET support for polled endpoints.
+ *
+ * Tags are built from the versions of a response's inputs rather than from
+ * its body, so an unchanged resource is answered with 304 before anything is
+ * loaded or serialised. They are weak: equal inputs give equivalent bodies,
+ * not necessarily byte-identical ones (e.g. a regenerated timestamp).
+ */
+final class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    /**
+     * Weak entity tag of the given version parts
+     */
+    static String of(Object... parts) {
+        long hash = FNV_OFFSET;
+        for (Object part : parts) {
+            String text = String.valueOf(part);
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+            }
+            // Separator, so ("ab", "c") and ("a", "bc") differ
+            hash *= FNV_PRIME;
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Tag the response and ask clients to revalidate on every use; true if the
+     * client's copy is current and a 304 has been set
+     */
+    static boolean notModified(WebRequest request, String etag) {
+        HttpServletResponse response = request instanceof ServletWebRequest
+                ? ((ServletWebRequest) request).getResponse() : null;
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+}
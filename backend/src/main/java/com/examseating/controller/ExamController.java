@@ -1,7 +1,11 @@
 package com.examseating.controller;
 
+import com.examseating.repository.ExamSummary;
+import com.examseating.service.CatalogCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.*;
 
 /**
@@ -12,31 +16,46 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class ExamController {
     
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
     /**
-     * Get all exams
+     * Get a page of active exams from the catalog cache, ordered by exam ID;
+     * pass the last ID of a page as {@code after} to fetch the next one.
+     * Answers 304 while the cached exams are unchanged.
      */
     @GetMapping("/exams")
-    public ResponseEntity<Map<String, Object>> getAllExams() {
-        // Mock data for demonstration
-        List<Map<String, Object>> exams = Arrays.asList(
-            createExamMap("EXAM001", "Mathematics", "2024-12-20", "09:00", 180),
-            createExamMap("EXAM002", "Physics", "2024-12-22", "14:00", 150)
-        );
+    public ResponseEntity<Map<String, Object>> getAllExams(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit, WebRequest webRequest) {
+        if (ETags.notModified(webRequest, ETags.of("exams", catalogCache.getExamsVersion()))) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Map<String, Object>> exams = new ArrayList<>();
+        for (ExamSummary summary : catalogCache.getExamPage(after, pageSize)) {
+            exams.add(createExamMap(summary));
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("exams", exams);
         response.put("total", exams.size());
+        if (exams.size() == pageSize) {
+            response.put("nextAfter", exams.get(pageSize - 1).get("id"));
+        }
         
         return ResponseEntity.ok(response);
     }
     
-    private Map<String, Object> createExamMap(String id, String subject, String date, String time, int duration) {
+    private Map<String, Object> createExamMap(ExamSummary summary) {
         Map<String, Object> exam = new HashMap<>();
-        exam.put("id", id);
-        exam.put("subject", subject);
-        exam.put("date", date);
-        exam.put("time", time);
-        exam.put("duration", duration);
+        exam.put("id", summary.getExamId());
+        exam.put("subject", summary.getSubject());
+        exam.put("date", summary.getExamDate() != null ? summary.getExamDate().toString() : null);
+        exam.put("time", summary.getStartTime() != null ? summary.getStartTime().toString() : null);
+        exam.put("duration", summary.getDurationMinutes());
         return exam;
     }
 }
@@ -1,7 +1,17 @@
 package com.examseating.controller;
 
+import com.examseating.model.ImportReport;
+import com.examseating.repository.RoomSummary;
+import com.examseating.service.CatalogCache;
+import com.examseating.service.RosterImportService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -12,39 +22,81 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class RoomController {
     
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    @Autowired
+    private RosterImportService rosterImportService;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
     /**
-     * Get all rooms - matching actual CSV data
+     * Get a page of active rooms from the catalog cache, ordered by room number;
+     * pass the last room number of a page as {@code after} to fetch the next one.
+     * Answers 304 while the cached rooms are unchanged.
      */
     @GetMapping("/rooms")
-    public ResponseEntity<Map<String, Object>> getAllRooms() {
-        // Mock data matching actual room capacities
-        List<Map<String, Object>> rooms = Arrays.asList(
-            createRoomMap("ROOM001", "Main Hall A", 25, "5x5", 5, 5),
-            createRoomMap("ROOM002", "Main Hall B", 45, "9x5", 9, 5),
-            createRoomMap("ROOM003", "Science Lab 1", 30, "6x5", 6, 5),
-            createRoomMap("ROOM004", "Computer Lab", 40, "8x5", 8, 5),
-            createRoomMap("ROOM005", "Library Hall", 30, "6x5", 6, 5),
-            createRoomMap("ROOM006", "Conference Room", 25, "5x5", 5, 5),
-            createRoomMap("ROOM007", "Study Hall", 25, "5x5", 5, 5),
-            createRoomMap("ROOM008", "Small Lab", 10, "2x5", 2, 5)
-        );
+    public ResponseEntity<Map<String, Object>> getAllRooms(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit, WebRequest webRequest) {
+        if (ETags.notModified(webRequest, ETags.of("rooms", catalogCache.getRoomsVersion()))) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Map<String, Object>> rooms = new ArrayList<>();
+        for (RoomSummary summary : catalogCache.getRoomPage(after, pageSize)) {
+            rooms.add(createRoomMap(summary));
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("rooms", rooms);
         response.put("total", rooms.size());
+        if (rooms.size() == pageSize) {
+            response.put("nextAfter", rooms.get(pageSize - 1).get("roomNo"));
+        }
         
         return ResponseEntity.ok(response);
     }
     
-    private Map<String, Object> createRoomMap(String roomNo, String roomName, int numberOfSeats, 
-                                            String seatMatrix, int rows, int columns) {
+    /**
+     * Import rooms from an .xlsx spreadsheet, streamed and persisted in batches
+     */
+    @PostMapping("/rooms/import")
+    public ResponseEntity<Map<String, Object>> importRooms(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "" + RosterImportService.DEFAULT_BATCH_SIZE) int batchSize) {
+        Map<String, Object> response = new HashMap<>();
+        Path upload = null;
+        try {
+            // The event reader needs random access to the zip, so spool the upload to disk
+            upload = Files.createTempFile("room-roster", ".xlsx");
+            file.transferTo(upload);
+            ImportReport report = rosterImportService.importRooms(upload, batchSize);
+            response.put("success", report.getRejected() == 0);
+            response.put("report", report);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            response.put("success", false);
+            response.put("message", "Import failed: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        } finally {
+            if (upload != null) {
+                upload.toFile().delete();
+            }
+        }
+    }
+    
+    private Map<String, Object> createRoomMap(RoomSummary summary) {
         Map<String, Object> room = new HashMap<>();
-        room.put("roomNo", roomNo);
-        room.put("roomName", roomName);
-        room.put("numberOfSeats", numberOfSeats);
-        room.put("seatMatrix", seatMatrix);
-        room.put("rows", rows);
-        room.put("columns", columns);
+        room.put("roomNo", summary.getRoomId());
+        room.put("roomName", summary.getName());
+        room.put("numberOfSeats", summary.getCapacity());
+        room.put("seatMatrix", summary.getRows() + "x" + summary.getColumns());
+        room.put("rows", summary.getRows());
+        room.put("columns", summary.getColumns());
         return room;
     }
 }
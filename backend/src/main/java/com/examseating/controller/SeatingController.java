@@ -1,14 +1,43 @@
 package com.examseating.controller;
 
+import com.examseating.repository.RosterVersion;
+import com.examseating.repository.StudentRepository;
+import com.examseating.service.CatalogCache;
+import com.examseating.service.CsvRosterReader;
+import com.examseating.service.RoomRoster;
+import com.examseating.service.SeatLookup;
+import com.examseating.service.SeatTokenService;
 import com.examseating.service.SeatingAlgorithmService;
+import com.examseating.service.SeatingBulkWriter;
+import com.examseating.service.SeatingCsvExporter;
+import com.examseating.service.SeatingQrExporter;
+import com.examseating.service.SeatingResponseWriter;
+import com.examseating.service.StudentRoster;
 import com.examseating.model.Student;
 import com.examseating.model.Room;
 import com.examseating.model.Exam;
 import com.examseating.model.SeatingArrangement;
-import com.examseating.model.SeatingAssignment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 import java.util.*;
 
 /**
@@ -19,74 +48,315 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class SeatingController {
     
+    private static final long DEFAULT_SEED = 42L;
+    private static final int MAX_LOOKUP_IDS = 10_000;
+    
     @Autowired
     private SeatingAlgorithmService seatingAlgorithmService;
     
+    @Autowired
+    private SeatingCsvExporter seatingCsvExporter;
+    
+    @Autowired
+    private SeatingQrExporter seatingQrExporter;
+    
+    @Autowired
+    private SeatingResponseWriter seatingResponseWriter;
+    
+    @Autowired
+    private SeatTokenService seatTokenService;
+    
+    @Autowired
+    private SeatingBulkWriter seatingBulkWriter;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /** Decoded token of the scan being answered on each request thread */
+    private final ThreadLocal<SeatTokenService.Scan> scans = ThreadLocal.withInitial(SeatTokenService.Scan::new);
+    
+    private final CsvRosterReader csvRosterReader = new CsvRosterReader(ForkJoinPool.commonPool());
+    
+    /** Seat lookup of the current arrangement, with the tag of the inputs it was built from */
+    private volatile TaggedLookup currentLookup;
+    
     /**
      * Generate seating arrangement using proper algorithm
      */
     @PostMapping("/seating")
-    public ResponseEntity<Map<String, Object>> generateSeating(@RequestBody(required = false) Map<String, Object> request) {
+    public ResponseEntity<StreamingResponseBody> generateSeating(@RequestBody(required = false) Map<String, Object> request) {
         try {
-            // Create mock data for demonstration
-            List<Student> students = createMockStudents();
-            List<Room> rooms = createMockRooms();
+            List<Student> students = loadStudents();
+            List<Room> rooms = loadRooms();
             Exam exam = createMockExam();
             
-            // Use the seating algorithm service to generate proper seating
-            SeatingArrangement arrangement = seatingAlgorithmService.generateSeatingArrangement(exam, students, rooms);
+            // Generation is deterministic per seed, so unchanged inputs are served from the cache
+            long seed = request != null && request.get("seed") instanceof Number
+                    ? ((Number) request.get("seed")).longValue() : DEFAULT_SEED;
+            SeatingArrangement arrangement = seatingAlgorithmService.getOrGenerateSeatingArrangement(exam, students, rooms, seed);
             
-            // Convert to response format
-            List<Map<String, Object>> seatingArrangement = new ArrayList<>();
-            for (SeatingAssignment assignment : arrangement.getAssignments()) {
-                // Find student and room details
-                Student student = students.stream()
-                    .filter(s -> s.getStudentId().equals(assignment.getStudentId()))
-                    .findFirst().orElse(null);
-                Room room = rooms.stream()
-                    .filter(r -> r.getRoomId().equals(assignment.getRoomId()))
-                    .findFirst().orElse(null);
-                
-                if (student != null && room != null) {
-                    seatingArrangement.add(createSeatingMap(
-                        student.getStudentId(), 
-                        student.getName(), 
-                        "Mathematics", // Default subject
-                        "2024-12-20", 
-                        room.getRoomId(), 
-                        room.getName(), 
-                        assignment.getSeatNumber(), 
-                        assignment.getRow(), 
-                        assignment.getColumn(), 
-                        room.getCapacity(), 
-                        room.getRows() + "x" + room.getColumns()
-                    ));
-                }
-            }
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("seatingArrangement", seatingArrangement);
-            response.put("totalStudents", arrangement.getTotalStudents());
-            response.put("generatedAt", arrangement.getGeneratedAt().toString());
-            response.put("distribution", "Proper room-by-room allocation without overflow");
-            
-            return ResponseEntity.ok(response);
+            // Seats are streamed as JSON straight from the plan
+            StreamingResponseBody body = out -> seatingResponseWriter.write(arrangement, students, rooms, seed, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
             
         } catch (Exception e) {
             // Fallback to mock data if algorithm fails
-            return generateMockSeating();
+            Map<String, Object> mock = generateMockSeating().getBody();
+            StreamingResponseBody body = out -> objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValue(out, mock);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
         }
     }
     
     /**
-     * Get existing seating arrangement
+     * Get existing seating arrangement; answers 304 while its inputs are unchanged
      */
     @GetMapping("/seating")
-    public ResponseEntity<Map<String, Object>> getSeating() {
-        // Return the same mock data as generate for demonstration
+    public ResponseEntity<StreamingResponseBody> getSeating(WebRequest webRequest) {
+        // Tagged from the input versions, so a poll for an unchanged arrangement loads and generates nothing
+        if (ETags.notModified(webRequest, seatingETag(DEFAULT_SEED))) {
+            return null;
+        }
         return generateSeating(null);
     }
     
+    /**
+     * Export seating arrangement as CSV, streamed straight from the compact plan
+     */
+    @GetMapping(value = "/seating/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportSeating() {
+        List<Student> students = loadStudents();
+        List<Room> rooms = loadRooms();
+        Exam exam = createMockExam();
+        
+        SeatingArrangement arrangement = seatingAlgorithmService.getOrGenerateSeatingArrangement(exam, students, rooms, DEFAULT_SEED);
+        StreamingResponseBody body = out -> seatingCsvExporter.export(arrangement.getPlan(), exam, Channels.newChannel(out));
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"seating_arrangement.csv\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+    
+    /**
+     * Download hall-ticket QR codes for every seat as a zip of PNG images
+     */
+    @GetMapping(value = "/seating/qr-codes", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> exportQrCodes() {
+        List<Student> students = loadStudents();
+        List<Room> rooms = loadRooms();
+        Exam exam = createMockExam();
+        
+        SeatingArrangement arrangement = seatingAlgorithmService.getOrGenerateSeatingArrangement(exam, students, rooms, DEFAULT_SEED);
+        StreamingResponseBody body = out -> seatingQrExporter.export(arrangement, exam, out);
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"seating_qr_codes.zip\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+    
+    /**
+     * Signed seat token for one student, as printed on the hall ticket QR code
+     * (admin only, see SecurityConfig)
+     */
+    @GetMapping("/seating/token/{studentId}")
+    public ResponseEntity<Map<String, Object>> getSeatToken(@PathVariable String studentId) {
+        Exam exam = createMockExam();
+        SeatingArrangement arrangement = seatingAlgorithmService.getOrGenerateSeatingArrangement(
+                exam, loadStudents(), loadRooms(), DEFAULT_SEED);
+        SeatLookup lookup = seatingAlgorithmService.getSeatLookup(arrangement);
+        Map<String, Object> response = new HashMap<>();
+        int i = lookup.find(studentId);
+        if (i < 0) {
+            response.put("found", false);
+            response.put("message", "Student is not seated: " + studentId);
+            return ResponseEntity.status(404).body(response);
+        }
+        SeatTokenService.Window window = seatTokenService.windowFor(exam, arrangement.getGeneratedAt());
+        response.put("found", true);
+        response.put("token", seatTokenService.issue(studentId, exam.getExamId(), lookup.roomAt(i).getRoomId(),
+                lookup.seatNumberAt(i), window));
+        response.put("validFrom", window.getValidFrom().toInstant().toString());
+        response.put("validUntil", window.getValidUntil().toInstant().toString());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Verify a scanned seat token from its signature alone
+     */
+    @GetMapping("/seating/verify")
+    public void verifySeatToken(@RequestParam String token, HttpServletResponse response) throws IOException {
+        SeatTokenService.Scan scan = scans.get();
+        seatTokenService.verify(token, System.currentTimeMillis(), scan);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        seatingResponseWriter.writeVerification(scan, response.getOutputStream());
+    }
+    
+    /**
+     * Resolve a batch of student IDs (a JSON array) to their seats in one pass,
+     * for exam-gate scanners
+     */
+    @PostMapping(value = "/seating/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> lookupSeats(@RequestBody List<String> studentIds) {
+        return lookupResponse(studentIds);
+    }
+    
+    /**
+     * Resolve a batch of student IDs sent one per line, as scanners buffer them
+     */
+    @PostMapping(value = "/seating/lookup", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> lookupSeatStream(InputStream body) throws IOException {
+        List<String> studentIds = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null && studentIds.size() <= MAX_LOOKUP_IDS) {
+            String studentId = line.trim();
+            if (!studentId.isEmpty()) {
+                studentIds.add(studentId);
+            }
+        }
+        return lookupResponse(studentIds);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> lookupResponse(List<String> studentIds) {
+        if (studentIds.size() > MAX_LOOKUP_IDS) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "At most " + MAX_LOOKUP_IDS + " student IDs per lookup");
+            StreamingResponseBody body = out -> objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValue(out, response);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        }
+        
+        SeatLookup lookup = currentSeatLookup();
+        StreamingResponseBody body = out -> seatingResponseWriter.writeLookup(lookup, studentIds, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    /**
+     * Seat lookup for the arrangement GET /api/seating serves. It is checked
+     * against the same input versions as that endpoint's ETag, so while the
+     * roster and rooms are unchanged a batch loads no students and hashes nothing.
+     */
+    private SeatLookup currentSeatLookup() {
+        String tag = seatingETag(DEFAULT_SEED);
+        TaggedLookup current = currentLookup;
+        if (current != null && current.tag.equals(tag)) {
+            return current.lookup;
+        }
+        SeatingArrangement arrangement = seatingAlgorithmService.getOrGenerateSeatingArrangement(
+                createMockExam(), loadStudents(), loadRooms(), DEFAULT_SEED);
+        SeatLookup lookup = seatingAlgorithmService.getSeatLookup(arrangement);
+        currentLookup = new TaggedLookup(tag, lookup);
+        return lookup;
+    }
+    
+    private static final class TaggedLookup {
+        private final String tag;
+        private final SeatLookup lookup;
+        
+        TaggedLookup(String tag, SeatLookup lookup) {
+            this.tag = tag;
+            this.lookup = lookup;
+        }
+    }
+    
+    /**
+     * Generate a seating arrangement from uploaded students and rooms CSV files
+     * (the uploadData template layouts)
+     */
+    @PostMapping("/seating/from-csv")
+    public ResponseEntity<Map<String, Object>> generateSeatingFromCsv(@RequestParam("students") MultipartFile studentsCsv,
+            @RequestParam("rooms") MultipartFile roomsCsv,
+            @RequestParam(defaultValue = "" + DEFAULT_SEED) long seed) {
+        Map<String, Object> response = new HashMap<>();
+        Path studentsFile = null;
+        Path roomsFile = null;
+        try {
+            // The reader maps the students file, so spool the uploads to disk
+            studentsFile = Files.createTempFile("students", ".csv");
+            roomsFile = Files.createTempFile("rooms", ".csv");
+            studentsCsv.transferTo(studentsFile);
+            roomsCsv.transferTo(roomsFile);
+            
+            long start = System.nanoTime();
+            StudentRoster roster = csvRosterReader.readStudents(studentsFile);
+            RoomRoster roomRoster = csvRosterReader.readRooms(roomsFile);
+            List<Room> rooms = roomRoster.getRooms();
+            long parseMillis = (System.nanoTime() - start) / 1_000_000;
+            
+            // Validation and each engine pass read every student, so create them once
+            SeatingArrangement arrangement = seatingAlgorithmService.generateGridAwareSeatingArrangement(
+                    createMockExam(), roster.toStudents(), rooms, seed);
+            
+            response.put("success", true);
+            response.put("totalStudents", arrangement.getTotalStudents());
+            response.put("totalRooms", rooms.size());
+            response.put("subjects", roster.getSubjects());
+            response.put("skippedRows", roster.getIssueCount());
+            response.put("issues", roster.getIssues());
+            response.put("skippedRoomRows", roomRoster.getIssueCount());
+            response.put("roomIssues", roomRoster.getIssues());
+            response.put("parseMillis", parseMillis);
+            response.put("seed", seed);
+            response.put("generatedAt", arrangement.getGeneratedAt().toString());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            response.put("success", false);
+            response.put("message", "Import failed: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        } finally {
+            deleteSpooled(studentsFile);
+            deleteSpooled(roomsFile);
+        }
+    }
+    
+    /**
+     * Remove a spooled upload. The students file stays mapped until the roster
+     * is garbage collected, and Windows refuses to delete a mapped file, so
+     * there it is left for removal at exit.
+     */
+    private static void deleteSpooled(Path file) {
+        if (file != null && !file.toFile().delete()) {
+            file.toFile().deleteOnExit();
+        }
+    }
+    
+    /**
+     * Persist the generated seating arrangement to the database with batched inserts
+     */
+    @PostMapping("/seating/persist")
+    public ResponseEntity<Map<String, Object>> persistSeating(@RequestBody(required = false) Map<String, Object> request) {
+        long seed = request != null && request.get("seed") instanceof Number
+                ? ((Number) request.get("seed")).longValue() : DEFAULT_SEED;
+        SeatingArrangement arrangement = seatingAlgorithmService.getOrGenerateSeatingArrangement(
+                createMockExam(), loadStudents(), loadRooms(), seed);
+        Map<String, Object> response = new HashMap<>(seatingBulkWriter.write(arrangement));
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Save seating arrangement
      */
@@ -114,6 +384,33 @@ public class SeatingController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Tag of the arrangement generated from the current students and rooms
+     */
+    private String seatingETag(long seed) {
+        RosterVersion roster = studentRepository.findRosterVersion();
+        return ETags.of("seating", seatingAlgorithmService.getAlgorithmVersion(), seed, createMockExam().getExamId(),
+                catalogCache.getRoomsVersion(), roster.getStudents(), roster.getLastId(), roster.getLastUpdated());
+    }
+    
+    /**
+     * Imported students, with their requirements fetched up front; mock data
+     * until a roster has been imported
+     */
+    private List<Student> loadStudents() {
+        List<Student> students = studentRepository.findActiveWithRequirements();
+        return students.isEmpty() ? createMockStudents() : students;
+    }
+    
+    /**
+     * Imported rooms from the catalog cache; mock data until rooms have been
+     * imported
+     */
+    private List<Room> loadRooms() {
+        List<Room> rooms = catalogCache.getRooms();
+        return rooms.isEmpty() ? createMockRooms() : rooms;
+    }
+    
     /**
      * Create mock students for testing - more realistic number
      */
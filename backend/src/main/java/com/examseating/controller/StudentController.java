@@ -1,7 +1,19 @@
 package com.examseating.controller;
 
+import com.examseating.model.ImportReport;
+import com.examseating.repository.StudentRepository;
+import com.examseating.repository.StudentSeat;
+import com.examseating.repository.StudentSummary;
+import com.examseating.service.RosterImportService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -12,43 +24,57 @@ import java.util.*;
 @CrossOrigin(origins = "*")
 public class StudentController {
     
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    @Autowired
+    private RosterImportService rosterImportService;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
     /**
-     * Get all students
+     * Get a page of students, ordered by student ID; pass the last ID of a page
+     * as {@code after} to fetch the next one
      */
     @GetMapping("/students")
-    public ResponseEntity<Map<String, Object>> getAllStudents() {
-        // Mock data for demonstration
-        List<Map<String, Object>> students = Arrays.asList(
-            createStudentMap("STU001", "John Doe", "Mathematics", "2024-12-20"),
-            createStudentMap("STU002", "Jane Smith", "Mathematics", "2024-12-20"),
-            createStudentMap("STU003", "Mike Johnson", "Physics", "2024-12-22"),
-            createStudentMap("STU004", "Sarah Wilson", "Mathematics", "2024-12-20"),
-            createStudentMap("STU005", "David Brown", "Physics", "2024-12-22")
-        );
+    public ResponseEntity<Map<String, Object>> getAllStudents(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Map<String, Object>> students = new ArrayList<>();
+        for (StudentSummary summary : studentRepository.findPage(after, pageSize)) {
+            students.add(createStudentMap(summary.getStudentId(), summary.getName(),
+                    summary.getExamSubject(), summary.getExamDate()));
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("students", students);
         response.put("total", students.size());
+        if (students.size() == pageSize) {
+            response.put("nextAfter", students.get(pageSize - 1).get("studentId"));
+        }
         
         return ResponseEntity.ok(response);
     }
     
     /**
-     * Search for a specific student
+     * Search for a specific student, with their seat if one has been persisted.
+     * Answers 304 while the student and their seat are unchanged.
      */
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<Map<String, Object>> getStudent(@PathVariable String studentId) {
+    public ResponseEntity<Map<String, Object>> getStudent(@PathVariable String studentId, WebRequest webRequest) {
         Map<String, Object> response = new HashMap<>();
         
-        // Mock search - in real implementation, this would query the database
-        if ("STU001".equals(studentId)) {
-            Map<String, Object> student = createStudentMap("STU001", "John Doe", "Mathematics", "2024-12-20");
-            response.put("found", true);
-            response.put("student", student);
-        } else if ("STU002".equals(studentId)) {
-            Map<String, Object> student = createStudentMap("STU002", "Jane Smith", "Mathematics", "2024-12-20");
+        Optional<StudentSeat> seat = studentRepository.findStudentSeat(studentId);
+        if (seat.isPresent()) {
+            StudentSeat s = seat.get();
+            String etag = ETags.of("student", s.getStudentId(), s.getName(), s.getExamSubject(), s.getExamDate(),
+                    s.getRoomId(), s.getRoomName(), s.getSeatNumber(), s.getRow(), s.getColumn());
+            if (ETags.notModified(webRequest, etag)) {
+                return null;
+            }
             response.put("found", true);
-            response.put("student", student);
+            response.put("student", createStudentMap(seat.get()));
         } else {
             response.put("found", false);
             response.put("message", "Student not found");
@@ -57,12 +83,56 @@ public class StudentController {
         return ResponseEntity.ok(response);
     }
     
-    private Map<String, Object> createStudentMap(String studentId, String studentName, String studentExam, String date) {
+    /**
+     * Import students from an .xlsx spreadsheet, streamed and persisted in batches
+     */
+    @PostMapping("/students/import")
+    public ResponseEntity<Map<String, Object>> importStudents(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "" + RosterImportService.DEFAULT_BATCH_SIZE) int batchSize) {
+        Map<String, Object> response = new HashMap<>();
+        Path upload = null;
+        try {
+            // The event reader needs random access to the zip, so spool the upload to disk
+            upload = Files.createTempFile("student-roster", ".xlsx");
+            file.transferTo(upload);
+            ImportReport report = rosterImportService.importStudents(upload, batchSize);
+            response.put("success", report.getRejected() == 0);
+            response.put("report", report);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            response.put("success", false);
+            response.put("message", "Import failed: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        } finally {
+            if (upload != null) {
+                upload.toFile().delete();
+            }
+        }
+    }
+    
+    private Map<String, Object> createStudentMap(String studentId, String studentName, String studentExam, LocalDate date) {
         Map<String, Object> student = new HashMap<>();
         student.put("studentId", studentId);
         student.put("studentName", studentName);
         student.put("studentExam", studentExam);
-        student.put("date", date);
+        student.put("date", date != null ? date.toString() : null);
+        return student;
+    }
+    
+    private Map<String, Object> createStudentMap(StudentSeat seat) {
+        Map<String, Object> student = createStudentMap(seat.getStudentId(), seat.getName(),
+                seat.getExamSubject(), seat.getExamDate());
+        if (seat.isSeated()) {
+            student.put("roomNo", seat.getRoomId());
+            student.put("roomName", seat.getRoomName());
+            student.put("seatNo", seat.getSeatNumber());
+            student.put("row", seat.getRow());
+            student.put("column", seat.getColumn());
+        }
         return student;
     }
 }
@@ -14,7 +14,8 @@ import java.time.LocalTime;
 public class Exam {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exam_seq")
+    @SequenceGenerator(name = "exam_seq", sequenceName = "exam_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Exam ID is required")
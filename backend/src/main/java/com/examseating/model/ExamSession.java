@@ -0,0 +1,68 @@
+package com.examseating.model;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A sitting identified by exam date and session (for example "FN" or "AN").
+ *
+ * Rooms are free again once a session ends, so each session is seated
+ * independently against the full room list.
+ */
+public final class ExamSession implements Comparable<ExamSession> {
+
+    private static final Comparator<ExamSession> ORDER = Comparator
+            .comparing(ExamSession::getDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ExamSession::getSession, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final LocalDate date;
+    private final String session;
+
+    public ExamSession(LocalDate date, String session) {
+        this.date = date;
+        this.session = session;
+    }
+
+    /**
+     * Session a student is registered for
+     */
+    public static ExamSession of(Student student) {
+        return new ExamSession(student.getExamDate(), student.getSession());
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getSession() {
+        return session;
+    }
+
+    @Override
+    public int compareTo(ExamSession other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExamSession)) {
+            return false;
+        }
+        ExamSession other = (ExamSession) o;
+        return Objects.equals(date, other.date) && Objects.equals(session, other.session);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, session);
+    }
+
+    @Override
+    public String toString() {
+        return date + (session != null ? " " + session : "");
+    }
+}
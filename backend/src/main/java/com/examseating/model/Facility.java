@@ -0,0 +1,122 @@
+package com.examseating.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vocabulary shared by room facilities and student special requirements.
+ *
+ * Each facility is one bit of a long mask, so a student's requirements and a
+ * room's facilities can be compared with a single AND. Free-text entries are
+ * normalised (case, spaces and punctuation ignored) and matched against a few
+ * common spellings; unrecognised entries are ignored.
+ */
+public enum Facility {
+    WHEELCHAIR_ACCESS(false, "wheelchair access", "wheelchair", "wheelchair accessible", "accessible", "ramp"),
+    GROUND_FLOOR(false, "ground floor", "ground", "no stairs"),
+    EXTRA_TIME(false, "extra time", "additional time", "extended time"),
+    SEPARATE_ROOM(false, "separate room", "individual room", "quiet room"),
+    NEAR_EXIT(true, "near exit", "seat near exit", "near door", "front seat");
+
+    private static final Map<String, Facility> ALIASES = new HashMap<>();
+
+    static {
+        for (Facility facility : values()) {
+            ALIASES.put(normalise(facility.name()), facility);
+            for (String alias : facility.aliases) {
+                ALIASES.put(normalise(alias), facility);
+            }
+        }
+    }
+
+    private final boolean seatLevel;
+    private final String[] aliases;
+
+    Facility(boolean seatLevel, String... aliases) {
+        this.seatLevel = seatLevel;
+        this.aliases = aliases;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Whether this is satisfied by particular seats rather than by a whole room
+     */
+    public boolean isSeatLevel() {
+        return seatLevel;
+    }
+
+    /**
+     * Bits of all seat-level facilities
+     */
+    public static long seatLevelMask() {
+        long mask = 0;
+        for (Facility facility : values()) {
+            if (facility.seatLevel) {
+                mask |= facility.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Facility named by a free-text entry, or null if not recognised
+     */
+    public static Facility parse(String text) {
+        return text == null ? null : ALIASES.get(normalise(text));
+    }
+
+    /**
+     * Mask of the recognised entries of a free-text list
+     */
+    public static long maskOf(Collection<String> entries) {
+        long mask = 0;
+        if (entries != null) {
+            for (String entry : entries) {
+                Facility facility = parse(entry);
+                if (facility != null) {
+                    mask |= facility.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Requirement mask of a student
+     */
+    public static long requirementsOf(Student student) {
+        return maskOf(student.getSpecialRequirements());
+    }
+
+    /**
+     * Facility mask of a room, including what follows from its floor and layout
+     */
+    public static long facilitiesOf(Room room) {
+        long mask = maskOf(room.getFacilities());
+        String floor = room.getFloor();
+        if (floor != null) {
+            String normalised = normalise(floor);
+            if (normalised.equals("0") || normalised.equals("g") || normalised.startsWith("ground")) {
+                mask |= GROUND_FLOOR.bit();
+            }
+        }
+        // Every room has a front row by its door
+        mask |= NEAR_EXIT.bit();
+        return mask;
+    }
+
+    private static String normalise(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.examseating.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a roster import: row counts, throughput and rejected rows.
+ *
+ * Only the first issues are kept, so a report stays small however bad the
+ * upload is; {@link #getIssueCount()} gives the full number.
+ */
+public final class ImportReport {
+
+    private final String entity;
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final int batches;
+    private final long elapsedMillis;
+    private final long issueCount;
+    private final List<ValidationReport.Issue> issues;
+
+    public ImportReport(String entity, long rowsRead, long imported, long rejected, int batches,
+                        long elapsedMillis, long issueCount, List<ValidationReport.Issue> issues) {
+        this.entity = entity;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.batches = batches;
+        this.elapsedMillis = elapsedMillis;
+        this.issueCount = issueCount;
+        this.issues = Collections.unmodifiableList(issues);
+    }
+
+    /**
+     * "students" or "rooms"
+     */
+    public String getEntity() {
+        return entity;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead * 1000.0 : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    public long getIssueCount() {
+        return issueCount;
+    }
+
+    public List<ValidationReport.Issue> getIssues() {
+        return issues;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "entity='" + entity + '\'' +
+                ", rowsRead=" + rowsRead +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", batches=" + batches +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.examseating.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import java.time.LocalDateTime;
@@ -10,14 +12,16 @@ import java.util.List;
  * SeatingArrangement entity representing a complete seating arrangement for an exam
  */
 @Entity
-@Table(name = "seating_arrangements")
+@Table(name = "seating_arrangements", indexes = @Index(name = "idx_arrangement_exam", columnList = "exam_id"))
 public class SeatingArrangement {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seating_arrangement_seq")
+    @SequenceGenerator(name = "seating_arrangement_seq", sequenceName = "seating_arrangement_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Exam ID is required")
+    @Column(name = "exam_id")
     private Long examId;
     
     @Min(value = 0, message = "Total students cannot be negative")
@@ -33,6 +37,9 @@ public class SeatingArrangement {
     @JoinColumn(name = "arrangement_id")
     private List<SeatingAssignment> assignments;
     
+    @Transient
+    private SeatingPlan plan;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -95,6 +102,10 @@ public class SeatingArrangement {
     }
     
     public List<SeatingAssignment> getAssignments() {
+        // Compact plans are only expanded into entities when first needed
+        if (assignments == null && plan != null) {
+            assignments = plan.toAssignments();
+        }
         return assignments;
     }
     
@@ -102,6 +113,15 @@ public class SeatingArrangement {
         this.assignments = assignments;
     }
     
+    @JsonIgnore
+    public SeatingPlan getPlan() {
+        return plan;
+    }
+    
+    public void setPlan(SeatingPlan plan) {
+        this.plan = plan;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -118,6 +138,11 @@ public class SeatingArrangement {
         this.updatedAt = updatedAt;
     }
     
+    @PrePersist
+    public void prePersist() {
+        getAssignments();
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -131,7 +156,8 @@ public class SeatingArrangement {
                 ", totalStudents=" + totalStudents +
                 ", totalRooms=" + totalRooms +
                 ", generatedAt=" + generatedAt +
-                ", assignments=" + (assignments != null ? assignments.size() + " assignments" : "null") +
+                ", assignments=" + (assignments != null ? assignments.size() + " assignments"
+                        : plan != null ? plan.size() + " planned" : "null") +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -8,30 +8,48 @@ import java.time.LocalDateTime;
  * SeatingAssignment entity representing a student's seat assignment
  */
 @Entity
-@Table(name = "seating_assignments")
+@Table(name = "seating_assignments", indexes = {
+        @Index(name = "idx_assignment_student", columnList = "student_id, arrangement_id"),
+        @Index(name = "idx_assignment_room", columnList = "room_id"),
+        @Index(name = "idx_assignment_arrangement", columnList = "arrangement_id")
+})
 public class SeatingAssignment {
     
+    /** IDs reserved per sequence call, so bulk inserts can be batched */
+    public static final int ID_ALLOCATION_SIZE = 1000;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seating_assignment_seq")
+    @SequenceGenerator(name = "seating_assignment_seq", sequenceName = "seating_assignment_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Student ID is required")
+    @Column(name = "student_id")
     private String studentId;
     
     @NotBlank(message = "Room ID is required")
+    @Column(name = "room_id")
     private String roomId;
     
+    private String examSubject;
+    
     @Min(value = 1, message = "Seat number must be at least 1")
     private Integer seatNumber;
     
     @Min(value = 1, message = "Row must be at least 1")
+    @Column(name = "seat_row")
     private Integer row;
     
     @Min(value = 1, message = "Column must be at least 1")
+    @Column(name = "seat_column")
     private Integer column;
     
     private String qrCode;
     
+    /** Written through {@link SeatingArrangement#getAssignments()}; mapped here for queries */
+    @Column(name = "arrangement_id", insertable = false, updatable = false)
+    private Long arrangementId;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -62,6 +80,10 @@ public class SeatingAssignment {
         this.id = id;
     }
     
+    public Long getArrangementId() {
+        return arrangementId;
+    }
+    
     public String getStudentId() {
         return studentId;
     }
@@ -78,6 +100,14 @@ public class SeatingAssignment {
         this.roomId = roomId;
     }
     
+    public String getExamSubject() {
+        return examSubject;
+    }
+    
+    public void setExamSubject(String examSubject) {
+        this.examSubject = examSubject;
+    }
+    
     public Integer getSeatNumber() {
         return seatNumber;
     }
@@ -137,6 +167,7 @@ public class SeatingAssignment {
                 "id=" + id +
                 ", studentId='" + studentId + '\'' +
                 ", roomId='" + roomId + '\'' +
+                ", examSubject='" + examSubject + '\'' +
                 ", seatNumber=" + seatNumber +
                 ", row=" + row +
                 ", column=" + column +
@@ -0,0 +1,133 @@
+package com.examseating.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compact, array-backed seating plan.
+ *
+ * Placements are stored as parallel primitive arrays indexing into the
+ * original student and room lists, so a plan for a very large cohort costs a
+ * few bytes per seat. {@link SeatingAssignment} entities are only created when
+ * {@link #toAssignments()} or {@link #assignmentAt(int)} is called, typically
+ * at the persistence or JSON boundary.
+ */
+public final class SeatingPlan {
+
+    /**
+     * Creates the entity for a single placement.
+     */
+    @FunctionalInterface
+    public interface AssignmentFactory {
+        SeatingAssignment create(Student student, Room room, int seatNumber);
+    }
+
+    /**
+     * Receives placements without materializing entities.
+     */
+    @FunctionalInterface
+    public interface PlacementVisitor {
+        void visit(Student student, Room room, int seatNumber);
+    }
+
+    private final List<Student> students;
+    private final List<Room> rooms;
+    private final int[] studentIndex;
+    private final int[] roomIndex;
+    private final short[] seatNumber;
+    private final int size;
+    private final AssignmentFactory factory;
+
+    public SeatingPlan(List<Student> students, List<Room> rooms, int[] studentIndex, int[] roomIndex,
+                       short[] seatNumber, int size, AssignmentFactory factory) {
+        this.students = students;
+        this.rooms = rooms;
+        this.studentIndex = studentIndex;
+        this.roomIndex = roomIndex;
+        this.seatNumber = seatNumber;
+        this.size = size;
+        this.factory = factory;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Student studentAt(int i) {
+        return students.get(studentIndex[i]);
+    }
+
+    public Room roomAt(int i) {
+        return rooms.get(roomIndex[i]);
+    }
+
+    public int seatNumberAt(int i) {
+        return seatNumber[i];
+    }
+
+    public int roomIndexAt(int i) {
+        return roomIndex[i];
+    }
+
+    public int studentIndexAt(int i) {
+        return studentIndex[i];
+    }
+
+    /**
+     * Plan over the same students and rooms with a different set of placements.
+     */
+    public SeatingPlan withPlacements(int[] studentIndex, int[] roomIndex, short[] seatNumbers, int size) {
+        return new SeatingPlan(students, rooms, studentIndex, roomIndex, seatNumbers, size, factory);
+    }
+
+    /**
+     * Copy of this plan with the same student and room placements but new seat numbers.
+     */
+    public SeatingPlan withSeatNumbers(short[] seatNumbers) {
+        return new SeatingPlan(students, rooms, studentIndex, roomIndex, seatNumbers, size, factory);
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Materialize the placement at the given position as an entity.
+     */
+    public SeatingAssignment assignmentAt(int i) {
+        return factory.create(studentAt(i), roomAt(i), seatNumber[i]);
+    }
+
+    /**
+     * Materialize every placement, in plan order.
+     */
+    public List<SeatingAssignment> toAssignments() {
+        List<SeatingAssignment> assignments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            assignments.add(assignmentAt(i));
+        }
+        return assignments;
+    }
+
+    /**
+     * Stream the placements as entities, created one at a time as the stream is consumed.
+     */
+    public Stream<SeatingAssignment> assignments() {
+        return IntStream.range(0, size).mapToObj(this::assignmentAt);
+    }
+
+    /**
+     * Visit every placement, in plan order, without creating entities.
+     */
+    public void forEach(PlacementVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(students.get(studentIndex[i]), rooms.get(roomIndex[i]), seatNumber[i]);
+        }
+    }
+}
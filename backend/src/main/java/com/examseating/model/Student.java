@@ -2,6 +2,7 @@ package com.examseating.model;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -13,7 +14,8 @@ import java.util.List;
 public class Student {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "student_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Student ID is required")
@@ -37,6 +39,11 @@ public class Student {
     @NotBlank(message = "Exam subject is required")
     private String examSubject;
     
+    private LocalDate examDate;
+    
+    @Size(max = 20, message = "Session must not exceed 20 characters")
+    private String session;
+    
     @Email(message = "Invalid email format")
     private String email;
     
@@ -140,6 +147,22 @@ public class Student {
         this.examSubject = examSubject;
     }
     
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+    
+    public void setExamDate(LocalDate examDate) {
+        this.examDate = examDate;
+    }
+    
+    public String getSession() {
+        return session;
+    }
+    
+    public void setSession(String session) {
+        this.session = session;
+    }
+    
     public String getEmail() {
         return email;
     }
@@ -202,6 +225,9 @@ public class Student {
                 ", rollNumber='" + rollNumber + '\'' +
                 ", className='" + className + '\'' +
                 ", section='" + section + '\'' +
+                ", examSubject='" + examSubject + '\'' +
+                ", examDate=" + examDate +
+                ", session='" + session + '\'' +
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
                 ", specialRequirements=" + specialRequirements +
@@ -0,0 +1,135 @@
+package com.examseating.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Every problem found in a seating request, not just the first one.
+ *
+ * Issues are ordered by entity and row so that an upload can be fixed in a
+ * single pass. Errors block seating; warnings are worth a look but do not.
+ */
+public final class ValidationReport {
+
+    public enum Severity {
+        ERROR, WARNING
+    }
+
+    /**
+     * A single problem with one exam, student or room
+     */
+    public static final class Issue {
+        private final Severity severity;
+        private final String code;
+        private final String entity;
+        private final int index;
+        private final String id;
+        private final String message;
+
+        public Issue(Severity severity, String code, String entity, int index, String id, String message) {
+            this.severity = severity;
+            this.code = code;
+            this.entity = entity;
+            this.index = index;
+            this.id = id;
+            this.message = message;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * "exam", "student" or "room"
+         */
+        public String getEntity() {
+            return entity;
+        }
+
+        /**
+         * Position in the input list, or -1 for the exam and whole-input checks
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return severity + " " + code + (index >= 0 ? " [" + entity + " #" + index + "]" : "") + ": " + message;
+        }
+    }
+
+    private final List<Issue> issues;
+    private final int studentCount;
+    private final int roomCount;
+
+    public ValidationReport(List<Issue> issues, int studentCount, int roomCount) {
+        this.issues = Collections.unmodifiableList(new ArrayList<>(issues));
+        this.studentCount = studentCount;
+        this.roomCount = roomCount;
+    }
+
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    public List<Issue> getErrors() {
+        return issues.stream().filter(i -> i.getSeverity() == Severity.ERROR).collect(Collectors.toList());
+    }
+
+    public List<Issue> getWarnings() {
+        return issues.stream().filter(i -> i.getSeverity() == Severity.WARNING).collect(Collectors.toList());
+    }
+
+    public int getErrorCount() {
+        return (int) issues.stream().filter(i -> i.getSeverity() == Severity.ERROR).count();
+    }
+
+    public boolean isValid() {
+        return getErrorCount() == 0;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * First error message, with a count of the rest
+     */
+    public String summary() {
+        List<Issue> errors = getErrors();
+        if (errors.isEmpty()) {
+            return "No errors";
+        }
+        String first = errors.get(0).getMessage();
+        return errors.size() == 1 ? first : first + " (and " + (errors.size() - 1) + " more errors)";
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationReport{" +
+                "students=" + studentCount +
+                ", rooms=" + roomCount +
+                ", errors=" + getErrorCount() +
+                ", warnings=" + (issues.size() - getErrorCount()) +
+                '}';
+    }
+}
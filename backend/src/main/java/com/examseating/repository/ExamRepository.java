@@ -0,0 +1,17 @@
+package com.examseating.repository;
+
+import com.examseating.model.Exam;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exams; reads go through {@link com.examseating.service.CatalogCache}
+ */
+public interface ExamRepository extends JpaRepository<Exam, Long> {
+
+    List<Exam> findByIsActiveTrue();
+
+    Optional<Exam> findByExamIdAndIsActiveTrue(String examId);
+}
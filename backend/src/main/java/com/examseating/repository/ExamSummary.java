@@ -0,0 +1,15 @@
+package com.examseating.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Exam columns shown in lists; pages are served by {@link com.examseating.service.CatalogCache}
+ */
+public interface ExamSummary {
+    String getExamId();
+    String getSubject();
+    LocalDate getExamDate();
+    LocalTime getStartTime();
+    Integer getDurationMinutes();
+}
@@ -0,0 +1,29 @@
+package com.examseating.repository;
+
+import com.examseating.model.Room;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rooms; reads go through {@link com.examseating.service.CatalogCache}
+ */
+public interface RoomRepository extends JpaRepository<Room, Long> {
+
+    /**
+     * Active rooms with their facilities fetched in the same query
+     */
+    @Query("select distinct r from Room r left join fetch r.facilities "
+            + "where r.isActive = true order by r.roomId")
+    List<Room> findActiveWithFacilities();
+
+    /**
+     * One active room with its facilities, by room number
+     */
+    @Query("select distinct r from Room r left join fetch r.facilities "
+            + "where r.roomId = :roomId and r.isActive = true")
+    Optional<Room> findActiveWithFacilities(@Param("roomId") String roomId);
+}
@@ -0,0 +1,13 @@
+package com.examseating.repository;
+
+/**
+ * Room columns shown in lists, without timestamps or the facilities
+ * collection; pages are served by {@link com.examseating.service.CatalogCache}
+ */
+public interface RoomSummary {
+    String getRoomId();
+    String getName();
+    Integer getCapacity();
+    Integer getRows();
+    Integer getColumns();
+}
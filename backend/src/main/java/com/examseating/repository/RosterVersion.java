@@ -0,0 +1,13 @@
+package com.examseating.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate fingerprint of the active students; any insert, update or
+ * deactivation changes at least one of its values
+ */
+public interface RosterVersion {
+    long getStudents();
+    Long getLastId();
+    LocalDateTime getLastUpdated();
+}
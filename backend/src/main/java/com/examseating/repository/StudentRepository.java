@@ -0,0 +1,66 @@
+package com.examseating.repository;
+
+import com.examseating.model.Student;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Students, read through projections and paged by student ID
+ */
+public interface StudentRepository extends JpaRepository<Student, Long> {
+
+    /**
+     * Next page of students after a student ID (keyset pagination on the unique index)
+     */
+    List<StudentSummary> findByStudentIdGreaterThanOrderByStudentIdAsc(String afterStudentId, Pageable page);
+
+    /**
+     * First page of students
+     */
+    List<StudentSummary> findAllByOrderByStudentIdAsc(Pageable page);
+
+    /**
+     * Active students with their special requirements fetched in the same query
+     */
+    @Query("select distinct s from Student s left join fetch s.specialRequirements "
+            + "where s.isActive = true order by s.studentId")
+    List<Student> findActiveWithRequirements();
+
+    /**
+     * Roster fingerprint, read without loading any student
+     */
+    @Query("select count(s) as students, max(s.id) as lastId, max(s.updatedAt) as lastUpdated "
+            + "from Student s where s.isActive = true")
+    RosterVersion findRosterVersion();
+
+    @Query("select new com.examseating.repository.StudentSeat(s.studentId, s.name, s.examSubject, s.examDate, "
+            + "a.roomId, r.name, a.seatNumber, a.row, a.column) "
+            + "from Student s "
+            + "left join SeatingAssignment a on a.studentId = s.studentId "
+            + "left join Room r on r.roomId = a.roomId "
+            + "where s.studentId = :studentId "
+            + "order by a.arrangementId desc")
+    List<StudentSeat> findSeats(@Param("studentId") String studentId, Pageable page);
+
+    /**
+     * A student and their latest seat in a single indexed query
+     */
+    default Optional<StudentSeat> findStudentSeat(String studentId) {
+        return findSeats(studentId, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Next page of students after a student ID, or the first page if it is null
+     */
+    default List<StudentSummary> findPage(String afterStudentId, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        return afterStudentId == null ? findAllByOrderByStudentIdAsc(page)
+                : findByStudentIdGreaterThanOrderByStudentIdAsc(afterStudentId, page);
+    }
+}
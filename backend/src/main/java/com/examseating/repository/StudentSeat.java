@@ -0,0 +1,73 @@
+package com.examseating.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A student with their seat in the latest persisted arrangement, read in one
+ * query; the seat fields are null if the student has not been seated
+ */
+public class StudentSeat {
+
+    private final String studentId;
+    private final String name;
+    private final String examSubject;
+    private final LocalDate examDate;
+    private final String roomId;
+    private final String roomName;
+    private final Integer seatNumber;
+    private final Integer row;
+    private final Integer column;
+
+    public StudentSeat(String studentId, String name, String examSubject, LocalDate examDate, String roomId,
+                       String roomName, Integer seatNumber, Integer row, Integer column) {
+        this.studentId = studentId;
+        this.name = name;
+        this.examSubject = examSubject;
+        this.examDate = examDate;
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.seatNumber = seatNumber;
+        this.row = row;
+        this.column = column;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getExamSubject() {
+        return examSubject;
+    }
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+
+    public Integer getRow() {
+        return row;
+    }
+
+    public Integer getColumn() {
+        return column;
+    }
+
+    public boolean isSeated() {
+        return roomId != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.examseating.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Student columns shown in lists; selected on their own, without timestamps
+ * or the special requirements collection
+ */
+public interface StudentSummary {
+    String getStudentId();
+    String getName();
+    String getExamSubject();
+    LocalDate getExamDate();
+}
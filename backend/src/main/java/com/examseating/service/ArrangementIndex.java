@@ -0,0 +1,204 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingAssignment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Seat-level index over an arrangement's assignment list, used to apply roster
+ * changes without touching unaffected rooms.
+ *
+ * Each room keeps a seat table indexed by seat number, and each student maps to
+ * the position of their assignment in the list so withdrawals can be removed by
+ * swapping with the last element.
+ */
+final class ArrangementIndex {
+
+    /**
+     * Seat table of one room, with a list of its free seats so a search for a
+     * free seat never steps over occupied ones, and a count of seated students
+     * per subject
+     */
+    static final class RoomSeats {
+        final Room room;
+        final int columns;
+        final SeatingAssignment[] seats;
+        int occupied;
+        // Free seats (0-based) in the first free() entries, and each seat's position there
+        private final int[] freeSeats;
+        private final int[] freeSlot;
+        private final Map<String, Integer> subjects = new HashMap<>();
+
+        RoomSeats(Room room) {
+            this.room = room;
+            this.columns = GridSeatPlanner.seatsPerRow(room);
+            this.seats = new SeatingAssignment[room.getCapacity()];
+            this.freeSeats = new int[seats.length];
+            this.freeSlot = new int[seats.length];
+            for (int seat = 0; seat < seats.length; seat++) {
+                freeSeats[seat] = seat;
+                freeSlot[seat] = seat;
+            }
+        }
+
+        int free() {
+            return seats.length - occupied;
+        }
+
+        /**
+         * Number of students seated in the room for a subject
+         */
+        int seated(String subject) {
+            return subjects.getOrDefault(subject, 0);
+        }
+
+        /**
+         * The i-th free seat (0-based), for i below {@link #free()}; order is arbitrary
+         */
+        int freeSeat(int i) {
+            return freeSeats[i];
+        }
+
+        /**
+         * Put an assignment in a free seat (0-based)
+         */
+        void place(int seat, SeatingAssignment assignment) {
+            seats[seat] = assignment;
+            int last = freeSeats[free() - 1];
+            freeSeats[freeSlot[seat]] = last;
+            freeSlot[last] = freeSlot[seat];
+            occupied++;
+            subjects.merge(assignment.getExamSubject(), 1, Integer::sum);
+        }
+
+        /**
+         * Free an occupied seat (0-based)
+         */
+        void vacate(int seat) {
+            subjects.merge(seats[seat].getExamSubject(), -1, Integer::sum);
+            seats[seat] = null;
+            occupied--;
+            freeSeats[free() - 1] = seat;
+            freeSlot[seat] = free() - 1;
+        }
+
+        /**
+         * Count occupied neighbours of a seat (0-based) sitting the given subject
+         */
+        int clashes(int seat, String subject) {
+            int row = seat / columns;
+            int col = seat % columns;
+            int count = 0;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int r = row + dr;
+                    int c = col + dc;
+                    if ((dr == 0 && dc == 0) || r < 0 || c < 0 || c >= columns) {
+                        continue;
+                    }
+                    int neighbour = r * columns + c;
+                    if (neighbour < seats.length && seats[neighbour] != null
+                            && Objects.equals(seats[neighbour].getExamSubject(), subject)) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    private final List<SeatingAssignment> assignments;
+    private final List<RoomSeats> rooms = new ArrayList<>();
+    private final Map<String, RoomSeats> roomsById = new HashMap<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    private ArrangementIndex(List<SeatingAssignment> assignments) {
+        this.assignments = assignments;
+    }
+
+    /**
+     * Index an assignment list against the rooms it was generated for
+     */
+    static ArrangementIndex build(List<SeatingAssignment> assignments, List<Room> rooms) {
+        ArrangementIndex index = new ArrangementIndex(assignments);
+        for (Room room : rooms) {
+            RoomSeats seats = new RoomSeats(room);
+            index.rooms.add(seats);
+            index.roomsById.put(room.getRoomId(), seats);
+        }
+        for (int i = 0; i < assignments.size(); i++) {
+            SeatingAssignment assignment = assignments.get(i);
+            RoomSeats seats = index.roomsById.get(assignment.getRoomId());
+            if (seats == null) {
+                throw new IllegalArgumentException("Assignment refers to unknown room: " + assignment.getRoomId());
+            }
+            int seat = assignment.getSeatNumber() - 1;
+            if (seat < 0 || seat >= seats.seats.length || seats.seats[seat] != null) {
+                throw new IllegalArgumentException("Invalid or double-booked seat " + assignment.getSeatNumber()
+                        + " in room " + assignment.getRoomId());
+            }
+            seats.place(seat, assignment);
+            index.positions.put(assignment.getStudentId(), i);
+        }
+        return index;
+    }
+
+    /**
+     * Whether the index still describes the given list
+     */
+    boolean covers(List<SeatingAssignment> list) {
+        return list == assignments && list.size() == positions.size();
+    }
+
+    boolean isSeated(String studentId) {
+        return positions.containsKey(studentId);
+    }
+
+    int freeSeats() {
+        int free = 0;
+        for (RoomSeats seats : rooms) {
+            free += seats.free();
+        }
+        return free;
+    }
+
+    List<RoomSeats> rooms() {
+        return rooms;
+    }
+
+    /**
+     * Remove a student's assignment and free their seat
+     *
+     * @return Whether the student was seated
+     */
+    boolean remove(String studentId) {
+        Integer position = positions.remove(studentId);
+        if (position == null) {
+            return false;
+        }
+        SeatingAssignment assignment = assignments.get(position);
+        RoomSeats seats = roomsById.get(assignment.getRoomId());
+        seats.vacate(assignment.getSeatNumber() - 1);
+
+        SeatingAssignment last = assignments.remove(assignments.size() - 1);
+        if (last != assignment) {
+            assignments.set(position, last);
+            positions.put(last.getStudentId(), position);
+        }
+        return true;
+    }
+
+    /**
+     * Record a new assignment in a free seat
+     */
+    void add(RoomSeats seats, SeatingAssignment assignment) {
+        seats.place(assignment.getSeatNumber() - 1, assignment);
+        positions.put(assignment.getStudentId(), assignments.size());
+        assignments.add(assignment);
+    }
+}
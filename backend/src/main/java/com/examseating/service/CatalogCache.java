@@ -0,0 +1,364 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.repository.ExamRepository;
+import com.examseating.repository.ExamSummary;
+import com.examseating.repository.RoomRepository;
+import com.examseating.repository.RoomSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the active rooms and exams.
+ *
+ * The catalog is small and changes a few times a term, so each kind is held
+ * whole as an immutable snapshot, sorted by its business ID, and read without
+ * locking. Single lookups return the cached entities; list pages return the
+ * {@link RoomSummary} / {@link ExamSummary} projections built with the
+ * snapshot, so lists never carry facilities or timestamps. A miss loads the
+ * whole kind in one query (room facilities fetched with it) under the
+ * catalog's lock, so concurrent misses share one load. Writers evict after
+ * their transaction commits: a single entity is re-read and patched into a
+ * copy of the snapshot, a bulk change drops the snapshot.
+ *
+ * Cached entities are detached and shared between requests; callers must not
+ * modify them.
+ */
+@Service
+public class CatalogCache {
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Value("${catalog.cache.warm-up:true}")
+    private boolean warmUp;
+
+    /** Distinguishes snapshot versions across restarts, when the counters start over */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Catalog<Room, RoomSummary> rooms = new Catalog<>(Room::getRoomId, RoomRow::new);
+    private final Catalog<Exam, ExamSummary> exams = new Catalog<>(Exam::getExamId, ExamRow::new);
+
+    /**
+     * Load the catalog before the first request, unless disabled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUp) {
+            return;
+        }
+        long start = System.nanoTime();
+        int roomCount = rooms.all(roomRepository::findActiveWithFacilities).size();
+        int examCount = exams.all(examRepository::findByIsActiveTrue).size();
+        System.out.println("🗂️ Catalog cache warmed with " + roomCount + " rooms and " + examCount + " exams in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * All active rooms, ordered by room number
+     */
+    public List<Room> getRooms() {
+        return rooms.all(roomRepository::findActiveWithFacilities);
+    }
+
+    /**
+     * Up to {@code limit} active rooms after a room number, or from the start if it is null
+     */
+    public List<RoomSummary> getRoomPage(String afterRoomId, int limit) {
+        return rooms.load(roomRepository::findActiveWithFacilities).page(afterRoomId, limit);
+    }
+
+    public Optional<Room> getRoom(String roomId) {
+        return Optional.ofNullable(rooms.load(roomRepository::findActiveWithFacilities).byId.get(roomId));
+    }
+
+    /**
+     * Version of the cached rooms, changed by every eviction and reload
+     */
+    public String getRoomsVersion() {
+        return epoch + "." + rooms.load(roomRepository::findActiveWithFacilities).version;
+    }
+
+    /**
+     * All active exams, ordered by exam ID
+     */
+    public List<Exam> getExams() {
+        return exams.all(examRepository::findByIsActiveTrue);
+    }
+
+    /**
+     * Up to {@code limit} active exams after an exam ID, or from the start if it is null
+     */
+    public List<ExamSummary> getExamPage(String afterExamId, int limit) {
+        return exams.load(examRepository::findByIsActiveTrue).page(afterExamId, limit);
+    }
+
+    public Optional<Exam> getExam(String examId) {
+        return Optional.ofNullable(exams.load(examRepository::findByIsActiveTrue).byId.get(examId));
+    }
+
+    /**
+     * Version of the cached exams, changed by every eviction and reload
+     */
+    public String getExamsVersion() {
+        return epoch + "." + exams.load(examRepository::findByIsActiveTrue).version;
+    }
+
+    /**
+     * Re-read one room after it was written; call once the write has committed
+     */
+    public void evictRoom(String roomId) {
+        rooms.refresh(roomId, () -> roomRepository.findActiveWithFacilities(roomId));
+    }
+
+    /**
+     * Drop every cached room after a bulk write; the next read reloads them
+     */
+    public void evictRooms() {
+        rooms.invalidate();
+    }
+
+    /**
+     * Re-read one exam after it was written; call once the write has committed
+     */
+    public void evictExam(String examId) {
+        exams.refresh(examId, () -> examRepository.findByExamIdAndIsActiveTrue(examId));
+    }
+
+    /**
+     * Drop every cached exam after a bulk write; the next read reloads them
+     */
+    public void evictExams() {
+        exams.invalidate();
+    }
+
+    /**
+     * Cache statistics for reporting
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rooms", rooms.stats());
+        stats.put("exams", exams.stats());
+        return stats;
+    }
+
+    /**
+     * One kind of catalog entity, held as a snapshot replaced on every change
+     */
+    private static final class Catalog<T, S> {
+        private final Function<T, String> idOf;
+        private final Function<T, S> summaryOf;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+        private final AtomicLong invalidations = new AtomicLong();
+        private volatile Snapshot<T, S> snapshot;
+        private long published;
+
+        Catalog(Function<T, String> idOf, Function<T, S> summaryOf) {
+            this.idOf = idOf;
+            this.summaryOf = summaryOf;
+        }
+
+        List<T> all(Supplier<List<T>> loader) {
+            return load(loader).items;
+        }
+
+        Snapshot<T, S> load(Supplier<List<T>> loader) {
+            Snapshot<T, S> current = snapshot;
+            if (current != null) {
+                hits.incrementAndGet();
+                return current;
+            }
+            // Loads and evictions are serialised, so a load can never publish rows read before a committed write
+            synchronized (this) {
+                if (snapshot == null) {
+                    misses.incrementAndGet();
+                    snapshot = new Snapshot<>(loader.get(), idOf, summaryOf, ++published);
+                } else {
+                    hits.incrementAndGet();
+                }
+                return snapshot;
+            }
+        }
+
+        synchronized void refresh(String id, Supplier<Optional<T>> loader) {
+            evictions.incrementAndGet();
+            if (snapshot != null) {
+                snapshot = snapshot.with(id, loader.get().orElse(null), idOf, summaryOf, ++published);
+            }
+        }
+
+        synchronized void invalidate() {
+            invalidations.incrementAndGet();
+            snapshot = null;
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            Snapshot<T, S> current = snapshot;
+            long h = hits.get();
+            long m = misses.get();
+            stats.put("loaded", current != null);
+            stats.put("size", current != null ? current.items.size() : 0);
+            stats.put("hits", h);
+            stats.put("misses", m);
+            stats.put("evictions", evictions.get());
+            stats.put("invalidations", invalidations.get());
+            stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+            return stats;
+        }
+    }
+
+    /**
+     * Immutable, ID-sorted view of one kind of entity
+     */
+    private static final class Snapshot<T, S> {
+        private final List<T> items;
+        private final List<S> summaries;
+        private final String[] ids;
+        private final Map<String, T> byId;
+        private final long version;
+
+        Snapshot(List<T> loaded, Function<T, String> idOf, Function<T, S> summaryOf, long version) {
+            this.version = version;
+            List<T> sorted = new ArrayList<>(loaded);
+            sorted.sort(Comparator.comparing(idOf));
+            this.items = Collections.unmodifiableList(sorted);
+            this.ids = new String[sorted.size()];
+            this.byId = new HashMap<>(sorted.size() * 2);
+            List<S> rows = new ArrayList<>(sorted.size());
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = idOf.apply(sorted.get(i));
+                byId.put(ids[i], sorted.get(i));
+                rows.add(summaryOf.apply(sorted.get(i)));
+            }
+            this.summaries = Collections.unmodifiableList(rows);
+        }
+
+        /**
+         * Copy with one entity replaced, added, or removed if {@code item} is null
+         */
+        Snapshot<T, S> with(String id, T item, Function<T, String> idOf, Function<T, S> summaryOf, long version) {
+            List<T> changed = new ArrayList<>(items.size() + 1);
+            for (int i = 0; i < ids.length; i++) {
+                if (!ids[i].equals(id)) {
+                    changed.add(items.get(i));
+                }
+            }
+            if (item != null) {
+                changed.add(item);
+            }
+            return new Snapshot<>(changed, idOf, summaryOf, version);
+        }
+
+        List<S> page(String afterId, int limit) {
+            int from = 0;
+            if (afterId != null) {
+                int i = Arrays.binarySearch(ids, afterId);
+                from = i >= 0 ? i + 1 : -i - 1;
+            }
+            return summaries.subList(from, Math.min(ids.length, from + limit));
+        }
+    }
+
+    /**
+     * List columns of a cached room
+     */
+    private static final class RoomRow implements RoomSummary {
+        private final String roomId;
+        private final String name;
+        private final Integer capacity;
+        private final Integer rows;
+        private final Integer columns;
+
+        RoomRow(Room room) {
+            this.roomId = room.getRoomId();
+            this.name = room.getName();
+            this.capacity = room.getCapacity();
+            this.rows = room.getRows();
+            this.columns = room.getColumns();
+        }
+
+        public String getRoomId() {
+            return roomId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Integer getCapacity() {
+            return capacity;
+        }
+
+        public Integer getRows() {
+            return rows;
+        }
+
+        public Integer getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * List columns of a cached exam
+     */
+    private static final class ExamRow implements ExamSummary {
+        private final String examId;
+        private final String subject;
+        private final LocalDate examDate;
+        private final LocalTime startTime;
+        private final Integer durationMinutes;
+
+        ExamRow(Exam exam) {
+            this.examId = exam.getExamId();
+            this.subject = exam.getSubject();
+            this.examDate = exam.getExamDate();
+            this.startTime = exam.getStartTime();
+            this.durationMinutes = exam.getDurationMinutes();
+        }
+
+        public String getExamId() {
+            return examId;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public LocalDate getExamDate() {
+            return examDate;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public Integer getDurationMinutes() {
+            return durationMinutes;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Primitive-array implementation of the anti-cheat seating algorithm.
+ *
+ * Students, subjects and rooms are dictionary-encoded to int ids and the
+ * whole pipeline (grouping, shuffling, interleaving and room filling) runs on
+ * int/short arrays. The output is a {@link SeatingPlan}; entities are only
+ * created when the plan is materialized.
+ *
+ * For the same {@link Random} seed this produces exactly the same placements
+ * as the list-based algorithm in {@link SeatingAlgorithmService}: subjects are
+ * grouped through a {@link HashMap} built the same way {@code groupingBy}
+ * builds it, each group is shuffled with the same swap sequence as
+ * {@code Collections.shuffle}, and rooms are stably sorted by capacity.
+ */
+public final class CompactSeatingEngine {
+
+    /**
+     * Plan seats for the given students.
+     *
+     * @param students Students to seat
+     * @param rooms Available rooms
+     * @param random Source of randomness for the per-subject shuffle
+     * @param factory Creates entities when the plan is materialized
+     * @return Compact seating plan
+     */
+    public SeatingPlan plan(List<Student> students, List<Room> rooms, Random random,
+                            SeatingPlan.AssignmentFactory factory) {
+        int studentCount = students.size();
+
+        // Dictionary-encode subjects; computeIfAbsent mirrors groupingBy's map layout
+        Map<String, Integer> subjectIds = new HashMap<>();
+        int[] subjectOf = new int[studentCount];
+        int[] groupSize = new int[Math.max(studentCount, 1)];
+        for (int i = 0; i < studentCount; i++) {
+            String subject = students.get(i).getExamSubject();
+            if (subject == null) {
+                throw new IllegalArgumentException("Exam subject missing for student: "
+                        + students.get(i).getStudentId());
+            }
+            int subjectId = subjectIds.computeIfAbsent(subject, k -> subjectIds.size());
+            subjectOf[i] = subjectId;
+            groupSize[subjectId]++;
+        }
+
+        // Groups in the map's iteration order, laid out back to back
+        int groupCount = subjectIds.size();
+        int[] groupOrder = new int[groupCount];
+        int g = 0;
+        for (Integer subjectId : subjectIds.values()) {
+            groupOrder[g++] = subjectId;
+        }
+        int[] groupStart = new int[groupCount + 1];
+        for (int k = 0; k < groupCount; k++) {
+            groupStart[k + 1] = groupStart[k] + groupSize[groupOrder[k]];
+        }
+        int[] slotOfSubject = new int[groupCount];
+        for (int k = 0; k < groupCount; k++) {
+            slotOfSubject[groupOrder[k]] = k;
+        }
+        int[] members = new int[studentCount];
+        int[] fill = Arrays.copyOf(groupStart, groupCount);
+        for (int i = 0; i < studentCount; i++) {
+            members[fill[slotOfSubject[subjectOf[i]]]++] = i;
+        }
+
+        // Shuffle each group with the same swap sequence as Collections.shuffle
+        int maxSize = 0;
+        for (int k = 0; k < groupCount; k++) {
+            int start = groupStart[k];
+            int size = groupStart[k + 1] - start;
+            for (int i = size; i > 1; i--) {
+                int j = random.nextInt(i);
+                int tmp = members[start + i - 1];
+                members[start + i - 1] = members[start + j];
+                members[start + j] = tmp;
+            }
+            maxSize = Math.max(maxSize, size);
+        }
+
+        // Round-robin interleave across subjects
+        int[] order = new int[studentCount];
+        int n = 0;
+        for (int i = 0; i < maxSize; i++) {
+            for (int k = 0; k < groupCount; k++) {
+                if (groupStart[k] + i < groupStart[k + 1]) {
+                    order[n++] = members[groupStart[k] + i];
+                }
+            }
+        }
+
+        int[] sortedRooms = sortRoomsByCapacity(rooms);
+
+        // Sequential fill, room by room
+        int[] roomIndex = new int[studentCount];
+        short[] seatNumber = new short[studentCount];
+        int placed = 0;
+        for (int r : sortedRooms) {
+            if (placed >= studentCount) {
+                break;
+            }
+            int capacity = rooms.get(r).getCapacity();
+            int count = Math.min(capacity, studentCount - placed);
+            for (int seat = 1; seat <= count; seat++) {
+                roomIndex[placed] = r;
+                seatNumber[placed] = (short) seat;
+                placed++;
+            }
+        }
+
+        return new SeatingPlan(students, rooms, order, roomIndex, seatNumber, placed, factory);
+    }
+
+    /**
+     * Stable ascending sort of room indices by capacity.
+     */
+    static int[] sortRoomsByCapacity(List<Room> rooms) {
+        int roomCount = rooms.size();
+        long[] keys = new long[roomCount];
+        for (int r = 0; r < roomCount; r++) {
+            keys[r] = ((long) rooms.get(r).getCapacity() << 32) | r;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[roomCount];
+        for (int r = 0; r < roomCount; r++) {
+            sorted[r] = (int) keys[r];
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,666 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads roster CSV files in the uploadData template layouts.
+ *
+ * The file is memory-mapped and cut into chunks at record boundaries, and the
+ * chunks are parsed in parallel. Cutting needs to know whether a position is
+ * inside a quoted field (quoted fields may hold commas and line breaks), so a
+ * first parallel pass counts the quotes in each chunk; the running parity
+ * tells each chunk whether it starts inside quotes, and its boundary is moved
+ * to the next line break outside them. The second pass decodes fields
+ * straight from the mapped bytes into the int columns of a
+ * {@link StudentRoster}; subjects and sessions go through a per-chunk byte
+ * dictionary that is merged into one dictionary at the end.
+ *
+ * Fields follow RFC 4180: quoted fields may contain separators, line breaks
+ * and doubled quotes; unquoted fields are trimmed. A UTF-8 byte order mark is
+ * skipped. Files are limited to 2 GB.
+ */
+public final class CsvRosterReader {
+
+    static final int MIN_CHUNK_BYTES = 1 << 20;
+    static final int MAX_REPORTED_ISSUES = 100;
+
+    private static final DateTimeFormatter DAY_MONTH_YEAR = DateTimeFormatter.ofPattern("d/M/uuuu", Locale.ROOT);
+
+    private static final String[] STUDENT_ID = {"Student ID", "Student No", "ID"};
+    private static final String[] STUDENT_NAME = {"Student Name", "Name"};
+    private static final String[] STUDENT_EXAM = {"Student Exam", "Exam Subject", "Subject", "Exam"};
+    private static final String[] EXAM_DATE = {"Date", "Exam Date"};
+    private static final String[] SESSION = {"Session"};
+
+    private static final String[] ROOM_ID = {"Room No", "Room ID", "Room"};
+    private static final String[] ROOM_NAME = {"Room Name", "Name"};
+    private static final String[] ROOM_CAPACITY = {"Number of Seats", "Room Capacity", "Capacity", "Seats"};
+    private static final String[] ROOM_LAYOUT = {"Seat Matrix (Rows x Columns)", "Seat Matrix", "Room Layout", "Layout"};
+    private static final String[] ROOM_ROWS = {"Rows"};
+    private static final String[] ROOM_COLUMNS = {"Columns"};
+    private static final String[] ROOM_BUILDING = {"Building"};
+    private static final String[] ROOM_FLOOR = {"Floor"};
+
+    private final ForkJoinPool pool;
+
+    public CsvRosterReader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Read a students CSV (Student ID, Student Name, Student Exam, Date[, Session]).
+     *
+     * Rows without a student ID or exam, or with an unreadable date, are
+     * skipped and reported in {@link StudentRoster#getIssues()}.
+     */
+    public StudentRoster readStudents(Path csv) throws IOException {
+        ByteBuffer data = map(csv);
+        Record header = new Record();
+        int bodyStart = header.parse(data, bomLength(data), data.limit());
+        int[] columns = {
+                column(header, data, STUDENT_ID, true),
+                column(header, data, STUDENT_NAME, false),
+                column(header, data, STUDENT_EXAM, true),
+                column(header, data, EXAM_DATE, false),
+                column(header, data, SESSION, false)
+        };
+
+        int[] bounds = chunkBounds(data, bodyStart);
+        List<ForkJoinTask<StudentChunk>> tasks = new ArrayList<>();
+        for (int k = 0; k + 1 < bounds.length; k++) {
+            int from = bounds[k];
+            int to = bounds[k + 1];
+            tasks.add(pool.submit(() -> new StudentChunk(columns).parse(data, from, to)));
+        }
+        StudentChunk[] chunks = new StudentChunk[tasks.size()];
+        for (int k = 0; k < chunks.length; k++) {
+            chunks[k] = tasks.get(k).join();
+        }
+        return merge(data, chunks);
+    }
+
+    /**
+     * Read a rooms CSV (Room No, Room Name, Number of Seats, Seat Matrix (Rows x Columns)).
+     *
+     * Room catalogs are small, so they are read onto the heap rather than
+     * mapped, which would keep the file open until the mapping is collected,
+     * and parsed on the calling thread straight into {@link Room} entities. Rows without a room number, or with
+     * an unreadable number or layout, are skipped and reported in
+     * {@link RoomRoster#getIssues()}.
+     */
+    public RoomRoster readRooms(Path csv) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(csv));
+        Record record = new Record();
+        int pos = record.parse(data, bomLength(data), data.limit());
+        int id = column(record, data, ROOM_ID, true);
+        int name = column(record, data, ROOM_NAME, false);
+        int capacity = column(record, data, ROOM_CAPACITY, false);
+        int layout = column(record, data, ROOM_LAYOUT, false);
+        int rows = column(record, data, ROOM_ROWS, false);
+        int columns = column(record, data, ROOM_COLUMNS, false);
+        int building = column(record, data, ROOM_BUILDING, false);
+        int floor = column(record, data, ROOM_FLOOR, false);
+
+        List<Room> rooms = new ArrayList<>();
+        List<String> issues = new ArrayList<>();
+        int issueCount = 0;
+        int row = 0;
+        while (pos < data.limit()) {
+            pos = record.parse(data, pos, data.limit());
+            row++;
+            if (record.isBlank()) {
+                continue;
+            }
+            String problem = null;
+            try {
+                if (!record.has(id)) {
+                    throw new IllegalArgumentException("missing room number");
+                }
+                Room room = new Room();
+                room.setRoomId(record.text(data, id));
+                room.setName(record.text(data, name));
+                String matrix = record.text(data, layout);
+                if (matrix != null) {
+                    String[] parts = matrix.toLowerCase(Locale.ROOT).split("x");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("not a rows x columns layout: " + matrix);
+                    }
+                    room.setRows(Integer.parseInt(parts[0].trim()));
+                    room.setColumns(Integer.parseInt(parts[1].trim()));
+                }
+                if (record.text(data, rows) != null) {
+                    room.setRows(Integer.parseInt(record.text(data, rows)));
+                }
+                if (record.text(data, columns) != null) {
+                    room.setColumns(Integer.parseInt(record.text(data, columns)));
+                }
+                String seats = record.text(data, capacity);
+                if (seats != null) {
+                    room.setCapacity(Integer.parseInt(seats));
+                } else if (room.getRows() != null && room.getColumns() != null) {
+                    room.setCapacity(room.getRows() * room.getColumns());
+                }
+                room.setBuilding(record.text(data, building));
+                room.setFloor(record.text(data, floor));
+                rooms.add(room);
+            } catch (NumberFormatException e) {
+                problem = "not a number: " + e.getMessage();
+            } catch (IllegalArgumentException e) {
+                problem = e.getMessage();
+            }
+            if (problem != null) {
+                issueCount++;
+                if (issues.size() < MAX_REPORTED_ISSUES) {
+                    issues.add("Row " + row + ": " + problem);
+                }
+            }
+        }
+        return new RoomRoster(rooms, issues, issueCount);
+    }
+
+    private static ByteBuffer map(Path csv) throws IOException {
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("CSV file is larger than 2 GB");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static int bomLength(ByteBuffer data) {
+        return data.limit() >= 3 && data.get(0) == (byte) 0xEF && data.get(1) == (byte) 0xBB
+                && data.get(2) == (byte) 0xBF ? 3 : 0;
+    }
+
+    /**
+     * Header column holding a field, or -1
+     */
+    private static int column(Record header, ByteBuffer data, String[] names, boolean required) {
+        for (String name : names) {
+            String wanted = normalise(name);
+            for (int c = 0; c < header.count; c++) {
+                String text = header.text(data, c);
+                if (text != null && normalise(text).equals(wanted)) {
+                    return c;
+                }
+            }
+        }
+        if (required) {
+            throw new IllegalArgumentException("CSV header has no \"" + names[0] + "\" column");
+        }
+        return -1;
+    }
+
+    private static String normalise(String header) {
+        StringBuilder sb = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Chunk start offsets, each at the beginning of a record, ending with the file length
+     */
+    private int[] chunkBounds(ByteBuffer data, int bodyStart) {
+        int end = data.limit();
+        int length = end - bodyStart;
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES, length / (pool.getParallelism() * 4) + 1);
+        int chunkCount = Math.max(1, (int) ((length + (long) chunkBytes - 1) / chunkBytes));
+        if (chunkCount == 1) {
+            return new int[]{bodyStart, end};
+        }
+
+        // Pass 1: quote count per nominal chunk
+        List<ForkJoinTask<Integer>> counts = new ArrayList<>();
+        for (int k = 0; k < chunkCount; k++) {
+            int from = bodyStart + k * chunkBytes;
+            int to = (int) Math.min(end, (long) from + chunkBytes);
+            counts.add(pool.submit(() -> {
+                int quotes = 0;
+                for (int p = from; p < to; p++) {
+                    if (data.get(p) == '"') {
+                        quotes++;
+                    }
+                }
+                return quotes;
+            }));
+        }
+
+        // Move each nominal start to just after the first line break outside quotes
+        int[] bounds = new int[chunkCount + 1];
+        bounds[0] = bodyStart;
+        boolean inQuotes = false;
+        int n = 1;
+        for (int k = 1; k < chunkCount; k++) {
+            inQuotes ^= (counts.get(k - 1).join() & 1) == 1;
+            int p = bodyStart + k * chunkBytes;
+            boolean quoted = inQuotes;
+            while (p < end) {
+                byte b = data.get(p++);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    break;
+                }
+            }
+            if (p > bounds[n - 1] && p < end) {
+                bounds[n++] = p;
+            }
+        }
+        bounds[n++] = end;
+        return Arrays.copyOf(bounds, n);
+    }
+
+    private static StudentRoster merge(ByteBuffer data, StudentChunk[] chunks) {
+        int size = 0;
+        int[] offsets = new int[chunks.length];
+        for (int k = 0; k < chunks.length; k++) {
+            offsets[k] = size;
+            size += chunks[k].size;
+        }
+
+        // One dictionary for subjects and one for sessions, in first-seen order
+        List<String> subjects = new ArrayList<>();
+        List<String> sessions = new ArrayList<>();
+        Map<String, Integer> subjectIds = new HashMap<>();
+        Map<String, Integer> sessionIds = new HashMap<>();
+        int[][] subjectRemap = new int[chunks.length][];
+        int[][] sessionRemap = new int[chunks.length][];
+        for (int k = 0; k < chunks.length; k++) {
+            subjectRemap[k] = chunks[k].subjects.remap(data, subjects, subjectIds);
+            sessionRemap[k] = chunks[k].sessions.remap(data, sessions, sessionIds);
+        }
+
+        int[] idStart = new int[size];
+        int[] idLength = new int[size];
+        int[] nameStart = new int[size];
+        int[] nameLength = new int[size];
+        int[] subject = new int[size];
+        int[] examDate = new int[size];
+        int[] session = new int[size];
+        List<String> issues = new ArrayList<>();
+        int issueCount = 0;
+        int records = 0;
+        for (int k = 0; k < chunks.length; k++) {
+            StudentChunk chunk = chunks[k];
+            int at = offsets[k];
+            System.arraycopy(chunk.idStart, 0, idStart, at, chunk.size);
+            System.arraycopy(chunk.idLength, 0, idLength, at, chunk.size);
+            System.arraycopy(chunk.nameStart, 0, nameStart, at, chunk.size);
+            System.arraycopy(chunk.nameLength, 0, nameLength, at, chunk.size);
+            System.arraycopy(chunk.examDate, 0, examDate, at, chunk.size);
+            for (int i = 0; i < chunk.size; i++) {
+                subject[at + i] = subjectRemap[k][chunk.subject[i]];
+                session[at + i] = chunk.session[i] == StudentRoster.NONE ? StudentRoster.NONE
+                        : sessionRemap[k][chunk.session[i]];
+            }
+            for (int j = 0; j < chunk.issueRecords.size() && issues.size() < MAX_REPORTED_ISSUES; j++) {
+                issues.add("Row " + (records + chunk.issueRecords.get(j)) + ": " + chunk.issueMessages.get(j));
+            }
+            issueCount += chunk.issueCount;
+            records += chunk.records;
+        }
+        return new StudentRoster(data, size, idStart, idLength, nameStart, nameLength, subject, examDate, session,
+                subjects, sessions, issues, issueCount);
+    }
+
+    /**
+     * Field positions of the current record; reused for every record of a chunk
+     */
+    private static final class Record {
+        int count;
+        int[] start = new int[16];
+        int[] length = new int[16];
+
+        /**
+         * Parse the record starting at pos
+         *
+         * @return Position just after the record's line break
+         */
+        int parse(ByteBuffer data, int pos, int end) {
+            count = 0;
+            while (true) {
+                int fieldStart;
+                int fieldLength;
+                boolean escaped = false;
+                if (pos < end && data.get(pos) == '"') {
+                    fieldStart = ++pos;
+                    while (true) {
+                        if (pos >= end) {
+                            fieldLength = pos - fieldStart;
+                            break;
+                        }
+                        if (data.get(pos) == '"') {
+                            if (pos + 1 < end && data.get(pos + 1) == '"') {
+                                escaped = true;
+                                pos += 2;
+                                continue;
+                            }
+                            fieldLength = pos - fieldStart;
+                            pos++;
+                            break;
+                        }
+                        pos++;
+                    }
+                    pos = skipToDelimiter(data, pos, end);
+                } else {
+                    fieldStart = pos;
+                    pos = skipToDelimiter(data, pos, end);
+                    // Trim unquoted fields
+                    int fieldEnd = pos;
+                    while (fieldStart < fieldEnd && data.get(fieldStart) == ' ') {
+                        fieldStart++;
+                    }
+                    while (fieldEnd > fieldStart && data.get(fieldEnd - 1) == ' ') {
+                        fieldEnd--;
+                    }
+                    fieldLength = fieldEnd - fieldStart;
+                }
+                add(fieldStart, escaped ? fieldLength | StudentRoster.ESCAPED : fieldLength);
+
+                if (pos >= end) {
+                    return end;
+                }
+                byte b = data.get(pos++);
+                if (b == ',') {
+                    continue;
+                }
+                if (b == '\r' && pos < end && data.get(pos) == '\n') {
+                    pos++;
+                }
+                return pos;
+            }
+        }
+
+        private static int skipToDelimiter(ByteBuffer data, int pos, int end) {
+            while (pos < end) {
+                byte b = data.get(pos);
+                if (b == ',' || b == '\n' || b == '\r') {
+                    break;
+                }
+                pos++;
+            }
+            return pos;
+        }
+
+        private void add(int fieldStart, int fieldLength) {
+            if (count == start.length) {
+                start = Arrays.copyOf(start, count * 2);
+                length = Arrays.copyOf(length, count * 2);
+            }
+            start[count] = fieldStart;
+            length[count] = fieldLength;
+            count++;
+        }
+
+        boolean isBlank() {
+            return count == 1 && length[0] == 0;
+        }
+
+        /**
+         * Whether a column is present and non-empty in this record
+         */
+        boolean has(int column) {
+            return column >= 0 && column < count && (length[column] & ~StudentRoster.ESCAPED) != 0;
+        }
+
+        String text(ByteBuffer data, int column) {
+            return has(column) ? StudentRoster.text(data, start[column], length[column]) : null;
+        }
+    }
+
+    /**
+     * Columns of one chunk, grown as records are parsed
+     */
+    private static final class StudentChunk {
+        private final int idColumn;
+        private final int nameColumn;
+        private final int subjectColumn;
+        private final int dateColumn;
+        private final int sessionColumn;
+        private final Record record = new Record();
+        private final ByteDictionary subjects = new ByteDictionary();
+        private final ByteDictionary sessions = new ByteDictionary();
+        private final List<Integer> issueRecords = new ArrayList<>();
+        private final List<String> issueMessages = new ArrayList<>();
+
+        int size;
+        int records;
+        int issueCount;
+        int[] idStart = new int[1024];
+        int[] idLength = new int[1024];
+        int[] nameStart = new int[1024];
+        int[] nameLength = new int[1024];
+        int[] subject = new int[1024];
+        int[] examDate = new int[1024];
+        int[] session = new int[1024];
+
+        private int lastDateKey = -1;
+        private int lastEpochDay;
+
+        StudentChunk(int[] columns) {
+            this.idColumn = columns[0];
+            this.nameColumn = columns[1];
+            this.subjectColumn = columns[2];
+            this.dateColumn = columns[3];
+            this.sessionColumn = columns[4];
+        }
+
+        StudentChunk parse(ByteBuffer data, int from, int to) {
+            int pos = from;
+            while (pos < to) {
+                pos = record.parse(data, pos, to);
+                records++;
+                if (record.isBlank()) {
+                    continue;
+                }
+                if (!record.has(idColumn)) {
+                    issue("missing student ID");
+                    continue;
+                }
+                if (!record.has(subjectColumn)) {
+                    issue("missing exam for student " + record.text(data, idColumn));
+                    continue;
+                }
+                int date = StudentRoster.NO_DATE;
+                if (record.has(dateColumn)) {
+                    date = epochDay(data, record.start[dateColumn], record.length[dateColumn]);
+                    if (date == StudentRoster.NO_DATE) {
+                        issue("unreadable date \"" + record.text(data, dateColumn) + "\"");
+                        continue;
+                    }
+                }
+
+                if (size == idStart.length) {
+                    grow();
+                }
+                idStart[size] = record.start[idColumn];
+                idLength[size] = record.length[idColumn];
+                if (record.has(nameColumn)) {
+                    nameStart[size] = record.start[nameColumn];
+                    nameLength[size] = record.length[nameColumn];
+                }
+                subject[size] = subjects.id(data, record.start[subjectColumn], record.length[subjectColumn]);
+                examDate[size] = date;
+                session[size] = record.has(sessionColumn)
+                        ? sessions.id(data, record.start[sessionColumn], record.length[sessionColumn])
+                        : StudentRoster.NONE;
+                size++;
+            }
+            return this;
+        }
+
+        private void issue(String message) {
+            issueCount++;
+            if (issueRecords.size() < MAX_REPORTED_ISSUES) {
+                issueRecords.add(records);
+                issueMessages.add(message);
+            }
+        }
+
+        /**
+         * Epoch day of a yyyy-MM-dd or d/M/yyyy field, or NO_DATE
+         */
+        private int epochDay(ByteBuffer data, int start, int lengthAndFlag) {
+            int length = lengthAndFlag & ~StudentRoster.ESCAPED;
+            if (length == 10 && data.get(start + 4) == '-' && data.get(start + 7) == '-') {
+                int year = digits(data, start, 4);
+                int month = digits(data, start + 5, 2);
+                int day = digits(data, start + 8, 2);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    // Rosters repeat a handful of dates, so remember the last one
+                    int key = year * 10000 + month * 100 + day;
+                    if (key != lastDateKey) {
+                        try {
+                            lastEpochDay = (int) LocalDate.of(year, month, day).toEpochDay();
+                        } catch (DateTimeException e) {
+                            return StudentRoster.NO_DATE;
+                        }
+                        lastDateKey = key;
+                    }
+                    return lastEpochDay;
+                }
+            }
+            try {
+                return (int) LocalDate.parse(StudentRoster.text(data, start, lengthAndFlag), DAY_MONTH_YEAR)
+                        .toEpochDay();
+            } catch (DateTimeException e) {
+                return StudentRoster.NO_DATE;
+            }
+        }
+
+        private static int digits(ByteBuffer data, int start, int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                int d = data.get(start + i) - '0';
+                if (d < 0 || d > 9) {
+                    return -1;
+                }
+                value = value * 10 + d;
+            }
+            return value;
+        }
+
+        private void grow() {
+            int capacity = idStart.length * 2;
+            idStart = Arrays.copyOf(idStart, capacity);
+            idLength = Arrays.copyOf(idLength, capacity);
+            nameStart = Arrays.copyOf(nameStart, capacity);
+            nameLength = Arrays.copyOf(nameLength, capacity);
+            subject = Arrays.copyOf(subject, capacity);
+            examDate = Arrays.copyOf(examDate, capacity);
+            session = Arrays.copyOf(session, capacity);
+        }
+    }
+
+    /**
+     * Open-addressing dictionary of byte ranges of the mapped file
+     */
+    private static final class ByteDictionary {
+        private int[] slots = new int[64];
+        private int[] starts = new int[16];
+        private int[] lengths = new int[16];
+        private int[] hashes = new int[16];
+        private int count;
+
+        int id(ByteBuffer data, int start, int lengthAndFlag) {
+            int length = lengthAndFlag & ~StudentRoster.ESCAPED;
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + data.get(start + i);
+            }
+            int mask = slots.length - 1;
+            for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot] - 1;
+                if (entry < 0) {
+                    return add(slot, start, lengthAndFlag, hash);
+                }
+                if (hashes[entry] == hash && equal(data, starts[entry], lengths[entry], start, lengthAndFlag)) {
+                    return entry;
+                }
+            }
+        }
+
+        private int add(int slot, int start, int lengthAndFlag, int hash) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+                hashes = Arrays.copyOf(hashes, count * 2);
+            }
+            starts[count] = start;
+            lengths[count] = lengthAndFlag;
+            hashes[count] = hash;
+            slots[slot] = ++count;
+            if (count * 2 > slots.length) {
+                rehash();
+            }
+            return count - 1;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int entry = 0; entry < count; entry++) {
+                int slot = mix(hashes[entry]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = entry + 1;
+            }
+        }
+
+        /**
+         * Global ids for this dictionary's entries, adding new values to the global dictionary
+         */
+        int[] remap(ByteBuffer data, List<String> values, Map<String, Integer> ids) {
+            int[] remap = new int[count];
+            for (int entry = 0; entry < count; entry++) {
+                String value = StudentRoster.text(data, starts[entry], lengths[entry]);
+                remap[entry] = ids.computeIfAbsent(value, v -> {
+                    values.add(v);
+                    return values.size() - 1;
+                });
+            }
+            return remap;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean equal(ByteBuffer data, int a, int aLength, int b, int bLength) {
+            if (aLength != bLength) {
+                return false;
+            }
+            int length = aLength & ~StudentRoster.ESCAPED;
+            for (int i = 0; i < length; i++) {
+                if (data.get(a + i) != data.get(b + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
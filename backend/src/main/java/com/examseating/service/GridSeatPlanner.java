@@ -0,0 +1,382 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Grid-aware anti-cheat placement within a room.
+ *
+ * A room is treated as a rows x columns grid graph where every seat is adjacent
+ * to its front, back, side and diagonal neighbours. Two constructions are tried:
+ * a parity tiling that lays subjects out along the four independent seat
+ * classes, and a row-major colouring where the subjects already placed around a
+ * seat form a bitset mask and the seat takes the allowed subject with the most
+ * students left (leaving the seat empty if nothing is allowed and the room has
+ * spare seats, otherwise taking the subject with the fewest clashes). The better
+ * of the two is kept and a bounded min-conflicts swap pass repairs what is left.
+ */
+public final class GridSeatPlanner {
+
+    /** Seats per row used when a room has no column count */
+    static final int DEFAULT_SEATS_PER_ROW = 5;
+
+    private static final int EMPTY = -1;
+    private static final int REPAIR_MOVES_PER_SEAT = 32;
+
+    private final long seed;
+
+    public GridSeatPlanner(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Result of placing one room
+     */
+    public static final class Layout {
+        private final int[] seatNumbers;
+        private final int violations;
+
+        Layout(int[] seatNumbers, int violations) {
+            this.seatNumbers = seatNumbers;
+            this.violations = violations;
+        }
+
+        /** 1-based seat number for each student, in input order */
+        public int[] getSeatNumbers() {
+            return seatNumbers;
+        }
+
+        /** Number of adjacent seat pairs sharing a subject */
+        public int getViolations() {
+            return violations;
+        }
+    }
+
+    /**
+     * Seats per row for a room, falling back to the default layout
+     */
+    static int seatsPerRow(Room room) {
+        Integer columns = room.getColumns();
+        return columns != null && columns > 0 ? columns : DEFAULT_SEATS_PER_ROW;
+    }
+
+    /**
+     * Re-seat every room of a plan on its grid, keeping the room distribution.
+     *
+     * @param plan Plan whose rooms are to be laid out
+     * @return Plan with grid-aware seat numbers
+     */
+    public SeatingPlan arrange(SeatingPlan plan) {
+        int size = plan.size();
+        int roomCount = plan.getRooms().size();
+
+        // Bucket plan positions by room
+        int[] roomStart = new int[roomCount + 1];
+        for (int i = 0; i < size; i++) {
+            roomStart[plan.roomIndexAt(i) + 1]++;
+        }
+        for (int r = 0; r < roomCount; r++) {
+            roomStart[r + 1] += roomStart[r];
+        }
+        int[] positions = new int[size];
+        int[] fill = Arrays.copyOf(roomStart, roomCount);
+        for (int i = 0; i < size; i++) {
+            positions[fill[plan.roomIndexAt(i)]++] = i;
+        }
+
+        Map<String, Integer> subjectIds = new HashMap<>();
+        short[] seatNumbers = new short[size];
+        for (int r = 0; r < roomCount; r++) {
+            int count = roomStart[r + 1] - roomStart[r];
+            if (count == 0) {
+                continue;
+            }
+            Room room = plan.getRooms().get(r);
+            int[] subjects = new int[count];
+            for (int k = 0; k < count; k++) {
+                String subject = plan.studentAt(positions[roomStart[r] + k]).getExamSubject();
+                subjects[k] = subjectIds.computeIfAbsent(subject, s -> subjectIds.size());
+            }
+            Layout layout = place(room.getCapacity(), seatsPerRow(room), subjects, subjectIds.size());
+            for (int k = 0; k < count; k++) {
+                seatNumbers[positions[roomStart[r] + k]] = (short) layout.seatNumbers[k];
+            }
+        }
+        return plan.withSeatNumbers(seatNumbers);
+    }
+
+    /**
+     * Place students of one room on its grid.
+     *
+     * @param seats Number of seats in the room, numbered row-major from 1
+     * @param columns Seats per row
+     * @param subjects Subject id of each student
+     * @param subjectCount Upper bound on subject ids
+     * @return Seat numbers and remaining violations
+     */
+    public Layout place(int seats, int columns, int[] subjects, int subjectCount) {
+        int students = subjects.length;
+        if (students > seats) {
+            throw new IllegalArgumentException("Room has " + seats + " seats for " + students + " students");
+        }
+
+        int[] counts = new int[subjectCount];
+        for (int subject : subjects) {
+            counts[subject]++;
+        }
+
+        int[] cellSubject = tile(seats, columns, counts);
+        int violations = countViolations(cellSubject, columns, seats);
+        if (violations > 0) {
+            int[] coloured = colour(seats, columns, counts, students);
+            int colouredViolations = countViolations(coloured, columns, seats);
+            if (colouredViolations < violations) {
+                cellSubject = coloured;
+                violations = colouredViolations;
+            }
+        }
+        violations = repair(cellSubject, columns, seats, violations);
+
+        // Hand out seats to students subject by subject
+        int[] nextCell = new int[subjectCount];
+        int[] seatNumbers = new int[students];
+        for (int k = 0; k < students; k++) {
+            int subject = subjects[k];
+            int cell = nextCell[subject];
+            while (cellSubject[cell] != subject) {
+                cell++;
+            }
+            seatNumbers[k] = cell + 1;
+            nextCell[subject] = cell + 1;
+        }
+        return new Layout(seatNumbers, violations);
+    }
+
+    /**
+     * Parity tiling: the four (row % 2, column % 2) seat classes are independent
+     * sets of the grid graph. Subjects are taken largest first and each goes whole
+     * into the first class, largest first, with room for it; only a subject that
+     * fits in no class is spread over the classes, and clashes only where it is.
+     */
+    private static int[] tile(int seats, int columns, int[] counts) {
+        int subjectCount = counts.length;
+        Integer[] bySize = new Integer[subjectCount];
+        for (int s = 0; s < subjectCount; s++) {
+            bySize[s] = s;
+        }
+        Arrays.sort(bySize, (a, b) -> Integer.compare(counts[b], counts[a]));
+
+        int rows = (seats + columns - 1) / columns;
+        int[][] classes = new int[4][];
+        Integer[] bySpace = new Integer[4];
+        for (int phase = 0; phase < 4; phase++) {
+            int[] cells = new int[seats];
+            int size = 0;
+            for (int r = phase >> 1; r < rows; r += 2) {
+                for (int c = phase & 1; c < columns; c += 2) {
+                    int cell = r * columns + c;
+                    if (cell < seats) {
+                        cells[size++] = cell;
+                    }
+                }
+            }
+            classes[phase] = Arrays.copyOf(cells, size);
+            bySpace[phase] = phase;
+        }
+        Arrays.sort(bySpace, (a, b) -> Integer.compare(classes[b].length, classes[a].length));
+
+        int[] cellSubject = new int[seats];
+        Arrays.fill(cellSubject, EMPTY);
+        int[] used = new int[4];
+        for (int subject : bySize) {
+            int left = counts[subject];
+            int target = -1;
+            for (int phase : bySpace) {
+                if (classes[phase].length - used[phase] >= left) {
+                    target = phase;
+                    break;
+                }
+            }
+            for (int phase : bySpace) {
+                if (target >= 0 && phase != target) {
+                    continue;
+                }
+                while (left > 0 && used[phase] < classes[phase].length) {
+                    cellSubject[classes[phase][used[phase]++]] = subject;
+                    left--;
+                }
+            }
+        }
+        return cellSubject;
+    }
+
+    /**
+     * Row-major greedy colouring with bitset neighbour masks.
+     */
+    private static int[] colour(int seats, int columns, int[] counts, int students) {
+        int subjectCount = counts.length;
+        int[] remaining = Arrays.copyOf(counts, subjectCount);
+        int words = (subjectCount + 63) >>> 6;
+        long[] available = new long[words];
+        for (int s = 0; s < subjectCount; s++) {
+            if (remaining[s] > 0) {
+                available[s >>> 6] |= 1L << s;
+            }
+        }
+        long[] forbidden = new long[words];
+
+        int[] cellSubject = new int[seats];
+        int spare = seats - students;
+        int left = students;
+        for (int cell = 0; cell < seats; cell++) {
+            if (left == 0) {
+                cellSubject[cell] = EMPTY;
+                continue;
+            }
+            Arrays.fill(forbidden, 0L);
+            int row = cell / columns;
+            int col = cell % columns;
+            // Only seats before this one are placed: left, and the three in front
+            markPlaced(cellSubject, forbidden, cell, row, col - 1, columns);
+            markPlaced(cellSubject, forbidden, cell, row - 1, col - 1, columns);
+            markPlaced(cellSubject, forbidden, cell, row - 1, col, columns);
+            markPlaced(cellSubject, forbidden, cell, row - 1, col + 1, columns);
+
+            int chosen = EMPTY;
+            for (int w = 0; w < words; w++) {
+                long candidates = available[w] & ~forbidden[w];
+                while (candidates != 0) {
+                    int s = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                    candidates &= candidates - 1;
+                    if (chosen == EMPTY || remaining[s] > remaining[chosen]) {
+                        chosen = s;
+                    }
+                }
+            }
+            if (chosen == EMPTY) {
+                if (spare > 0) {
+                    cellSubject[cell] = EMPTY;
+                    spare--;
+                    continue;
+                }
+                chosen = leastConflicting(cellSubject, remaining, cell, columns, seats);
+            }
+            cellSubject[cell] = chosen;
+            left--;
+            if (--remaining[chosen] == 0) {
+                available[chosen >>> 6] &= ~(1L << chosen);
+            }
+        }
+
+        return cellSubject;
+    }
+
+    private static int countViolations(int[] cellSubject, int columns, int seats) {
+        int violations = 0;
+        for (int cell = 0; cell < seats; cell++) {
+            violations += conflicts(cellSubject, cell, cellSubject[cell], columns, seats);
+        }
+        return violations / 2;
+    }
+
+    private static void markPlaced(int[] cellSubject, long[] mask, int limit, int row, int col, int columns) {
+        if (row < 0 || col < 0 || col >= columns) {
+            return;
+        }
+        int neighbour = row * columns + col;
+        if (neighbour < limit && cellSubject[neighbour] != EMPTY) {
+            int subject = cellSubject[neighbour];
+            mask[subject >>> 6] |= 1L << subject;
+        }
+    }
+
+    private static int leastConflicting(int[] cellSubject, int[] remaining, int cell, int columns, int seats) {
+        int best = EMPTY;
+        int bestConflicts = Integer.MAX_VALUE;
+        for (int s = 0; s < remaining.length; s++) {
+            if (remaining[s] == 0) {
+                continue;
+            }
+            int conflicts = conflicts(cellSubject, cell, s, columns, cell);
+            if (conflicts < bestConflicts || (conflicts == bestConflicts && remaining[s] > remaining[best])) {
+                best = s;
+                bestConflicts = conflicts;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Count neighbours of a seat, among seats below the limit, holding the given subject
+     */
+    private static int conflicts(int[] cellSubject, int cell, int subject, int columns, int limit) {
+        if (subject == EMPTY) {
+            return 0;
+        }
+        int row = cell / columns;
+        int col = cell % columns;
+        int count = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            int r = row + dr;
+            if (r < 0) {
+                continue;
+            }
+            for (int dc = -1; dc <= 1; dc++) {
+                int c = col + dc;
+                if ((dr == 0 && dc == 0) || c < 0 || c >= columns) {
+                    continue;
+                }
+                int neighbour = r * columns + c;
+                if (neighbour < limit && cellSubject[neighbour] == subject) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Min-conflicts repair: swap a clashing seat with any seat of another subject
+     * (or an empty seat) when that lowers the number of clashes.
+     *
+     * @return Remaining number of clashing adjacent pairs
+     */
+    private int repair(int[] cellSubject, int columns, int seats, int violations) {
+        if (violations == 0 || seats < 2) {
+            return violations;
+        }
+
+        Random random = new Random(seed ^ seats);
+        int moves = seats * REPAIR_MOVES_PER_SEAT;
+        for (int move = 0; move < moves && violations > 0; move++) {
+            int a = random.nextInt(seats);
+            int subjectA = cellSubject[a];
+            if (conflicts(cellSubject, a, subjectA, columns, seats) == 0) {
+                continue;
+            }
+            int b = random.nextInt(seats);
+            int subjectB = cellSubject[b];
+            if (subjectA == subjectB) {
+                continue;
+            }
+            int before = conflicts(cellSubject, a, subjectA, columns, seats)
+                    + conflicts(cellSubject, b, subjectB, columns, seats);
+            cellSubject[a] = subjectB;
+            cellSubject[b] = subjectA;
+            int after = conflicts(cellSubject, a, subjectB, columns, seats)
+                    + conflicts(cellSubject, b, subjectA, columns, seats);
+            if (after <= before) {
+                violations -= before - after;
+            } else {
+                cellSubject[a] = subjectA;
+                cellSubject[b] = subjectB;
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,132 @@
+package com.examseating.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Open-addressing set of string ids keyed by a 64-bit hash.
+ *
+ * Only the hash and the row of the first occurrence are stored, so adding an
+ * id boxes nothing. Ids are compared as strings only when two hashes are
+ * equal; genuinely different ids with the same hash go to a small overflow map.
+ * Without an id lookup (when the ids are no longer in memory) equal hashes
+ * are taken to be equal ids, which for 64-bit hashes is wrong about once in
+ * 2^64 pairs.
+ */
+final class IdHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private final IntFunction<String> idAt;
+    private long[] keys;
+    private int[] rows;
+    private int mask;
+    private int size;
+    private Map<String, Integer> collisions;
+
+    /**
+     * @param expected Expected number of ids
+     * @param idAt Id of a row, used to confirm hash matches, or null to trust the hash
+     */
+    IdHashSet(int expected, IntFunction<String> idAt) {
+        this.idAt = idAt;
+        int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.rows = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 64-bit FNV-1a with a final avalanche; never returns 0
+     */
+    static long hash(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h = (h ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    /**
+     * Add the id of a row
+     *
+     * @param hash {@link #hash(String)} of the id
+     * @param row Row holding the id
+     * @return Row of an earlier equal id, or -1 if the id is new
+     */
+    int add(long hash, int row) {
+        int slot = (int) hash & mask;
+        while (true) {
+            long key = keys[slot];
+            if (key == EMPTY) {
+                keys[slot] = hash;
+                rows[slot] = row;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return -1;
+            }
+            if (key == hash) {
+                if (idAt == null) {
+                    return rows[slot];
+                }
+                String id = idAt.apply(row);
+                if (id.equals(idAt.apply(rows[slot]))) {
+                    return rows[slot];
+                }
+                if (collisions == null) {
+                    collisions = new HashMap<>();
+                }
+                Integer earlier = collisions.putIfAbsent(id, row);
+                return earlier == null ? -1 : earlier;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Row holding an id
+     *
+     * @param hash {@link #hash(String)} of the id
+     * @return Row of the first occurrence of the id, or -1 if it was never added
+     */
+    int find(long hash, String id) {
+        int slot = (int) hash & mask;
+        while (true) {
+            long key = keys[slot];
+            if (key == EMPTY) {
+                return -1;
+            }
+            if (key == hash) {
+                if (idAt == null || id.equals(idAt.apply(rows[slot]))) {
+                    return rows[slot];
+                }
+                Integer row = collisions == null ? null : collisions.get(id);
+                return row == null ? -1 : row;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldRows = rows;
+        keys = new long[oldKeys.length * 2];
+        rows = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = (int) oldKeys[i] & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                rows[slot] = oldRows[i];
+            }
+        }
+    }
+}
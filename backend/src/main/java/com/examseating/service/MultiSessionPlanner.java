@@ -0,0 +1,101 @@
+package com.examseating.service;
+
+import com.examseating.model.ExamSession;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+/**
+ * Seats a whole exam week by solving every (date, session) partition in parallel.
+ *
+ * Registrations are grouped by {@link ExamSession} and each session is solved
+ * independently on a fork/join pool, largest session first, so the wall-clock
+ * time of a week is close to that of its largest session.
+ */
+public final class MultiSessionPlanner {
+
+    /**
+     * Seats the students of a single session
+     */
+    @FunctionalInterface
+    public interface SessionSolver {
+        SeatingArrangement solve(ExamSession session, List<Student> students);
+    }
+
+    private final ForkJoinPool pool;
+
+    public MultiSessionPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Partition students by session and solve every session.
+     *
+     * @param students Registrations for all sessions
+     * @param solver Seats one session
+     * @return Arrangement per session, in date and session order
+     */
+    public SortedMap<ExamSession, SeatingArrangement> plan(List<Student> students, SessionSolver solver) {
+        Map<ExamSession, List<Student>> partitions = students.stream()
+                .collect(Collectors.groupingBy(ExamSession::of));
+
+        // Largest sessions first so they are not left for the end of the run
+        List<ExamSession> sessions = new ArrayList<>(partitions.keySet());
+        sessions.sort((a, b) -> Integer.compare(partitions.get(b).size(), partitions.get(a).size()));
+
+        SeatingArrangement[] results = new SeatingArrangement[sessions.size()];
+        pool.invoke(new SessionTask(sessions, partitions, solver, results, 0, sessions.size()));
+
+        SortedMap<ExamSession, SeatingArrangement> arrangements = new TreeMap<>();
+        for (int i = 0; i < results.length; i++) {
+            arrangements.put(sessions.get(i), results[i]);
+        }
+        return arrangements;
+    }
+
+    private static final class SessionTask extends RecursiveAction {
+        private final List<ExamSession> sessions;
+        private final Map<ExamSession, List<Student>> partitions;
+        private final SessionSolver solver;
+        private final SeatingArrangement[] results;
+        private final int from;
+        private final int to;
+
+        SessionTask(List<ExamSession> sessions, Map<ExamSession, List<Student>> partitions, SessionSolver solver,
+                    SeatingArrangement[] results, int from, int to) {
+            this.sessions = sessions;
+            this.partitions = partitions;
+            this.solver = solver;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from == to) {
+                    return;
+                }
+                ExamSession session = sessions.get(from);
+                try {
+                    results[from] = solver.solve(session, partitions.get(session));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Session " + session + ": " + e.getMessage(), e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SessionTask(sessions, partitions, solver, results, from, mid),
+                      new SessionTask(sessions, partitions, solver, results, mid, to));
+        }
+    }
+}
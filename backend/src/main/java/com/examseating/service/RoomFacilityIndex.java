@@ -0,0 +1,121 @@
+package com.examseating.service;
+
+import com.examseating.model.Facility;
+import com.examseating.model.Room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitset index from facilities to rooms.
+ *
+ * For every {@link Facility} the index keeps one bit per room. The rooms that
+ * satisfy a requirement mask are the AND of the bitsets of its facilities,
+ * which costs O(rooms / 64) per required facility regardless of how the rooms
+ * spelled their facility lists.
+ */
+public final class RoomFacilityIndex {
+
+    private final List<Room> rooms;
+    private final int words;
+    private final long[][] roomsWith;
+    private final long[] roomMasks;
+
+    public RoomFacilityIndex(List<Room> rooms) {
+        this.rooms = rooms;
+        this.words = (rooms.size() + 63) >>> 6;
+        Facility[] facilities = Facility.values();
+        this.roomsWith = new long[facilities.length][words];
+        this.roomMasks = new long[rooms.size()];
+        for (int r = 0; r < rooms.size(); r++) {
+            long mask = Facility.facilitiesOf(rooms.get(r));
+            roomMasks[r] = mask;
+            for (Facility facility : facilities) {
+                if ((mask & facility.bit()) != 0) {
+                    roomsWith[facility.ordinal()][r >>> 6] |= 1L << r;
+                }
+            }
+        }
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Facility mask of the room at an index
+     */
+    public long maskOf(int roomIndex) {
+        return roomMasks[roomIndex];
+    }
+
+    /**
+     * Bitset of rooms (by index) satisfying every facility in the mask
+     */
+    public long[] matching(long requirementMask) {
+        long[] result = new long[words];
+        Arrays.fill(result, -1L);
+        int tail = rooms.size() & 63;
+        if (tail != 0) {
+            result[words - 1] = (1L << tail) - 1;
+        }
+        long remaining = requirementMask;
+        while (remaining != 0) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if (bit >= roomsWith.length) {
+                return new long[words];
+            }
+            long[] with = roomsWith[bit];
+            for (int w = 0; w < words; w++) {
+                result[w] &= with[w];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indices of rooms satisfying every facility in the mask, in catalog order
+     */
+    public int[] matchingIndices(long requirementMask) {
+        long[] bits = matching(requirementMask);
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        int[] indices = new int[count];
+        int k = 0;
+        for (int w = 0; w < words; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                indices[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Rooms satisfying every facility in the mask, in catalog order
+     */
+    public List<Room> matchingRooms(long requirementMask) {
+        int[] indices = matchingIndices(requirementMask);
+        List<Room> matches = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            matches.add(rooms.get(index));
+        }
+        return matches;
+    }
+
+    /**
+     * Highest seat number (1-based) of a room satisfying the seat-level part of a
+     * mask; seats 1..n qualify. Near-exit seats are the front row.
+     */
+    public static int lastEligibleSeat(Room room, long requirementMask) {
+        if ((requirementMask & Facility.NEAR_EXIT.bit()) != 0) {
+            return Math.min(room.getCapacity(), GridSeatPlanner.seatsPerRow(room));
+        }
+        return room.getCapacity();
+    }
+}
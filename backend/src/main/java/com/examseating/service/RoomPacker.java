@@ -0,0 +1,263 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chooses the rooms a cohort is seated in.
+ *
+ * With a single kind of item (a seat per student) packing reduces to choosing
+ * a set of rooms whose capacities cover the cohort. The fewest rooms that can
+ * do it is found by taking the largest rooms first; the packing strategies
+ * then look for the set of that size with the smallest total capacity.
+ *
+ * The exact search branches on how many rooms of each distinct capacity to
+ * take, largest capacity first, and prunes with the smallest and largest
+ * completions of the remaining slots. Catalogs repeat capacities a lot, so the
+ * tree stays small; past {@link #EXACT_NODE_LIMIT} nodes it returns the best
+ * set found so far.
+ */
+final class RoomPacker {
+
+    static final long EXACT_NODE_LIMIT = 2_000_000L;
+
+    private RoomPacker() {
+    }
+
+    /**
+     * Indices of the rooms to use, in the order they should be filled
+     * (ascending capacity, ties in catalog order)
+     *
+     * @param rooms Available rooms
+     * @param demand Number of students to seat; must not exceed total capacity
+     * @param strategy Selection strategy
+     */
+    static int[] select(List<Room> rooms, int demand, RoomSelectionStrategy strategy) {
+        int[] ascending = CompactSeatingEngine.sortRoomsByCapacity(rooms);
+        if (strategy == RoomSelectionStrategy.ASCENDING_CAPACITY || demand <= 0) {
+            return ascending;
+        }
+
+        int[] capacities = new int[ascending.length];
+        for (int i = 0; i < ascending.length; i++) {
+            capacities[i] = rooms.get(ascending[i]).getCapacity();
+        }
+
+        boolean[] chosen = strategy == RoomSelectionStrategy.EXACT
+                ? new ExactSearch(capacities, demand).run()
+                : bestFitDecreasing(capacities, demand);
+
+        int count = 0;
+        for (boolean c : chosen) {
+            if (c) {
+                count++;
+            }
+        }
+        int[] selected = new int[count];
+        int k = 0;
+        for (int i = 0; i < ascending.length; i++) {
+            if (chosen[i]) {
+                selected[k++] = ascending[i];
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Fewest rooms whose capacities can cover the demand
+     */
+    static int minimumRooms(int[] ascendingCapacities, int demand) {
+        long total = 0;
+        int rooms = 0;
+        for (int i = ascendingCapacities.length - 1; i >= 0 && total < demand; i--) {
+            total += ascendingCapacities[i];
+            rooms++;
+        }
+        return rooms;
+    }
+
+    /**
+     * For each of the minimum number of slots, take the smallest room with which
+     * the largest remaining rooms can still cover what is left.
+     */
+    private static boolean[] bestFitDecreasing(int[] capacities, int demand) {
+        int n = capacities.length;
+        boolean[] chosen = new boolean[n];
+        int remaining = demand;
+        for (int slots = minimumRooms(capacities, demand); slots > 0 && remaining > 0; slots--) {
+            // Largest (slots - 1) unused rooms; capacities are ascending, so scan from the top
+            long topRest = 0;
+            int taken = 0;
+            int boundary = n;
+            while (taken < slots - 1 && boundary > 0) {
+                boundary--;
+                if (!chosen[boundary]) {
+                    topRest += capacities[boundary];
+                    taken++;
+                }
+            }
+            int pick = -1;
+            for (int i = 0; i < n && pick < 0; i++) {
+                if (chosen[i]) {
+                    continue;
+                }
+                // A room inside the top set is replaced by the next largest one below it
+                long rest = topRest;
+                if (i >= boundary) {
+                    rest = topRest - capacities[i] + nextUnusedBelow(capacities, chosen, boundary);
+                }
+                if (capacities[i] + rest >= remaining) {
+                    pick = i;
+                }
+            }
+            chosen[pick] = true;
+            remaining -= capacities[pick];
+        }
+        return chosen;
+    }
+
+    private static int nextUnusedBelow(int[] capacities, boolean[] chosen, int boundary) {
+        for (int i = boundary - 1; i >= 0; i--) {
+            if (!chosen[i]) {
+                return capacities[i];
+            }
+        }
+        return 0;
+    }
+
+    private static final class ExactSearch {
+
+        private final int demand;
+        private final int slots;
+        private final int[] groupCapacity;
+        private final int[] groupSize;
+        private final int[] groupStart;
+        private final int[] take;
+        private final int[] bestTake;
+        private final boolean[] heuristic;
+        private long best;
+        private long nodes;
+
+        ExactSearch(int[] ascendingCapacities, int demand) {
+            this.demand = demand;
+            this.slots = minimumRooms(ascendingCapacities, demand);
+
+            // Distinct capacities, largest first
+            int n = ascendingCapacities.length;
+            int[] capacity = new int[n];
+            int[] size = new int[n];
+            int[] start = new int[n];
+            int groups = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                if (groups > 0 && capacity[groups - 1] == ascendingCapacities[i]) {
+                    size[groups - 1]++;
+                    start[groups - 1] = i;
+                } else {
+                    capacity[groups] = ascendingCapacities[i];
+                    size[groups] = 1;
+                    start[groups] = i;
+                    groups++;
+                }
+            }
+            this.groupCapacity = Arrays.copyOf(capacity, groups);
+            this.groupSize = Arrays.copyOf(size, groups);
+            this.groupStart = Arrays.copyOf(start, groups);
+            this.take = new int[groups];
+            this.bestTake = new int[groups];
+
+            // The greedy answer is the bound to beat
+            this.heuristic = bestFitDecreasing(ascendingCapacities, demand);
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                if (heuristic[i]) {
+                    sum += ascendingCapacities[i];
+                }
+            }
+            this.best = sum;
+        }
+
+        boolean[] run() {
+            boolean improved = search(0, slots, 0);
+            if (nodes > EXACT_NODE_LIMIT) {
+                System.out.println("⚠️ Exact room selection stopped after " + EXACT_NODE_LIMIT
+                        + " nodes; using best set found");
+            }
+            if (!improved) {
+                return heuristic;
+            }
+            boolean[] chosen = new boolean[heuristic.length];
+            for (int g = 0; g < groupCapacity.length; g++) {
+                // Equal capacities are interchangeable; use the first in ascending order
+                for (int j = 0; j < bestTake[g]; j++) {
+                    chosen[groupStart[g] + j] = true;
+                }
+            }
+            return chosen;
+        }
+
+        /**
+         * @return Whether a better set than the current best was recorded
+         */
+        private boolean search(int group, int slotsLeft, long sum) {
+            if (++nodes > EXACT_NODE_LIMIT || best == demand) {
+                return false;
+            }
+            if (slotsLeft == 0) {
+                return sum >= demand && sum < best && record(group, 0, sum);
+            }
+            if (group == groupCapacity.length) {
+                return false;
+            }
+
+            long largest = 0;
+            int need = slotsLeft;
+            for (int g = group; g < groupCapacity.length && need > 0; g++) {
+                int k = Math.min(need, groupSize[g]);
+                largest += (long) k * groupCapacity[g];
+                need -= k;
+            }
+            if (need > 0 || sum + largest < demand) {
+                return false;
+            }
+
+            long smallest = 0;
+            need = slotsLeft;
+            for (int g = groupCapacity.length - 1; g >= group && need > 0; g--) {
+                int k = Math.min(need, groupSize[g]);
+                smallest += (long) k * groupCapacity[g];
+                need -= k;
+            }
+            if (sum + smallest >= best) {
+                return false;
+            }
+            if (sum + smallest >= demand) {
+                // The smallest completion already covers the demand, so nothing here beats it
+                return record(group, slotsLeft, sum + smallest);
+            }
+
+            boolean improved = false;
+            for (int k = Math.min(slotsLeft, groupSize[group]); k >= 0; k--) {
+                take[group] = k;
+                improved |= search(group + 1, slotsLeft - k, sum + (long) k * groupCapacity[group]);
+            }
+            take[group] = 0;
+            return improved;
+        }
+
+        /**
+         * Record the current partial choice, completed with the smallest rooms
+         */
+        private boolean record(int group, int slotsLeft, long sum) {
+            System.arraycopy(take, 0, bestTake, 0, group);
+            Arrays.fill(bestTake, group, bestTake.length, 0);
+            for (int g = groupCapacity.length - 1; g >= group && slotsLeft > 0; g--) {
+                bestTake[g] = Math.min(slotsLeft, groupSize[g]);
+                slotsLeft -= bestTake[g];
+            }
+            best = sum;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rooms read from a CSV file, with the rows that were skipped and why
+ */
+public final class RoomRoster {
+
+    private final List<Room> rooms;
+    private final List<String> issues;
+    private final int issueCount;
+
+    RoomRoster(List<Room> rooms, List<String> issues, int issueCount) {
+        this.rooms = Collections.unmodifiableList(rooms);
+        this.issues = Collections.unmodifiableList(issues);
+        this.issueCount = issueCount;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Problems with skipped rows; only the first few are kept
+     */
+    public List<String> getIssues() {
+        return issues;
+    }
+
+    /**
+     * Number of skipped rows
+     */
+    public int getIssueCount() {
+        return issueCount;
+    }
+}
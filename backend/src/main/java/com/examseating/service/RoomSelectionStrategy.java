@@ -0,0 +1,16 @@
+package com.examseating.service;
+
+/**
+ * How rooms are chosen for a cohort before students are seated.
+ *
+ * Every opened room needs an invigilator, so the packing strategies use as
+ * few rooms as possible and, among those, leave the fewest seats empty.
+ */
+public enum RoomSelectionStrategy {
+    /** Fill every room smallest first (the original behaviour) */
+    ASCENDING_CAPACITY,
+    /** Fewest rooms, then greedily the smallest room that still lets the rest fit */
+    BEST_FIT_DECREASING,
+    /** Fewest rooms, then provably fewest empty seats (branch and bound, node budget) */
+    EXACT
+}
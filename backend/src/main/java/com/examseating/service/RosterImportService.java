@@ -0,0 +1,484 @@
+package com.examseating.service;
+
+import com.examseating.model.ImportReport;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+import com.examseating.model.ValidationReport.Issue;
+import com.examseating.model.ValidationReport.Severity;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Imports student and room rosters from .xlsx spreadsheets.
+ *
+ * The first sheet is streamed row by row ({@link XlsxRowReader}); the first
+ * non-empty row names the columns. Each row is mapped to an entity, checked
+ * against the entity's bean validation constraints and for duplicate keys, and
+ * collected into a batch that is persisted in its own transaction once full.
+ * Duplicate keys are caught within a batch as rows arrive, and against rows
+ * already stored (earlier batches included) with one query per key when the
+ * batch is flushed. The persistence context is cleared after every batch, so
+ * memory use depends on the batch size and not on the size of the sheet.
+ *
+ * A sheet must have the columns that identify a row (student ID, name and
+ * exam subject; room number). Other required fields may be left out, as in
+ * the upload templates: a student's roll number defaults to their ID, and
+ * class and section to {@value #UNASSIGNED}.
+ */
+@Service
+public class RosterImportService {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    static final int MAX_REPORTED_ISSUES = 1000;
+
+    static final String UNASSIGNED = "Unassigned";
+
+    private static final DateTimeFormatter DAY_MONTH_YEAR = DateTimeFormatter.ofPattern("d/M/uuuu", Locale.ROOT);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private static final List<Column<Student>> STUDENT_COLUMNS = Arrays.asList(
+            new Column<>(Student::setStudentId, "Student ID", "Student No", "ID").required(),
+            new Column<>(Student::setName, "Student Name", "Name").required(),
+            new Column<>(Student::setRollNumber, "Roll Number", "Roll No", "Roll").orElse(Student::getStudentId),
+            new Column<>(Student::setClassName, "Class", "Class Name").orElse(s -> UNASSIGNED),
+            new Column<>(Student::setSection, "Section").orElse(s -> UNASSIGNED),
+            new Column<>(Student::setExamSubject, "Student Exam", "Exam Subject", "Subject", "Exam").required(),
+            new Column<Student>((s, v) -> s.setExamDate(parseDate(v)), "Date", "Exam Date"),
+            new Column<>(Student::setSession, "Session"),
+            new Column<>(Student::setEmail, "Email"),
+            new Column<>(Student::setPhone, "Phone", "Mobile"),
+            new Column<Student>((s, v) -> s.setSpecialRequirements(parseList(v)), "Special Requirements", "Requirements")
+    );
+
+    private static final List<Column<Room>> ROOM_COLUMNS = Arrays.asList(
+            new Column<>(Room::setRoomId, "Room No", "Room ID", "Room").required(),
+            new Column<>(Room::setName, "Room Name", "Name"),
+            new Column<Room>((r, v) -> r.setCapacity(parseInt(v)), "Room Capacity", "Number of Seats", "Capacity", "Seats"),
+            new Column<Room>(RosterImportService::setLayout, "Room Layout", "Seat Matrix (Rows x Columns)", "Seat Matrix", "Layout"),
+            new Column<Room>((r, v) -> r.setRows(parseInt(v)), "Rows"),
+            new Column<Room>((r, v) -> r.setColumns(parseInt(v)), "Columns"),
+            new Column<>(Room::setBuilding, "Building"),
+            new Column<>(Room::setFloor, "Floor"),
+            new Column<Room>((r, v) -> r.setFacilities(parseList(v)), "Facilities")
+    );
+
+    /**
+     * Import students from the first sheet of a workbook
+     *
+     * @param xlsx Workbook file
+     * @param batchSize Rows persisted per transaction
+     * @return Counts, throughput and rejected rows
+     */
+    public ImportReport importStudents(Path xlsx, int batchSize) throws IOException {
+        return importRows(xlsx, batchSize, "student", Student::new, STUDENT_COLUMNS,
+                Arrays.asList(new Key<>("studentId", Student::getStudentId),
+                        new Key<>("rollNumber", Student::getRollNumber)));
+    }
+
+    /**
+     * Import rooms from the first sheet of a workbook
+     *
+     * @param xlsx Workbook file
+     * @param batchSize Rows persisted per transaction
+     * @return Counts, throughput and rejected rows
+     */
+    public ImportReport importRooms(Path xlsx, int batchSize) throws IOException {
+        try {
+            return importRows(xlsx, batchSize, "room", Room::new, ROOM_COLUMNS,
+                    Arrays.asList(new Key<>("roomId", Room::getRoomId)));
+        } finally {
+            // Batches commit as they fill, so even a failed import may have changed the rooms
+            catalogCache.evictRooms();
+        }
+    }
+
+    private <T> ImportReport importRows(Path xlsx, int batchSize, String entity, Supplier<T> factory,
+                                        List<Column<T>> columns, List<Key<T>> uniqueKeys)
+            throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        long started = System.nanoTime();
+        Import<T> run = new Import<>(batchSize, entity, factory, columns, uniqueKeys);
+        XlsxRowReader.read(xlsx, run::row);
+        run.flush();
+        if (run.mapping == null) {
+            throw new IllegalArgumentException("Spreadsheet has no header row");
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        ImportReport report = new ImportReport(entity + "s", run.rowsRead, run.imported, run.rejected, run.batches,
+                elapsedMillis, run.issueCount, run.issues);
+        System.out.println("📥 Imported " + report.getImported() + " of " + report.getRowsRead() + " " + entity
+                + " rows in " + report.getBatches() + " batches (" + Math.round(report.getRowsPerSecond())
+                + " rows/s)");
+        return report;
+    }
+
+    /**
+     * State of one import, fed row by row
+     */
+    private final class Import<T> {
+        private final int batchSize;
+        private final String entity;
+        private final Supplier<T> factory;
+        private final List<Column<T>> columns;
+        private final List<Key<T>> uniqueKeys;
+        private final List<Set<String>> batchKeys = new ArrayList<>();
+        private final List<Issue> issues = new ArrayList<>();
+        private List<T> batch;
+        private int[] batchRows;
+        private Column<T>[] mapping;
+        private final Set<Column<T>> mapped = new HashSet<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private long issueCount;
+        private int batches;
+
+        Import(int batchSize, String entity, Supplier<T> factory, List<Column<T>> columns,
+               List<Key<T>> uniqueKeys) {
+            this.batchSize = batchSize;
+            this.entity = entity;
+            this.factory = factory;
+            this.columns = columns;
+            this.uniqueKeys = uniqueKeys;
+            this.batch = new ArrayList<>(batchSize);
+            this.batchRows = new int[batchSize];
+            for (int k = 0; k < uniqueKeys.size(); k++) {
+                batchKeys.add(new HashSet<>(batchSize * 2));
+            }
+        }
+
+        void row(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(c -> c == null)) {
+                return;
+            }
+            if (mapping == null) {
+                mapHeader(cells);
+                return;
+            }
+            rowsRead++;
+
+            T item = factory.get();
+            for (int c = 0; c < cells.size() && c < mapping.length; c++) {
+                if (mapping[c] != null && cells.get(c) != null) {
+                    try {
+                        mapping[c].setter.accept(item, cells.get(c));
+                    } catch (IllegalArgumentException | DateTimeParseException e) {
+                        reject(rowNumber, null, "INVALID_VALUE", "Row " + (rowNumber + 1) + ": \""
+                                + cells.get(c) + "\" is not a valid " + mapping[c].name);
+                        return;
+                    }
+                }
+            }
+            for (Column<T> column : columns) {
+                if (column.fallback != null && !hasValue(column, cells)) {
+                    column.setter.accept(item, column.fallback.apply(item));
+                }
+            }
+
+            List<ConstraintViolation<T>> violations = new ArrayList<>(validator.validate(item));
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                reject(rowNumber, uniqueKeys.get(0).of(item), "CONSTRAINT_VIOLATION",
+                        "Row " + (rowNumber + 1) + ": " + message);
+                return;
+            }
+
+            for (int k = 0; k < uniqueKeys.size(); k++) {
+                String key = uniqueKeys.get(k).of(item);
+                if (batchKeys.get(k).contains(key)) {
+                    rejectDuplicate(rowNumber, key);
+                    return;
+                }
+            }
+            for (int k = 0; k < uniqueKeys.size(); k++) {
+                batchKeys.get(k).add(uniqueKeys.get(k).of(item));
+            }
+
+            batchRows[batch.size()] = rowNumber;
+            batch.add(item);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private boolean hasValue(Column<T> column, List<String> cells) {
+            for (int c = 0; c < cells.size() && c < mapping.length; c++) {
+                if (mapping[c] == column && cells.get(c) != null && !cells.get(c).trim().isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mapHeader(List<String> cells) {
+            mapping = new Column[cells.size()];
+            for (int c = 0; c < cells.size(); c++) {
+                String header = cells.get(c) == null ? "" : Column.normalise(cells.get(c));
+                for (Column<T> column : columns) {
+                    if (column.aliases.contains(header)) {
+                        mapping[c] = column;
+                        mapped.add(column);
+                        break;
+                    }
+                }
+            }
+            List<String> missing = columns.stream()
+                    .filter(column -> column.required && !mapped.contains(column))
+                    .map(column -> column.name)
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Spreadsheet has no " + String.join(", ", missing)
+                        + " column");
+            }
+        }
+
+        /**
+         * Persist the pending batch; if it fails, persist its rows one by one to find the bad ones
+         */
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<T> pending = withoutStoredKeys(batch);
+            batch = new ArrayList<>(batchSize);
+            batchKeys.forEach(Set::clear);
+            if (pending.isEmpty()) {
+                return;
+            }
+            batches++;
+            try {
+                persist(pending);
+                imported += pending.size();
+            } catch (RuntimeException batchFailure) {
+                for (int i = 0; i < pending.size(); i++) {
+                    T item = pending.get(i);
+                    try {
+                        persist(Arrays.asList(item));
+                        imported++;
+                    } catch (RuntimeException e) {
+                        Throwable cause = e;
+                        while (cause.getCause() != null) {
+                            cause = cause.getCause();
+                        }
+                        reject(batchRows[i], uniqueKeys.get(0).of(item), "PERSISTENCE_FAILED",
+                                "Row " + (batchRows[i] + 1) + ": " + cause.getMessage());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Reject the batch rows whose keys are already stored, with one query per key;
+         * surviving rows keep their sheet row numbers at the front of batchRows
+         */
+        private List<T> withoutStoredKeys(List<T> items) {
+            Class<?> type = items.get(0).getClass();
+            List<Set<String>> stored = new ArrayList<>();
+            for (int k = 0; k < uniqueKeys.size(); k++) {
+                String attribute = uniqueKeys.get(k).attribute;
+                stored.add(new HashSet<>(entityManager.createQuery("select e." + attribute + " from "
+                                + type.getSimpleName() + " e where e." + attribute + " in :keys", String.class)
+                        .setParameter("keys", batchKeys.get(k))
+                        .getResultList()));
+            }
+
+            List<T> kept = new ArrayList<>(items.size());
+            rows:
+            for (int i = 0; i < items.size(); i++) {
+                T item = items.get(i);
+                for (int k = 0; k < uniqueKeys.size(); k++) {
+                    String key = uniqueKeys.get(k).of(item);
+                    if (stored.get(k).contains(key)) {
+                        rejectDuplicate(batchRows[i], key);
+                        continue rows;
+                    }
+                }
+                batchRows[kept.size()] = batchRows[i];
+                kept.add(item);
+            }
+            return kept;
+        }
+
+        private void rejectDuplicate(int rowNumber, String key) {
+            reject(rowNumber, key, "DUPLICATE_KEY", "Row " + (rowNumber + 1) + ": duplicate " + entity + " key " + key);
+        }
+
+        private void persist(List<T> items) {
+            transactionTemplate.executeWithoutResult(status -> {
+                items.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        private void reject(int rowNumber, String id, String code, String message) {
+            rejected++;
+            issueCount++;
+            if (issues.size() < MAX_REPORTED_ISSUES) {
+                issues.add(new Issue(Severity.ERROR, code, entity, rowNumber, id, message));
+            }
+        }
+    }
+
+    /**
+     * A unique field: the entity attribute queried for stored values and how to read it
+     */
+    private static final class Key<T> {
+        private final String attribute;
+        private final Function<T, String> getter;
+
+        Key(String attribute, Function<T, String> getter) {
+            this.attribute = attribute;
+            this.getter = getter;
+        }
+
+        String of(T item) {
+            return getter.apply(item);
+        }
+    }
+
+    /**
+     * A spreadsheet column: the headers it goes by, how it sets its field, and
+     * whether a sheet may leave it out
+     */
+    private static final class Column<T> {
+        private final BiConsumer<T, String> setter;
+        private final String name;
+        private final List<String> aliases;
+        private boolean required;
+        private Function<T, String> fallback;
+
+        Column(BiConsumer<T, String> setter, String name, String... otherNames) {
+            this.setter = setter;
+            this.name = name;
+            List<String> all = new ArrayList<>();
+            all.add(normalise(name));
+            for (String other : otherNames) {
+                all.add(normalise(other));
+            }
+            this.aliases = all;
+        }
+
+        /**
+         * Reject sheets without this column
+         */
+        Column<T> required() {
+            this.required = true;
+            return this;
+        }
+
+        /**
+         * Value to set, from the rest of the row, when the column is missing or blank
+         */
+        Column<T> orElse(Function<T, String> fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        static String normalise(String header) {
+            StringBuilder sb = new StringBuilder(header.length());
+            for (int i = 0; i < header.length(); i++) {
+                char c = header.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    sb.append(Character.toLowerCase(c));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Whole number from cell text; spreadsheets often store "30" as "30.0"
+     */
+    private static Integer parseInt(String value) {
+        double number = Double.parseDouble(value);
+        if (number != Math.rint(number) || Math.abs(number) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Not a whole number: " + value);
+        }
+        return (int) number;
+    }
+
+    /**
+     * Date from an Excel serial number, an ISO date or day/month/year
+     */
+    private static LocalDate parseDate(String value) {
+        char first = value.charAt(0);
+        if (Character.isDigit(first) && value.indexOf('-') < 0 && value.indexOf('/') < 0) {
+            return DateUtil.getLocalDateTime(Double.parseDouble(value)).toLocalDate();
+        }
+        if (value.indexOf('/') >= 0) {
+            return LocalDate.parse(value, DAY_MONTH_YEAR);
+        }
+        return LocalDate.parse(value);
+    }
+
+    /**
+     * Items of a list cell, separated by semicolons or commas
+     */
+    private static List<String> parseList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split("[;,]")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Rows and columns from a "9x5" layout, unless given in their own columns
+     */
+    private static void setLayout(Room room, String value) {
+        String[] parts = value.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Not a rows x columns layout: " + value);
+        }
+        if (room.getRows() == null) {
+            room.setRows(parseInt(parts[0].trim()));
+        }
+        if (room.getColumns() == null) {
+            room.setColumns(parseInt(parts[1].trim()));
+        }
+    }
+}
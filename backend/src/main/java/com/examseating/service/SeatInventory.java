@@ -0,0 +1,144 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+
+import java.util.List;
+
+/**
+ * Shared seat inventory for a set of rooms.
+ *
+ * Each room has an occupancy bitset and a cursor to its lowest possibly-free
+ * seat. Every allocation pass draws seats from the same inventory, so a seat
+ * can be handed out only once and a room can never be oversubscribed, however
+ * many passes (priority tiers) run over it.
+ */
+public final class SeatInventory {
+
+    private final List<Room> rooms;
+    private final int[] capacity;
+    private final long[][] occupied;
+    private final int[] cursor;
+    private final int[] free;
+
+    public SeatInventory(List<Room> rooms) {
+        this.rooms = rooms;
+        int roomCount = rooms.size();
+        this.capacity = new int[roomCount];
+        this.occupied = new long[roomCount][];
+        this.cursor = new int[roomCount];
+        this.free = new int[roomCount];
+        for (int r = 0; r < roomCount; r++) {
+            capacity[r] = rooms.get(r).getCapacity();
+            occupied[r] = new long[(capacity[r] + 63) >>> 6];
+            free[r] = capacity[r];
+        }
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public int freeSeats(int room) {
+        return free[room];
+    }
+
+    public int totalFreeSeats() {
+        int total = 0;
+        for (int f : free) {
+            total += f;
+        }
+        return total;
+    }
+
+    public boolean isOccupied(int room, int seatNumber) {
+        int seat = seatNumber - 1;
+        return (occupied[room][seat >>> 6] & (1L << seat)) != 0;
+    }
+
+    /**
+     * Take the lowest free seat of a room
+     *
+     * @return Seat number (1-based), or -1 if the room is full
+     */
+    public int allocate(int room) {
+        return allocateBetween(room, 1, capacity[room]);
+    }
+
+    /**
+     * Take the lowest free seat of a room within a seat number range
+     *
+     * @param room Room index
+     * @param firstSeat First acceptable seat number (1-based, inclusive)
+     * @param lastSeat Last acceptable seat number (inclusive)
+     * @return Seat number, or -1 if no seat in the range is free
+     */
+    public int allocateBetween(int room, int firstSeat, int lastSeat) {
+        if (free[room] == 0) {
+            return -1;
+        }
+        int from = Math.max(firstSeat - 1, cursor[room]);
+        int to = Math.min(lastSeat, capacity[room]);
+        int seat = nextFree(occupied[room], from, to);
+        if (seat < 0) {
+            return -1;
+        }
+        occupy(room, seat);
+        return seat + 1;
+    }
+
+    /**
+     * Take a specific seat
+     *
+     * @return Whether the seat was free
+     */
+    public boolean reserve(int room, int seatNumber) {
+        int seat = seatNumber - 1;
+        if (seat < 0 || seat >= capacity[room] || isOccupied(room, seatNumber)) {
+            return false;
+        }
+        occupy(room, seat);
+        return true;
+    }
+
+    /**
+     * Return a seat to the inventory
+     */
+    public void release(int room, int seatNumber) {
+        int seat = seatNumber - 1;
+        if (isOccupied(room, seatNumber)) {
+            occupied[room][seat >>> 6] &= ~(1L << seat);
+            free[room]++;
+            cursor[room] = Math.min(cursor[room], seat);
+        }
+    }
+
+    private void occupy(int room, int seat) {
+        occupied[room][seat >>> 6] |= 1L << seat;
+        free[room]--;
+        if (seat == cursor[room]) {
+            int next = nextFree(occupied[room], seat + 1, capacity[room]);
+            cursor[room] = next < 0 ? capacity[room] : next;
+        }
+    }
+
+    /**
+     * Lowest clear bit in [from, to), or -1
+     */
+    private static int nextFree(long[] bits, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = ~bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int seat = (w << 6) + Long.numberOfTrailingZeros(word);
+                return seat < to ? seat : -1;
+            }
+            if (++w >= bits.length || (w << 6) >= to) {
+                return -1;
+            }
+            word = ~bits[w];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+
+import java.util.List;
+
+/**
+ * Student ID index over a seating plan, for resolving many students at once.
+ *
+ * The index is an {@link IdHashSet} of plan positions, so a lookup is one
+ * hash of the ID, usually one probe and one string comparison. Rows and
+ * columns are derived from the seat number with the room's seats per row,
+ * as for {@link com.examseating.model.SeatingAssignment}s.
+ */
+public final class SeatLookup {
+
+    private final SeatingPlan plan;
+    private final IdHashSet index;
+    private final int[] seatsPerRow;
+
+    private SeatLookup(SeatingPlan plan) {
+        this.plan = plan;
+        int size = plan.size();
+        this.index = new IdHashSet(size, i -> plan.studentAt(i).getStudentId());
+        for (int i = 0; i < size; i++) {
+            index.add(IdHashSet.hash(plan.studentAt(i).getStudentId()), i);
+        }
+        List<Room> rooms = plan.getRooms();
+        this.seatsPerRow = new int[rooms.size()];
+        for (int r = 0; r < seatsPerRow.length; r++) {
+            seatsPerRow[r] = GridSeatPlanner.seatsPerRow(rooms.get(r));
+        }
+    }
+
+    public static SeatLookup of(SeatingPlan plan) {
+        return new SeatLookup(plan);
+    }
+
+    /**
+     * Plan position of a student's seat, or -1 if the student is not seated
+     */
+    public int find(String studentId) {
+        return studentId == null ? -1 : index.find(IdHashSet.hash(studentId), studentId);
+    }
+
+    public Room roomAt(int i) {
+        return plan.roomAt(i);
+    }
+
+    public int seatNumberAt(int i) {
+        return plan.seatNumberAt(i);
+    }
+
+    public int rowAt(int i) {
+        return (plan.seatNumberAt(i) - 1) / seatsPerRow[plan.roomIndexAt(i)] + 1;
+    }
+
+    public int columnAt(int i) {
+        return (plan.seatNumberAt(i) - 1) % seatsPerRow[plan.roomIndexAt(i)] + 1;
+    }
+}
@@ -0,0 +1,542 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Issues and verifies the signed seat tokens printed as hall-ticket QR codes.
+ *
+ * A token carries the student, exam, room, seat and validity window, signed
+ * with HMAC-SHA256 (truncated to 128 bits) under one of a small ring of keys,
+ * and is Base32-encoded so that it fits the compact alphanumeric QR mode.
+ * Verification needs no stored state: it decodes the token into a per-thread
+ * buffer and recomputes the HMAC with precomputed pad blocks, allocating
+ * nothing. Keys come only from {@code seating.token.keys}, so every node given
+ * the same list verifies the same tokens, across restarts. To rotate, append a
+ * new key (the last one signs) and drop an old one once its tokens expired.
+ *
+ * Layout before encoding: version, key id, valid-from (epoch minutes, 4 bytes),
+ * validity (minutes, 2 bytes), seat number (2 bytes), then the student, exam
+ * and room IDs as length-prefixed UTF-8, then the signature.
+ */
+@Service
+public class SeatTokenService {
+
+    public enum Status { VALID, MALFORMED, UNKNOWN_KEY, BAD_SIGNATURE, NOT_YET_VALID, EXPIRED }
+
+    static final int VERSION = 1;
+    static final int SIGNATURE_BYTES = 16;
+    static final int MAX_FIELD_BYTES = 64;
+    static final int MAX_TOKEN_BYTES = 10 + 3 * (1 + MAX_FIELD_BYTES) + SIGNATURE_BYTES;
+    /** Longest token: 221 bytes, 354 characters, a version 11 QR code at level M */
+    static final int MAX_TOKEN_CHARS = (MAX_TOKEN_BYTES * 8 + 4) / 5;
+
+    static final int KEY_BYTES = 32;
+
+    /** Gates open before the exam starts and stay open a little after it ends */
+    static final int GATE_OPENS_MINUTES = 120;
+    static final int GATE_CLOSES_MINUTES = 60;
+    /** Validity when the exam has no date */
+    static final int DEFAULT_VALIDITY_MINUTES = 7 * 24 * 60;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+    private static final int BLOCK = 64;
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Signer> signers = ThreadLocal.withInitial(Signer::new);
+    private final KeyRing keys;
+
+    /**
+     * @param configuredKeys Comma-separated {@code id:base64} keys, oldest first,
+     *                       the last one signing; a random key is generated if empty
+     */
+    public SeatTokenService(@Value("${seating.token.keys:}") String configuredKeys) {
+        KeyRing ring = KeyRing.EMPTY;
+        for (String entry : configuredKeys.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Seat token key must be id:base64, got: " + entry.trim());
+            }
+            ring = ring.with(Integer.parseInt(entry.substring(0, colon).trim()),
+                    Base64.getDecoder().decode(entry.substring(colon + 1).trim()), Integer.MAX_VALUE);
+        }
+        if (ring.active < 0) {
+            ring = ring.with(1, randomKey(), 1);
+            System.out.println("🔑 No seat token keys configured; tokens signed with a random key will not verify after a restart or on other nodes");
+        }
+        this.keys = ring;
+    }
+
+    /**
+     * Sign a seat token
+     *
+     * @return Base32 token, at most {@link #MAX_TOKEN_CHARS} characters
+     */
+    public String issue(String studentId, String examId, String roomId, int seatNumber, Window window) {
+        if (seatNumber < 1 || seatNumber > 0xFFFF) {
+            throw new IllegalArgumentException("Seat number out of range for a seat token: " + seatNumber);
+        }
+        KeyRing ring = keys;
+        Signer signer = signers.get();
+        byte[] buf = signer.buf;
+        buf[0] = VERSION;
+        buf[1] = (byte) ring.active;
+        putInt(buf, 2, (int) window.fromMinute);
+        buf[6] = (byte) (window.minutes >>> 8);
+        buf[7] = (byte) window.minutes;
+        buf[8] = (byte) (seatNumber >>> 8);
+        buf[9] = (byte) seatNumber;
+        int length = 10;
+        length = putField(buf, length, studentId, "Student ID");
+        length = putField(buf, length, examId, "Exam ID");
+        length = putField(buf, length, roomId, "Room ID");
+        signer.sign(ring.inner[ring.active], ring.outer[ring.active], buf, length);
+        System.arraycopy(signer.mac, 0, buf, length, SIGNATURE_BYTES);
+        return encode(buf, length + SIGNATURE_BYTES);
+    }
+
+    /**
+     * Check a token's signature and validity window without allocating
+     *
+     * @param token Scanned token
+     * @param nowMillis Current time
+     */
+    public Status verify(CharSequence token, long nowMillis) {
+        return verify(token, nowMillis, signers.get().scan);
+    }
+
+    /**
+     * Check a token and leave its decoded fields in a reusable holder, so a
+     * scanner can answer with them without parsing the token again
+     *
+     * @param token Scanned token
+     * @param nowMillis Current time
+     * @param scan Holder for the fields, reused across calls on one thread
+     */
+    public Status verify(CharSequence token, long nowMillis, Scan scan) {
+        return scan.status = check(token, nowMillis, scan);
+    }
+
+    private Status check(CharSequence token, long nowMillis, Scan scan) {
+        byte[] buf = scan.buf;
+        int length = decode(token, buf);
+        if (length < 10 + 3 + SIGNATURE_BYTES || buf[0] != VERSION) {
+            return Status.MALFORMED;
+        }
+        int signed = length - SIGNATURE_BYTES;
+        int at = 10;
+        for (int field = 0; field < 3; field++) {
+            if (at >= signed) {
+                return Status.MALFORMED;
+            }
+            scan.fieldAt[field] = at;
+            at += 1 + (buf[at] & 0xFF);
+        }
+        if (at != signed) {
+            return Status.MALFORMED;
+        }
+
+        KeyRing ring = keys;
+        int keyId = buf[1] & 0xFF;
+        if (ring.inner[keyId] == null) {
+            return Status.UNKNOWN_KEY;
+        }
+        Signer signer = signers.get();
+        signer.sign(ring.inner[keyId], ring.outer[keyId], buf, signed);
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_BYTES; i++) {
+            diff |= signer.mac[i] ^ buf[signed + i];
+        }
+        if (diff != 0) {
+            return Status.BAD_SIGNATURE;
+        }
+
+        long nowMinute = nowMillis / 60_000;
+        if (nowMinute < scan.getValidFromMinute()) {
+            return Status.NOT_YET_VALID;
+        }
+        return nowMinute >= scan.getValidUntilMinute() ? Status.EXPIRED : Status.VALID;
+    }
+
+    /**
+     * Fields of a well-formed token; call after {@link #verify} to trust them
+     */
+    public Claims claims(CharSequence token) {
+        byte[] buf = new byte[MAX_TOKEN_BYTES];
+        int length = decode(token, buf);
+        if (length < 10 + 3 + SIGNATURE_BYTES || buf[0] != VERSION) {
+            throw new IllegalArgumentException("Malformed seat token");
+        }
+        String[] fields = new String[3];
+        int at = 10;
+        for (int field = 0; field < 3; field++) {
+            int fieldLength = buf[at] & 0xFF;
+            if (at + 1 + fieldLength > length - SIGNATURE_BYTES) {
+                throw new IllegalArgumentException("Malformed seat token");
+            }
+            fields[field] = new String(buf, at + 1, fieldLength, StandardCharsets.UTF_8);
+            at += 1 + fieldLength;
+        }
+        long from = getInt(buf, 2) & 0xFFFFFFFFL;
+        int minutes = ((buf[6] & 0xFF) << 8) | (buf[7] & 0xFF);
+        int seat = ((buf[8] & 0xFF) << 8) | (buf[9] & 0xFF);
+        return new Claims(fields[0], fields[1], fields[2], seat, buf[1] & 0xFF, new Window(from, minutes));
+    }
+
+    /**
+     * Gate window for an exam: from before the start until after the end on
+     * the exam date. For exams without a date, at least a week from issue,
+     * counted from the start of the issue day (UTC) so that every arrangement
+     * generated that day carries the same tokens.
+     */
+    public Window windowFor(Exam exam, Date issuedAt) {
+        if (exam == null || exam.getExamDate() == null) {
+            long issued = issuedAt != null ? issuedAt.getTime() : System.currentTimeMillis();
+            long day = issued / 60_000 / MINUTES_PER_DAY * MINUTES_PER_DAY;
+            return new Window(day, DEFAULT_VALIDITY_MINUTES + MINUTES_PER_DAY);
+        }
+        LocalDateTime start = exam.getExamDate().atTime(exam.getStartTime() != null ? exam.getStartTime() : LocalTime.MIN);
+        LocalDateTime end;
+        if (exam.getEndTime() != null) {
+            end = exam.getExamDate().atTime(exam.getEndTime());
+        } else if (exam.getDurationMinutes() != null) {
+            end = start.plusMinutes(exam.getDurationMinutes());
+        } else {
+            end = exam.getExamDate().plusDays(1).atStartOfDay();
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        long from = start.atZone(zone).toEpochSecond() / 60 - GATE_OPENS_MINUTES;
+        long until = end.atZone(zone).toEpochSecond() / 60 + GATE_CLOSES_MINUTES;
+        return new Window(from, (int) Math.min(0xFFFF, Math.max(1, until - from)));
+    }
+
+    public int getActiveKeyId() {
+        return keys.active;
+    }
+
+    public List<Integer> getKeyIds() {
+        return new ArrayList<>(keys.ids);
+    }
+
+    private byte[] randomKey() {
+        byte[] key = new byte[KEY_BYTES];
+        random.nextBytes(key);
+        return key;
+    }
+
+    private static int putField(byte[] buf, int at, String value, String name) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException(name + " too long for a seat token: " + value);
+        }
+        buf[at] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, buf, at + 1, bytes.length);
+        return at + 1 + bytes.length;
+    }
+
+    private static String encode(byte[] bytes, int length) {
+        char[] out = new char[(length * 8 + 4) / 5];
+        int n = 0;
+        int bits = 0;
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                out[n++] = ALPHABET[(value >>> (bits - 5)) & 31];
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            out[n++] = ALPHABET[(value << (5 - bits)) & 31];
+        }
+        return new String(out, 0, n);
+    }
+
+    /**
+     * Decode Base32 into a buffer
+     *
+     * @return Number of bytes, or -1 if the text is not a token
+     */
+    private static int decode(CharSequence text, byte[] out) {
+        if (text == null || text.length() > MAX_TOKEN_CHARS) {
+            return -1;
+        }
+        int n = 0;
+        int bits = 0;
+        int value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int digit = c < 128 ? DECODE[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 5) | digit;
+            bits += 5;
+            if (bits >= 8) {
+                out[n++] = (byte) (value >>> (bits - 8));
+                bits -= 8;
+            }
+        }
+        return n;
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Validity window of a token, in whole minutes
+     */
+    public static final class Window {
+        private final long fromMinute;
+        private final int minutes;
+
+        public Window(long fromMinute, int minutes) {
+            if (fromMinute < 0 || fromMinute > 0xFFFFFFFFL || minutes < 1 || minutes > 0xFFFF) {
+                throw new IllegalArgumentException("Seat token window out of range");
+            }
+            this.fromMinute = fromMinute;
+            this.minutes = minutes;
+        }
+
+        public Date getValidFrom() {
+            return new Date(fromMinute * 60_000);
+        }
+
+        public Date getValidUntil() {
+            return new Date((fromMinute + minutes) * 60_000);
+        }
+    }
+
+    /**
+     * Reusable holder for a token checked by {@link #verify(CharSequence, long, Scan)}.
+     * The fields stay in the decoded bytes; they are signed, and so readable,
+     * unless the status is MALFORMED, UNKNOWN_KEY or BAD_SIGNATURE.
+     */
+    public static final class Scan {
+        final byte[] buf = new byte[MAX_TOKEN_BYTES];
+        /** Offset of the length prefix of the student, exam and room IDs */
+        final int[] fieldAt = new int[3];
+        /** Scratch for the ISO-8601 end of the window */
+        final char[] text = new char[20];
+        Status status = Status.MALFORMED;
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean hasClaims() {
+            return status != Status.MALFORMED && status != Status.UNKNOWN_KEY && status != Status.BAD_SIGNATURE;
+        }
+
+        public int getSeatNumber() {
+            return ((buf[8] & 0xFF) << 8) | (buf[9] & 0xFF);
+        }
+
+        public int getKeyId() {
+            return buf[1] & 0xFF;
+        }
+
+        public long getValidFromMinute() {
+            return getInt(buf, 2) & 0xFFFFFFFFL;
+        }
+
+        public long getValidUntilMinute() {
+            return getValidFromMinute() + (((buf[6] & 0xFF) << 8) | (buf[7] & 0xFF));
+        }
+
+        /**
+         * Write the end of the window as Instant.toString() would into
+         * {@link #text}
+         *
+         * @return Number of characters, or -1 past the year 9999
+         */
+        int formatValidUntil() {
+            long minute = getValidUntilMinute();
+            // Civil date from days since the epoch (H. Hinnant's algorithm)
+            long z = minute / MINUTES_PER_DAY + 719_468;
+            long era = z / 146_097;
+            long doe = z - era * 146_097;
+            long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+            long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            long mp = (5 * doy + 2) / 153;
+            int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+            int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+            long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+            if (year > 9999) {
+                return -1;
+            }
+            int minuteOfDay = (int) (minute % MINUTES_PER_DAY);
+            digits((int) year, 4, 0);
+            text[4] = '-';
+            digits(month, 2, 5);
+            text[7] = '-';
+            digits(day, 2, 8);
+            text[10] = 'T';
+            digits(minuteOfDay / 60, 2, 11);
+            text[13] = ':';
+            digits(minuteOfDay % 60, 2, 14);
+            text[16] = ':';
+            text[17] = '0';
+            text[18] = '0';
+            text[19] = 'Z';
+            return 20;
+        }
+
+        private void digits(int value, int width, int at) {
+            for (int i = at + width - 1; i >= at; i--) {
+                text[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+
+    /**
+     * Decoded fields of a seat token
+     */
+    public static final class Claims {
+        private final String studentId;
+        private final String examId;
+        private final String roomId;
+        private final int seatNumber;
+        private final int keyId;
+        private final Window window;
+
+        Claims(String studentId, String examId, String roomId, int seatNumber, int keyId, Window window) {
+            this.studentId = studentId;
+            this.examId = examId;
+            this.roomId = roomId;
+            this.seatNumber = seatNumber;
+            this.keyId = keyId;
+            this.window = window;
+        }
+
+        public String getStudentId() { return studentId; }
+        public String getExamId() { return examId; }
+        public String getRoomId() { return roomId; }
+        public int getSeatNumber() { return seatNumber; }
+        public int getKeyId() { return keyId; }
+        public Window getWindow() { return window; }
+    }
+
+    /**
+     * Immutable set of keys by ID, held as HMAC pad blocks
+     */
+    private static final class KeyRing {
+        static final KeyRing EMPTY = new KeyRing(new byte[256][], new byte[256][], new ArrayList<>(), -1);
+
+        final byte[][] inner;
+        final byte[][] outer;
+        final List<Integer> ids;
+        final int active;
+
+        KeyRing(byte[][] inner, byte[][] outer, List<Integer> ids, int active) {
+            this.inner = inner;
+            this.outer = outer;
+            this.ids = ids;
+            this.active = active;
+        }
+
+        KeyRing with(int id, byte[] key, int maxKeys) {
+            if (id < 0 || id > 255) {
+                throw new IllegalArgumentException("Seat token key id must be 0-255: " + id);
+            }
+            if (key.length < 16 || key.length > BLOCK) {
+                throw new IllegalArgumentException("Seat token key must be 16-64 bytes: key " + id);
+            }
+            byte[][] newInner = inner.clone();
+            byte[][] newOuter = outer.clone();
+            List<Integer> newIds = new ArrayList<>(ids);
+            newIds.remove(Integer.valueOf(id));
+            newIds.add(id);
+            while (newIds.size() > maxKeys) {
+                int retired = newIds.remove(0);
+                newInner[retired] = null;
+                newOuter[retired] = null;
+            }
+            byte[] ipad = new byte[BLOCK];
+            byte[] opad = new byte[BLOCK];
+            for (int i = 0; i < BLOCK; i++) {
+                byte k = i < key.length ? key[i] : 0;
+                ipad[i] = (byte) (k ^ 0x36);
+                opad[i] = (byte) (k ^ 0x5c);
+            }
+            newInner[id] = ipad;
+            newOuter[id] = opad;
+            return new KeyRing(newInner, newOuter, newIds, id);
+        }
+    }
+
+    /**
+     * Per-thread digest and buffers
+     */
+    private static final class Signer {
+        final MessageDigest sha256;
+        final byte[] buf = new byte[MAX_TOKEN_BYTES];
+        final Scan scan = new Scan();
+        final byte[] innerHash = new byte[32];
+        final byte[] mac = new byte[32];
+
+        Signer() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        /**
+         * HMAC-SHA256 (RFC 2104) of buf[0, length) into mac
+         */
+        void sign(byte[] ipad, byte[] opad, byte[] data, int length) {
+            try {
+                sha256.update(ipad);
+                sha256.update(data, 0, length);
+                sha256.digest(innerHash, 0, innerHash.length);
+                sha256.update(opad);
+                sha256.update(innerHash);
+                sha256.digest(mac, 0, mac.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
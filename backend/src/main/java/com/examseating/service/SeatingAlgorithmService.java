@@ -1,8 +1,12 @@
 package com.examseating.service;
 
 import com.examseating.model.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -14,6 +18,32 @@ import java.util.stream.Collectors;
 @Service
 public class SeatingAlgorithmService {
     
+    /** Bump whenever a change alters the placements produced for the same inputs */
+    static final String ALGORITHM_VERSION = "grid-aware/2";
+    
+    private static final int ARRANGEMENT_CACHE_SIZE = 64;
+    
+    private final CompactSeatingEngine compactEngine = new CompactSeatingEngine();
+    
+    private final MultiSessionPlanner sessionPlanner = new MultiSessionPlanner(ForkJoinPool.commonPool());
+    
+    private final SeatingOptimizer optimizer = new SeatingOptimizer();
+    
+    private final SeatingInputValidator inputValidator = new SeatingInputValidator(ForkJoinPool.commonPool());
+    
+    /** Command starting a shard worker, split on spaces; derived from this JVM if empty */
+    @Value("${seating.shard.worker-command:}")
+    private String shardWorkerCommand;
+    
+    private final LruCache<String, SeatingArrangement> arrangementCache = new LruCache<>(ARRANGEMENT_CACHE_SIZE);
+    
+    private final Map<SeatingArrangement, ArrangementIndex> arrangementIndexes =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<SeatingArrangement, SeatingArrangement> workingCopies =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<SeatingArrangement, SeatLookup> seatLookups =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    
     /**
      * Generate seating arrangement using optimized algorithm
      * 
@@ -23,15 +53,61 @@ public class SeatingAlgorithmService {
      * @return Generated seating arrangement
      */
     public SeatingArrangement generateSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms) {
-        // Validate inputs
+        return generateSeatingArrangement(exam, students, rooms, new Random());
+    }
+    
+    /**
+     * Generate seating arrangement with a fixed shuffle seed
+     * 
+     * @param exam The exam for which seating is to be generated
+     * @param students List of students to be seated
+     * @param rooms List of available rooms
+     * @param seed Seed for the per-subject shuffle
+     * @return Generated seating arrangement
+     */
+    public SeatingArrangement generateSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms, long seed) {
+        return generateSeatingArrangement(exam, students, rooms, new Random(seed));
+    }
+    
+    /**
+     * Generate seating arrangement in rooms chosen by a selection strategy
+     * 
+     * The packing strategies open as few rooms as possible (one invigilator each)
+     * and then leave as few seats empty as possible; only the chosen rooms are
+     * filled, smallest first, with the usual anti-cheat ordering.
+     * 
+     * @param exam The exam for which seating is to be generated
+     * @param students List of students to be seated
+     * @param rooms List of available rooms
+     * @param seed Seed for the per-subject shuffle
+     * @param strategy How rooms are chosen
+     * @return Generated seating arrangement
+     */
+    public SeatingArrangement generateSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms,
+                                                         long seed, RoomSelectionStrategy strategy) {
         validateInputs(exam, students, rooms);
         
-        // Calculate total capacity
-        int totalCapacity = rooms.stream().mapToInt(Room::getCapacity).sum();
-        if (students.size() > totalCapacity) {
-            throw new IllegalArgumentException("Not enough room capacity for all students");
+        int[] selected = RoomPacker.select(rooms, students.size(), strategy);
+        List<Room> selectedRooms = new ArrayList<>(selected.length);
+        int selectedCapacity = 0;
+        for (int index : selected) {
+            selectedRooms.add(rooms.get(index));
+            selectedCapacity += rooms.get(index).getCapacity();
         }
+        System.out.println("🏢 Room selection (" + strategy + "): " + selectedRooms.size() + " of " + rooms.size()
+                + " rooms, " + (selectedCapacity - students.size()) + " empty seats");
         
+        // Already validated against the whole catalog, and the selected rooms cover the cohort
+        return arrangeSeats(exam, students, selectedRooms, new Random(seed));
+    }
+    
+    private SeatingArrangement generateSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms, Random random) {
+        // Validate inputs, including total capacity
+        validateInputs(exam, students, rooms);
+        return arrangeSeats(exam, students, rooms, random);
+    }
+    
+    private SeatingArrangement arrangeSeats(Exam exam, List<Student> students, List<Room> rooms, Random random) {
         // Create seating arrangement
         SeatingArrangement arrangement = new SeatingArrangement();
         arrangement.setExamId(exam.getId());
@@ -40,20 +116,381 @@ public class SeatingAlgorithmService {
         arrangement.setTotalRooms(rooms.size());
         
         // Generate assignments using optimized algorithm
-        List<SeatingAssignment> assignments = generateOptimizedAssignments(students, rooms);
+        List<SeatingAssignment> assignments = generateOptimizedAssignments(students, rooms, random);
         arrangement.setAssignments(assignments);
         
         return arrangement;
     }
     
+    /**
+     * Generate seating arrangement using the compact primitive-array engine
+     * 
+     * Produces the same placements as {@link #generateSeatingArrangement(Exam, List, List, long)}
+     * for the same seed, but keeps them in a {@link SeatingPlan} and only creates
+     * {@link SeatingAssignment} entities when the arrangement's assignments are read.
+     * 
+     * @param exam The exam for which seating is to be generated
+     * @param students List of students to be seated
+     * @param rooms List of available rooms
+     * @param seed Seed for the per-subject shuffle
+     * @return Generated seating arrangement backed by a compact plan
+     */
+    public SeatingArrangement generateCompactSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms, long seed) {
+        validateInputs(exam, students, rooms);
+        
+        SeatingPlan plan = compactEngine.plan(students, rooms, new Random(seed), this::createSeatingAssignment);
+        System.out.println("⚡ Compact seating engine: " + plan.size() + " students placed across " + rooms.size() + " rooms");
+        
+        SeatingArrangement arrangement = new SeatingArrangement();
+        arrangement.setExamId(exam.getId());
+        arrangement.setGeneratedAt(new Date());
+        arrangement.setTotalStudents(students.size());
+        arrangement.setTotalRooms(rooms.size());
+        arrangement.setPlan(plan);
+        
+        return arrangement;
+    }
+    
+    /**
+     * Generate seating arrangement with grid-aware anti-cheat placement
+     * 
+     * Students are distributed across rooms exactly as in the compact engine, then
+     * re-seated inside each room on its rows x columns grid so that no front, back,
+     * side or diagonal neighbours share a subject wherever that is possible.
+     * 
+     * @param exam The exam for which seating is to be generated
+     * @param students List of students to be seated
+     * @param rooms List of available rooms
+     * @param seed Seed for the shuffle and the layout repair
+     * @return Generated seating arrangement backed by a compact plan
+     */
+    public SeatingArrangement generateGridAwareSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms, long seed) {
+        SeatingArrangement arrangement = generateCompactSeatingArrangement(exam, students, rooms, seed);
+        arrangement.setPlan(new GridSeatPlanner(seed).arrange(arrangement.getPlan()));
+        return arrangement;
+    }
+    
+    /**
+     * Get the grid-aware seating arrangement for the given inputs, generating it only once
+     * 
+     * Arrangements are cached under a hash of the students, rooms, exam, seed and
+     * algorithm version, so a repeat request with unchanged inputs is served from
+     * memory and any change to the inputs transparently produces a new arrangement.
+     * The returned arrangement is shared and must not be modified; {@link #applyChanges}
+     * makes its changes to a copy kept alongside it.
+     * 
+     * @param exam The exam for which seating is to be generated
+     * @param students List of students to be seated
+     * @param rooms List of available rooms
+     * @param seed Seed for the shuffle and the layout repair
+     * @return Cached or newly generated seating arrangement
+     */
+    public SeatingArrangement getOrGenerateSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms, long seed) {
+        validateInputs(exam, students, rooms);
+        String key = SeatingInputHasher.hash(ALGORITHM_VERSION, seed, exam, students, rooms);
+        return arrangementCache.get(key, k -> generateGridAwareSeatingArrangement(exam, students, rooms, seed));
+    }
+    
+    /**
+     * Version of the placement algorithm; arrangements for equal inputs only
+     * change when it does
+     */
+    public String getAlgorithmVersion() {
+        return ALGORITHM_VERSION;
+    }
+    
+    /**
+     * Student ID index of an arrangement's seats, built on first use and kept
+     * for as long as the arrangement is
+     * 
+     * @param arrangement Arrangement backed by a compact plan
+     * @return Seat lookup for the arrangement
+     */
+    public SeatLookup getSeatLookup(SeatingArrangement arrangement) {
+        if (arrangement.getPlan() == null) {
+            throw new IllegalArgumentException("Seat lookup needs an arrangement backed by a compact plan");
+        }
+        return seatLookups.computeIfAbsent(arrangement, a -> SeatLookup.of(a.getPlan()));
+    }
+    
+    /**
+     * Arrangement cache statistics
+     */
+    public Map<String, Object> getArrangementCacheStats() {
+        return arrangementCache.stats();
+    }
+    
+    /**
+     * Generate seating arrangements for every exam date and session in parallel
+     * 
+     * Students are partitioned by {@link ExamSession} (exam date and session) and
+     * each session is seated with grid-aware placement on a fork/join pool. Rooms
+     * are reused across sessions.
+     * 
+     * @param exam The exam (or exam series) being seated
+     * @param students Registrations across all sessions
+     * @param rooms List of available rooms, shared by every session
+     * @param seed Base seed; each session derives its own from it
+     * @return Seating arrangement per session, ordered by date and session
+     */
+    public SortedMap<ExamSession, SeatingArrangement> generateSessionArrangements(Exam exam, List<Student> students,
+                                                                                 List<Room> rooms, long seed) {
+        // A student may sit several sessions, so duplicates are only checked per session
+        if (exam == null) {
+            throw new IllegalArgumentException("Exam cannot be null");
+        }
+        if (students == null || students.isEmpty()) {
+            throw new IllegalArgumentException("Students list cannot be null or empty");
+        }
+        
+        SortedMap<ExamSession, SeatingArrangement> arrangements = sessionPlanner.plan(students, (session, sessionStudents) ->
+                generateGridAwareSeatingArrangement(exam, sessionStudents, rooms, seed ^ session.hashCode()));
+        
+        System.out.println("🗓️ Seated " + students.size() + " registrations across " + arrangements.size() + " sessions");
+        return arrangements;
+    }
+    
+    /**
+     * Generate seating arrangements for every session across worker JVMs
+     * 
+     * For cohorts too large for one process: each session is split by building and
+     * every (session, building) shard is solved by a separate worker process on this
+     * machine. The merged plans are checked for duplicate seats and unseated students.
+     * 
+     * @param exam The exam (or exam series) being seated
+     * @param students Registrations across all sessions
+     * @param rooms List of available rooms, shared by every session
+     * @param seed Base seed; each shard derives its own from it
+     * @param workers Number of worker processes to start
+     * @return Seating arrangement per session, ordered by date and session
+     */
+    public SortedMap<ExamSession, SeatingArrangement> generateShardedSessionArrangements(Exam exam, List<Student> students,
+                                                                                        List<Room> rooms, long seed,
+                                                                                        int workers) {
+        if (students == null || students.isEmpty()) {
+            throw new IllegalArgumentException("Students list cannot be null or empty");
+        }
+        // A student may sit several sessions, so each session is validated on its own
+        Map<ExamSession, List<Student>> sessions = students.stream()
+                .collect(Collectors.groupingBy(ExamSession::of, TreeMap::new, Collectors.toList()));
+        for (Map.Entry<ExamSession, List<Student>> session : sessions.entrySet()) {
+            ValidationReport report = inputValidator.validate(exam, session.getValue(), rooms);
+            if (!report.isValid()) {
+                throw new IllegalArgumentException("Session " + session.getKey() + ": " + report.summary());
+            }
+        }
+        
+        SortedMap<ExamSession, SeatingPlan> plans;
+        try (ShardedSeatingPlanner planner = new ShardedSeatingPlanner(shardWorkerCommand(), workers)) {
+            plans = planner.plan(students, rooms, seed, this::createSeatingAssignment);
+        } catch (IOException e) {
+            throw new IllegalStateException("Sharded planning failed: " + e.getMessage(), e);
+        }
+        
+        SortedMap<ExamSession, SeatingArrangement> arrangements = new TreeMap<>();
+        plans.forEach((session, plan) -> {
+            SeatingArrangement arrangement = new SeatingArrangement();
+            arrangement.setExamId(exam.getId());
+            arrangement.setGeneratedAt(new Date());
+            arrangement.setTotalStudents(plan.size());
+            arrangement.setTotalRooms(rooms.size());
+            arrangement.setPlan(plan);
+            arrangements.put(session, arrangement);
+        });
+        
+        System.out.println("🌐 Seated " + students.size() + " registrations across " + arrangements.size()
+                + " sessions on " + workers + " worker processes");
+        return arrangements;
+    }
+    
+    private List<String> shardWorkerCommand() {
+        if (shardWorkerCommand == null || shardWorkerCommand.trim().isEmpty()) {
+            return ShardedSeatingPlanner.defaultWorkerCommand();
+        }
+        return Arrays.asList(shardWorkerCommand.trim().split("\\s+"));
+    }
+    
+    /**
+     * Generate seating arrangement and improve it with local search
+     * 
+     * Starts from the grid-aware arrangement and runs simulated annealing over seat
+     * swaps, minimising adjacency violations, rooms in use and uneven utilisation.
+     * Independent restarts run on all available cores and the best arrangement found
+     * within the time budget is returned.
+     * 
+     * @param exam The exam for which seating is to be generated
+     * @param students List of students to be seated
+     * @param rooms List of available rooms
+     * @param seed Seed for the initial arrangement and the search
+     * @param budget Wall-clock time to spend optimizing
+     * @return Optimized seating arrangement backed by a compact plan
+     */
+    public SeatingArrangement generateOptimizedSeatingArrangement(Exam exam, List<Student> students, List<Room> rooms,
+                                                                  long seed, Duration budget) {
+        SeatingArrangement arrangement = generateGridAwareSeatingArrangement(exam, students, rooms, seed);
+        
+        int restarts = Runtime.getRuntime().availableProcessors();
+        SeatingOptimizer.Result result = optimizer.optimize(arrangement.getPlan(), budget, seed, restarts);
+        System.out.println("🎯 Local search: " + result.getMoves() + " moves in " + budget.toMillis() + " ms, "
+                + result.getViolations() + " adjacency violations, " + result.getRoomsUsed() + " rooms used");
+        
+        arrangement.setPlan(result.getPlan());
+        return arrangement;
+    }
+    
+    /**
+     * Apply late registrations and withdrawals to an existing arrangement
+     * 
+     * Withdrawn students free their seats and every other assignment keeps its
+     * room and seat, so hall tickets already printed stay valid.
+     * 
+     * An arrangement backed by a compact plan, such as one returned by
+     * {@link #getOrGenerateSeatingArrangement}, may be shared through the cache
+     * and is never modified: the changes are made to a copy, which is returned.
+     * The copy and its seat index are made on the first change and kept with the
+     * arrangement, so later changes to it build on the earlier ones and only touch
+     * the seats involved. An arrangement returned by an earlier call is the same
+     * copy and is likewise updated in place.
+     * 
+     * Each added student is placed in one candidate room, chosen from per-room
+     * subject counts: the room in use with the fewest students of the same subject,
+     * or an empty room if none has space. Within it the student takes the free seat
+     * with the fewest same-subject neighbours, stopping at the first seat without
+     * one; if every free seat there has such a neighbour, an empty room is opened
+     * instead where there is one.
+     * 
+     * @param arrangement Arrangement to change
+     * @param rooms Rooms the arrangement was generated for
+     * @param added Students to seat
+     * @param removed IDs of students to withdraw; unknown IDs are ignored
+     * @return The changed arrangement, whose last {@code added.size()} assignments
+     *         are those created for the added students
+     */
+    public SeatingArrangement applyChanges(SeatingArrangement arrangement, List<Room> rooms,
+                                           List<Student> added, Collection<String> removed) {
+        if (arrangement == null) {
+            throw new IllegalArgumentException("Arrangement cannot be null");
+        }
+        if (arrangement.getPlan() != null) {
+            arrangement = workingCopies.computeIfAbsent(arrangement, SeatingAlgorithmService::detachedCopy);
+        }
+        
+        synchronized (arrangement) {
+            List<SeatingAssignment> assignments = arrangement.getAssignments();
+            if (assignments == null) {
+                assignments = new ArrayList<>();
+                arrangement.setAssignments(assignments);
+            }
+            
+            ArrangementIndex index = arrangementIndexes.get(arrangement);
+            if (index == null || !index.covers(assignments)) {
+                index = ArrangementIndex.build(assignments, rooms);
+                arrangementIndexes.put(arrangement, index);
+            }
+            
+            int withdrawn = 0;
+            if (removed != null) {
+                for (String studentId : removed) {
+                    if (index.remove(studentId)) {
+                        withdrawn++;
+                    }
+                }
+            }
+            
+            List<SeatingAssignment> created = new ArrayList<>();
+            if (added != null && !added.isEmpty()) {
+                Set<String> addedIds = new HashSet<>();
+                for (Student student : added) {
+                    if (index.isSeated(student.getStudentId()) || !addedIds.add(student.getStudentId())) {
+                        throw new IllegalArgumentException("Duplicate student ID found: " + student.getStudentId());
+                    }
+                }
+                if (added.size() > index.freeSeats()) {
+                    throw new IllegalArgumentException("Not enough room capacity for all students");
+                }
+                
+                for (Student student : added) {
+                    SeatingAssignment assignment = seatLateStudent(index, student);
+                    created.add(assignment);
+                }
+            }
+            
+            arrangement.setTotalStudents(assignments.size());
+            System.out.println("🔁 Applied roster changes: " + created.size() + " added, " + withdrawn + " withdrawn");
+            return arrangement;
+        }
+    }
+    
+    /**
+     * Copy of a plan-backed arrangement with its own assignment list and no plan,
+     * leaving the original (and any seat lookup built for it) untouched
+     */
+    private static SeatingArrangement detachedCopy(SeatingArrangement arrangement) {
+        SeatingArrangement copy = new SeatingArrangement();
+        copy.setExamId(arrangement.getExamId());
+        copy.setGeneratedAt(arrangement.getGeneratedAt());
+        copy.setTotalStudents(arrangement.getTotalStudents());
+        copy.setTotalRooms(arrangement.getTotalRooms());
+        copy.setAssignments(arrangement.getPlan().toAssignments());
+        return copy;
+    }
+    
+    /**
+     * Place one student in the candidate room's free seat with the fewest
+     * same-subject neighbours; only that room's seats are searched
+     */
+    private SeatingAssignment seatLateStudent(ArrangementIndex index, Student student) {
+        String subject = student.getExamSubject();
+        
+        // Rooms already in use first, so a late add does not open a new room
+        ArrangementIndex.RoomSeats candidate = null;
+        ArrangementIndex.RoomSeats empty = null;
+        for (ArrangementIndex.RoomSeats room : index.rooms()) {
+            if (room.free() == 0) {
+                continue;
+            }
+            if (room.occupied == 0) {
+                if (empty == null) {
+                    empty = room;
+                }
+            } else if (candidate == null || room.seated(subject) < candidate.seated(subject)) {
+                candidate = room;
+            }
+        }
+        
+        ArrangementIndex.RoomSeats bestRoom = empty;
+        int bestSeat = empty != null ? empty.freeSeat(0) : -1;
+        if (candidate != null) {
+            int bestClashes = Integer.MAX_VALUE;
+            int candidateSeat = -1;
+            for (int i = 0; i < candidate.free() && bestClashes > 0; i++) {
+                int seat = candidate.freeSeat(i);
+                int clashes = candidate.clashes(seat, subject);
+                if (clashes < bestClashes) {
+                    candidateSeat = seat;
+                    bestClashes = clashes;
+                }
+            }
+            if (bestClashes == 0 || empty == null) {
+                bestRoom = candidate;
+                bestSeat = candidateSeat;
+            }
+        }
+        
+        SeatingAssignment assignment = createSeatingAssignment(student, bestRoom.room, bestSeat + 1);
+        index.add(bestRoom, assignment);
+        return assignment;
+    }
+    
     /**
      * Generate seating assignments using optimized algorithm
      * 
      * @param students List of students
      * @param rooms List of rooms
+     * @param random Source of randomness for the per-subject shuffle
      * @return List of seating assignments
      */
-    private List<SeatingAssignment> generateOptimizedAssignments(List<Student> students, List<Room> rooms) {
+    private List<SeatingAssignment> generateOptimizedAssignments(List<Student> students, List<Room> rooms, Random random) {
         List<SeatingAssignment> assignments = new ArrayList<>();
         
         System.out.println("🚀 BULLETPROOF Backend Seating Algorithm Starting...");
@@ -70,7 +507,7 @@ public class SeatingAlgorithmService {
             System.out.println("   " + exam + ": " + studentList.size() + " students"));
         
         // Create alternating pattern to prevent same-exam adjacency
-        List<Student> antiCheatStudents = createAntiCheatPattern(examGroups);
+        List<Student> antiCheatStudents = createAntiCheatPattern(examGroups, random);
         
         // Sort rooms by capacity (ascending) to fill smaller rooms first
         List<Room> sortedRooms = rooms.stream()
@@ -138,14 +575,14 @@ public class SeatingAlgorithmService {
      * Create anti-cheating pattern by alternating students from different exams.
      * This ensures students with same exam are never adjacent.
      */
-    private List<Student> createAntiCheatPattern(Map<String, List<Student>> examGroups) {
+    private List<Student> createAntiCheatPattern(Map<String, List<Student>> examGroups, Random random) {
         List<Student> antiCheatStudents = new ArrayList<>();
         
         // Convert to lists for easier manipulation
         List<List<Student>> examLists = new ArrayList<>(examGroups.values());
         
         // Shuffle each exam group for randomization
-        examLists.forEach(Collections::shuffle);
+        examLists.forEach(list -> Collections.shuffle(list, random));
         
         System.out.println("🔀 Creating anti-cheat pattern...");
         
@@ -178,10 +615,11 @@ public class SeatingAlgorithmService {
         SeatingAssignment assignment = new SeatingAssignment();
         assignment.setStudentId(student.getStudentId());
         assignment.setRoomId(room.getRoomId());
+        assignment.setExamSubject(student.getExamSubject());
         assignment.setSeatNumber(seatNumber);
         
         // Calculate row and column based on room layout
-        int seatsPerRow = 5; // Default seats per row
+        int seatsPerRow = GridSeatPlanner.seatsPerRow(room);
         int row = ((seatNumber - 1) / seatsPerRow) + 1;
         int column = ((seatNumber - 1) % seatsPerRow) + 1;
         
@@ -204,7 +642,7 @@ public class SeatingAlgorithmService {
      * @return QR code string
      */
     private String generateQRCode(String studentId, String roomId, int seatNumber) {
-        return String.format("QR_%s_%s_%d", studentId, roomId, seatNumber);
+        return SeatingQrExporter.payload(studentId, roomId, seatNumber);
     }
     
     /**
@@ -215,35 +653,28 @@ public class SeatingAlgorithmService {
      * @param rooms List of rooms
      */
     private void validateInputs(Exam exam, List<Student> students, List<Room> rooms) {
-        if (exam == null) {
-            throw new IllegalArgumentException("Exam cannot be null");
-        }
-        
-        if (students == null || students.isEmpty()) {
-            throw new IllegalArgumentException("Students list cannot be null or empty");
-        }
-        
-        if (rooms == null || rooms.isEmpty()) {
-            throw new IllegalArgumentException("Rooms list cannot be null or empty");
-        }
-        
-        // Check for duplicate students
-        Set<String> studentIds = new HashSet<>();
-        for (Student student : students) {
-            if (!studentIds.add(student.getStudentId())) {
-                throw new IllegalArgumentException("Duplicate student ID found: " + student.getStudentId());
-            }
-        }
-        
-        // Check for duplicate rooms
-        Set<String> roomIds = new HashSet<>();
-        for (Room room : rooms) {
-            if (!roomIds.add(room.getRoomId())) {
-                throw new IllegalArgumentException("Duplicate room ID found: " + room.getRoomId());
-            }
+        ValidationReport report = inputValidator.validate(exam, students, rooms);
+        if (!report.isValid()) {
+            throw new IllegalArgumentException(report.summary());
         }
     }
     
+    /**
+     * Validate a seating request without generating anything
+     * 
+     * Unlike the checks made during generation, this does not stop at the first
+     * problem: every missing field, duplicate ID, unusable room and capacity
+     * shortfall is reported, along with warnings about special requirements.
+     * 
+     * @param exam The exam
+     * @param students List of students
+     * @param rooms List of rooms
+     * @return Report of all errors and warnings
+     */
+    public ValidationReport validateSeatingInputs(Exam exam, List<Student> students, List<Room> rooms) {
+        return inputValidator.validate(exam, students, rooms);
+    }
+    
     /**
      * Generate seating arrangement with special requirements consideration
      * 
@@ -253,21 +684,26 @@ public class SeatingAlgorithmService {
      * @return Seating arrangement with special requirements handled
      */
     public SeatingArrangement generateSeatingWithSpecialRequirements(Exam exam, List<Student> students, List<Room> rooms) {
-        // Separate students with and without special requirements
-        List<Student> studentsWithRequirements = students.stream()
-                .filter(s -> s.getSpecialRequirements() != null && !s.getSpecialRequirements().isEmpty())
-                .collect(Collectors.toList());
+        validateInputs(exam, students, rooms);
         
-        List<Student> studentsWithoutRequirements = students.stream()
-                .filter(s -> s.getSpecialRequirements() == null || s.getSpecialRequirements().isEmpty())
-                .collect(Collectors.toList());
+        // Every tier draws from one inventory, so no seat is ever handed out twice
+        SeatInventory inventory = new SeatInventory(rooms);
+        RoomFacilityIndex facilityIndex = new RoomFacilityIndex(rooms);
+        // Subjects already seated in each room, so tier 2 can keep clear of tier 1
+        ArrangementIndex.RoomSeats[] roomSeats = new ArrangementIndex.RoomSeats[rooms.size()];
+        for (int r = 0; r < roomSeats.length; r++) {
+            roomSeats[r] = new ArrangementIndex.RoomSeats(rooms.get(r));
+        }
         
-        // Filter rooms that can accommodate special requirements
-        List<Room> accessibleRooms = rooms.stream()
-                .filter(room -> room.getFacilities().contains("Wheelchair Access"))
+        // Group students by the requirements the facility vocabulary recognises
+        Map<Long, List<Student>> requirementGroups = students.stream()
+                .filter(s -> Facility.requirementsOf(s) != 0)
+                .collect(Collectors.groupingBy(Facility::requirementsOf));
+        
+        List<Student> studentsWithoutRequirements = students.stream()
+                .filter(s -> Facility.requirementsOf(s) == 0)
                 .collect(Collectors.toList());
         
-        // Generate seating for students with special requirements first
         SeatingArrangement arrangement = new SeatingArrangement();
         arrangement.setExamId(exam.getId());
         arrangement.setGeneratedAt(new Date());
@@ -275,29 +711,126 @@ public class SeatingAlgorithmService {
         arrangement.setTotalRooms(rooms.size());
         
         List<SeatingAssignment> assignments = new ArrayList<>();
-        
-        // Assign students with special requirements to accessible rooms
-        if (!studentsWithRequirements.isEmpty() && !accessibleRooms.isEmpty()) {
-            List<SeatingAssignment> specialAssignments = generateOptimizedAssignments(studentsWithRequirements, accessibleRooms);
-            assignments.addAll(specialAssignments);
-        }
-        
-        // Assign remaining students to all available rooms
         List<Student> remainingStudents = new ArrayList<>(studentsWithoutRequirements);
-        if (assignments.size() < studentsWithRequirements.size()) {
-            // Some students with requirements couldn't be accommodated
-            remainingStudents.addAll(studentsWithRequirements.subList(assignments.size(), studentsWithRequirements.size()));
+        
+        // Rooms given to a single SEPARATE_ROOM student; nobody else is seated in them
+        boolean[] privateRoom = new boolean[rooms.size()];
+        
+        // Tier 1: special requirements, most restrictive groups first; a separate room
+        // takes a whole empty room, so those groups go before all others
+        List<Long> masks = new ArrayList<>(requirementGroups.keySet());
+        masks.sort(Comparator.<Long>comparingInt(mask -> (mask & Facility.SEPARATE_ROOM.bit()) != 0 ? 0 : 1)
+                .thenComparingInt(mask -> facilityIndex.matchingIndices(mask).length));
+        for (Long mask : masks) {
+            List<Student> group = requirementGroups.get(mask);
+            int[] matchingRooms = facilityIndex.matchingIndices(mask);
+            if (matchingRooms.length == 0) {
+                System.out.println("⚠️ No room satisfies requirements " + describeRequirements(mask)
+                        + " for " + group.size() + " students");
+            }
+            
+            boolean separate = (mask & Facility.SEPARATE_ROOM.bit()) != 0;
+            int roomCursor = 0;
+            int unplaced = 0;
+            for (Student student : group) {
+                int seatNumber = -1;
+                while (roomCursor < matchingRooms.length) {
+                    int roomIndex = matchingRooms[roomCursor];
+                    Room room = rooms.get(roomIndex);
+                    if (privateRoom[roomIndex] || (separate && inventory.freeSeats(roomIndex) < room.getCapacity())) {
+                        roomCursor++;
+                        continue;
+                    }
+                    seatNumber = inventory.allocateBetween(roomIndex, 1, RoomFacilityIndex.lastEligibleSeat(room, mask));
+                    if (seatNumber > 0) {
+                        SeatingAssignment assignment = createSeatingAssignment(student, room, seatNumber);
+                        roomSeats[roomIndex].place(seatNumber - 1, assignment);
+                        assignments.add(assignment);
+                        if (separate) {
+                            privateRoom[roomIndex] = true;
+                            roomCursor++;
+                        }
+                        break;
+                    }
+                    roomCursor++;
+                }
+                if (seatNumber < 0) {
+                    // Couldn't be accommodated in a matching room; seat with everyone else
+                    remainingStudents.add(student);
+                    unplaced++;
+                }
+            }
+            if (separate && unplaced > 0 && matchingRooms.length > 0) {
+                System.out.println("⚠️ No empty room left for " + unplaced + " students needing "
+                        + describeRequirements(mask));
+            }
         }
         
+        // Tier 2: everyone else, smaller rooms first, around the seats already taken. Each
+        // free seat gets the subject with most students left that none of its occupied
+        // neighbours, tier-1 students included, is sitting; failing that the least clashing.
         if (!remainingStudents.isEmpty()) {
-            List<SeatingAssignment> regularAssignments = generateOptimizedAssignments(remainingStudents, rooms);
-            assignments.addAll(regularAssignments);
+            Map<String, List<Student>> examGroups = remainingStudents.stream()
+                    .collect(Collectors.groupingBy(Student::getExamSubject));
+            List<Student> antiCheatStudents = createAntiCheatPattern(examGroups, new Random());
+            Map<String, Deque<Student>> pending = new LinkedHashMap<>();
+            for (Student student : antiCheatStudents) {
+                pending.computeIfAbsent(student.getExamSubject(), subject -> new ArrayDeque<>()).add(student);
+            }
+            
+            int left = antiCheatStudents.size();
+            for (int roomIndex : CompactSeatingEngine.sortRoomsByCapacity(rooms)) {
+                if (privateRoom[roomIndex]) {
+                    continue;
+                }
+                ArrangementIndex.RoomSeats seats = roomSeats[roomIndex];
+                int seatNumber;
+                while (left > 0 && (seatNumber = inventory.allocate(roomIndex)) > 0) {
+                    Student student = leastClashing(pending, seats, seatNumber - 1).poll();
+                    SeatingAssignment assignment = createSeatingAssignment(student, seats.room, seatNumber);
+                    seats.place(seatNumber - 1, assignment);
+                    assignments.add(assignment);
+                    left--;
+                }
+            }
         }
         
         arrangement.setAssignments(assignments);
         return arrangement;
     }
     
+    /**
+     * Queue of the subject to put in a seat: no clashes with its neighbours and
+     * most students left, or else the fewest clashes
+     */
+    private static Deque<Student> leastClashing(Map<String, Deque<Student>> pending,
+            ArrangementIndex.RoomSeats seats, int seat) {
+        Deque<Student> best = null;
+        int bestClashes = Integer.MAX_VALUE;
+        for (Map.Entry<String, Deque<Student>> entry : pending.entrySet()) {
+            Deque<Student> queue = entry.getValue();
+            if (queue.isEmpty()) {
+                continue;
+            }
+            int clashes = seats.clashes(seat, entry.getKey());
+            if (clashes < bestClashes || (clashes == bestClashes && queue.size() > best.size())) {
+                best = queue;
+                bestClashes = clashes;
+            }
+        }
+        return best;
+    }
+    
+    private static String describeRequirements(long mask) {
+        List<String> names = new ArrayList<>();
+        for (Facility facility : Facility.values()) {
+            if ((mask & facility.bit()) != 0) {
+                names.add(facility.name());
+            }
+        }
+        return names.toString();
+    }
+    
     /**
      * Calculate seating statistics
      * 
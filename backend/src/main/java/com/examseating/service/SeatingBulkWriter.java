@@ -0,0 +1,191 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists a seating arrangement and its seats with batched JDBC inserts.
+ *
+ * Seats are written straight from the compact plan, so no
+ * {@link SeatingAssignment} entities are created and nothing goes through the
+ * persistence context. IDs come from the same pooled sequences the entities
+ * use, one sequence call per {@link SeatingAssignment#ID_ALLOCATION_SIZE}
+ * seats. Seats go in as batched multi-row inserts, and each chunk of seats is
+ * committed in its own transaction, so a large arrangement never holds one
+ * long transaction open; if a chunk fails, the rows already written for the
+ * arrangement are removed.
+ */
+@Service
+public class SeatingBulkWriter {
+
+    /** Rows per multi-row insert: H2 runs a JDBC batch one statement (and, over TCP, one round trip) at a time */
+    static final int ROWS_PER_INSERT = 250;
+    static final int STATEMENTS_PER_BATCH = 4;
+    static final int CHUNK_SIZE = 20_000;
+    private static final int COLUMNS = 11;
+
+    private static final String INSERT_ARRANGEMENT = "insert into seating_arrangements "
+            + "(id, exam_id, total_students, total_rooms, generated_at, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ASSIGNMENTS = "insert into seating_assignments "
+            + "(id, arrangement_id, student_id, room_id, exam_subject, seat_number, seat_row, seat_column, qr_code, "
+            + "created_at, updated_at) values ";
+    private static final String ASSIGNMENT_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Insert an arrangement and all of its seats
+     *
+     * @return Arrangement ID, rows written, elapsed milliseconds and rows per second
+     */
+    public Map<String, Object> write(SeatingArrangement arrangement) {
+        long start = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        H2SequenceMaxValueIncrementer seatIds = new H2SequenceMaxValueIncrementer(dataSource, "seating_assignment_seq");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        SeatingPlan plan = arrangement.getPlan();
+        List<SeatingAssignment> assignments = plan == null ? arrangement.getAssignments() : null;
+        int size = plan != null ? plan.size() : assignments == null ? 0 : assignments.size();
+
+        long arrangementId = new H2SequenceMaxValueIncrementer(dataSource, "seating_arrangement_seq").nextLongValue();
+        transaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_ARRANGEMENT, arrangementId,
+                arrangement.getExamId(), arrangement.getTotalStudents(), arrangement.getTotalRooms(),
+                arrangement.getGeneratedAt(), now, now));
+
+        int[] seatsPerRow = plan != null ? seatsPerRow(plan.getRooms()) : null;
+        try {
+            for (int from = 0; from < size; from += CHUNK_SIZE) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(size, from + CHUNK_SIZE);
+                transaction.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    int tail = (chunkTo - chunkFrom) % ROWS_PER_INSERT;
+                    try (PreparedStatement full = connection.prepareStatement(insertAssignments(ROWS_PER_INSERT));
+                         PreparedStatement last = tail == 0 ? null : connection.prepareStatement(insertAssignments(tail))) {
+                        long nextId = 0;
+                        long lastId = -1;
+                        int statements = 0;
+                        for (int i = chunkFrom; i < chunkTo; ) {
+                            int rows = Math.min(ROWS_PER_INSERT, chunkTo - i);
+                            PreparedStatement insert = rows == ROWS_PER_INSERT ? full : last;
+                            for (int k = 0; k < rows; k++, i++) {
+                                if (nextId > lastId) {
+                                    // pooled-lo: each sequence value starts a block of ID_ALLOCATION_SIZE ids
+                                    nextId = seatIds.nextLongValue();
+                                    lastId = nextId + SeatingAssignment.ID_ALLOCATION_SIZE - 1;
+                                }
+                                int base = k * COLUMNS;
+                                insert.setLong(base + 1, nextId++);
+                                insert.setLong(base + 2, arrangementId);
+                                if (plan != null) {
+                                    bindPlacement(insert, base, plan, i, seatsPerRow);
+                                } else {
+                                    bindAssignment(insert, base, assignments.get(i));
+                                }
+                                insert.setTimestamp(base + 10, now);
+                                insert.setTimestamp(base + 11, now);
+                            }
+                            if (insert == last) {
+                                last.executeUpdate();
+                            } else {
+                                full.addBatch();
+                                if (++statements % STATEMENTS_PER_BATCH == 0) {
+                                    full.executeBatch();
+                                }
+                            }
+                        }
+                        full.executeBatch();
+                    }
+                    return null;
+                }));
+            }
+        } catch (RuntimeException e) {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.update("delete from seating_assignments where arrangement_id = ?", arrangementId);
+                jdbcTemplate.update("delete from seating_arrangements where id = ?", arrangementId);
+            });
+            throw e;
+        }
+
+        long nanos = System.nanoTime() - start;
+        long rowsPerSecond = nanos == 0 ? 0 : (long) ((size + 1) * 1e9 / nanos);
+        System.out.println("💾 Persisted arrangement " + arrangementId + " with " + size + " seats in "
+                + nanos / 1_000_000 + " ms (" + rowsPerSecond + " rows/s)");
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("arrangementId", arrangementId);
+        report.put("rows", size);
+        report.put("millis", nanos / 1_000_000);
+        report.put("rowsPerSecond", rowsPerSecond);
+        return report;
+    }
+
+    private static String insertAssignments(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_ASSIGNMENTS.length() + rows * (ASSIGNMENT_VALUES.length() + 2));
+        sql.append(INSERT_ASSIGNMENTS);
+        for (int k = 0; k < rows; k++) {
+            sql.append(k == 0 ? "" : ", ").append(ASSIGNMENT_VALUES);
+        }
+        return sql.toString();
+    }
+
+    private static void bindPlacement(PreparedStatement insert, int base, SeatingPlan plan, int i, int[] seatsPerRow)
+            throws SQLException {
+        Student student = plan.studentAt(i);
+        Room room = plan.roomAt(i);
+        int seat = plan.seatNumberAt(i);
+        int perRow = seatsPerRow[plan.roomIndexAt(i)];
+        insert.setString(base + 3, student.getStudentId());
+        insert.setString(base + 4, room.getRoomId());
+        insert.setString(base + 5, student.getExamSubject());
+        insert.setInt(base + 6, seat);
+        insert.setInt(base + 7, (seat - 1) / perRow + 1);
+        insert.setInt(base + 8, (seat - 1) % perRow + 1);
+        insert.setString(base + 9, SeatingQrExporter.payload(student.getStudentId(), room.getRoomId(), seat));
+    }
+
+    private static void bindAssignment(PreparedStatement insert, int base, SeatingAssignment assignment)
+            throws SQLException {
+        insert.setString(base + 3, assignment.getStudentId());
+        insert.setString(base + 4, assignment.getRoomId());
+        insert.setString(base + 5, assignment.getExamSubject());
+        insert.setObject(base + 6, assignment.getSeatNumber());
+        insert.setObject(base + 7, assignment.getRow());
+        insert.setObject(base + 8, assignment.getColumn());
+        insert.setString(base + 9, assignment.getQrCode());
+    }
+
+    private static int[] seatsPerRow(List<Room> rooms) {
+        int[] seatsPerRow = new int[rooms.size()];
+        for (int r = 0; r < seatsPerRow.length; r++) {
+            seatsPerRow[r] = GridSeatPlanner.seatsPerRow(rooms.get(r));
+        }
+        return seatsPerRow;
+    }
+}
@@ -0,0 +1,183 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Writes a seating plan as CSV in the seating_arrangement.csv layout.
+ *
+ * Rows are encoded straight from the compact plan into a reusable direct
+ * buffer that is flushed to the channel whenever it fills, so no
+ * {@link com.examseating.model.SeatingAssignment} entities or per-row strings
+ * are created and memory use does not grow with the size of the cohort.
+ */
+@Service
+public class SeatingCsvExporter {
+
+    static final String HEADER =
+            "Student ID,Student Name,Student Exam,Date,Room No,Room Name,Seat No,Row,Column,Room Capacity,Room Layout\n";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Export a plan to a file, replacing any existing content
+     *
+     * @return Number of rows written
+     */
+    public long export(SeatingPlan plan, Exam exam, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(plan, exam, channel);
+        }
+    }
+
+    /**
+     * Export a plan to any channel, for example an HTTP response body
+     *
+     * @return Number of rows written
+     */
+    public long export(SeatingPlan plan, Exam exam, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        writeBytes(buffer, channel, HEADER.getBytes(StandardCharsets.US_ASCII));
+
+        // Room columns are the same on every row of a room, so encode them once
+        int roomCount = plan.getRooms().size();
+        byte[][] roomPrefix = new byte[roomCount][];
+        byte[][] roomSuffix = new byte[roomCount][];
+        int[] seatsPerRow = new int[roomCount];
+        for (int r = 0; r < roomCount; r++) {
+            Room room = plan.getRooms().get(r);
+            roomPrefix[r] = (quote(room.getRoomId()) + "," + quote(room.getName()) + ",")
+                    .getBytes(StandardCharsets.UTF_8);
+            seatsPerRow[r] = GridSeatPlanner.seatsPerRow(room);
+            String capacity = room.getCapacity() != null ? room.getCapacity().toString() : "";
+            roomSuffix[r] = ("," + capacity + "," + quote(layout(room, seatsPerRow[r])) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        String examDate = exam != null && exam.getExamDate() != null ? exam.getExamDate().toString() : "";
+        LocalDate lastDate = null;
+        String lastDateText = examDate;
+
+        int size = plan.size();
+        for (int i = 0; i < size; i++) {
+            Student student = plan.studentAt(i);
+            int r = plan.roomIndexAt(i);
+            int seat = plan.seatNumberAt(i);
+            LocalDate date = student.getExamDate();
+            if (date != null && !date.equals(lastDate)) {
+                lastDate = date;
+                lastDateText = date.toString();
+            }
+
+            writeQuoted(buffer, channel, student.getStudentId());
+            writeByte(buffer, channel, ',');
+            writeQuoted(buffer, channel, student.getName());
+            writeByte(buffer, channel, ',');
+            writeQuoted(buffer, channel, student.getExamSubject());
+            writeByte(buffer, channel, ',');
+            writeQuoted(buffer, channel, date != null ? lastDateText : examDate);
+            writeByte(buffer, channel, ',');
+            writeBytes(buffer, channel, roomPrefix[r]);
+            writeInt(buffer, channel, seat);
+            writeByte(buffer, channel, ',');
+            writeInt(buffer, channel, (seat - 1) / seatsPerRow[r] + 1);
+            writeByte(buffer, channel, ',');
+            writeInt(buffer, channel, (seat - 1) % seatsPerRow[r] + 1);
+            writeBytes(buffer, channel, roomSuffix[r]);
+        }
+        flush(buffer, channel);
+        return size;
+    }
+
+    /**
+     * Rows x columns of a room, with missing dimensions derived the way the grid
+     * planner lays the room out; empty if neither rows nor capacity is known
+     */
+    static String layout(Room room, int seatsPerRow) {
+        Integer rows = room.getRows();
+        if (rows == null || rows <= 0) {
+            if (room.getCapacity() == null) {
+                return "";
+            }
+            rows = (room.getCapacity() + seatsPerRow - 1) / seatsPerRow;
+        }
+        return rows + "x" + seatsPerRow;
+    }
+
+    private static String quote(String value) {
+        return "\"" + (value == null ? "" : value.replace("\"", "\"\"")) + "\"";
+    }
+
+    private static void writeQuoted(ByteBuffer buffer, WritableByteChannel channel, String value) throws IOException {
+        writeByte(buffer, channel, '"');
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    // Rare non-ASCII value: fall back to the charset encoder for the rest
+                    writeBytes(buffer, channel, value.substring(i).replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+                    break;
+                }
+                if (c == '"') {
+                    writeByte(buffer, channel, '"');
+                }
+                writeByte(buffer, channel, c);
+            }
+        }
+        writeByte(buffer, channel, '"');
+    }
+
+    private static void writeInt(ByteBuffer buffer, WritableByteChannel channel, int value) throws IOException {
+        if (value < 0) {
+            writeByte(buffer, channel, '-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            writeByte(buffer, channel, '0' + (value / divisor) % 10);
+        }
+    }
+
+    private static void writeByte(ByteBuffer buffer, WritableByteChannel channel, int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush(buffer, channel);
+        }
+        buffer.put((byte) b);
+    }
+
+    private static void writeBytes(ByteBuffer buffer, WritableByteChannel channel, byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush(buffer, channel);
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,108 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Stable content hash of everything a generated arrangement depends on.
+ *
+ * Every field that influences seating is fed into SHA-256 in a fixed,
+ * length-prefixed encoding, so equal inputs give equal keys across restarts
+ * and any change to a student, room, the exam, the seed or the algorithm
+ * version gives a different key.
+ */
+final class SeatingInputHasher {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final MessageDigest digest;
+
+    private SeatingInputHasher() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Hex-encoded hash of a seating request
+     */
+    static String hash(String algorithm, long seed, Exam exam, List<Student> students, List<Room> rooms) {
+        SeatingInputHasher hasher = new SeatingInputHasher();
+        hasher.put(algorithm);
+        hasher.put(seed);
+
+        hasher.put(exam.getId());
+        hasher.put(exam.getExamId());
+        hasher.put(exam.getSubject());
+        hasher.put(exam.getExamDate());
+        hasher.put(exam.getStartTime());
+
+        hasher.put(students.size());
+        for (Student student : students) {
+            hasher.put(student.getStudentId());
+            hasher.put(student.getName());
+            hasher.put(student.getExamSubject());
+            hasher.put(student.getExamDate());
+            hasher.put(student.getSession());
+            hasher.put(student.getSpecialRequirements());
+        }
+
+        hasher.put(rooms.size());
+        for (Room room : rooms) {
+            hasher.put(room.getRoomId());
+            hasher.put(room.getName());
+            hasher.put(room.getCapacity());
+            hasher.put(room.getRows());
+            hasher.put(room.getColumns());
+            hasher.put(room.getBuilding());
+            hasher.put(room.getFloor());
+            hasher.put(room.getFacilities());
+        }
+        return hasher.hex();
+    }
+
+    private void put(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (value >>> shift));
+        }
+    }
+
+    private void put(Object value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update((byte) 1);
+        if (value instanceof Number) {
+            put(((Number) value).longValue());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            put(list.size());
+            for (Object item : list) {
+                put(item);
+            }
+        } else {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            put(bytes.length);
+            digest.update(bytes);
+        }
+    }
+
+    private String hex() {
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,274 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Facility;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+import com.examseating.model.ValidationReport;
+import com.examseating.model.ValidationReport.Issue;
+import com.examseating.model.ValidationReport.Severity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+/**
+ * Validates a seating request in one pass and reports every problem.
+ *
+ * Each student and room is visited once: field checks run and the id is
+ * hashed into a primitive array. Duplicates are then found with
+ * {@link IdHashSet}s over those hashes. Large inputs are checked in parallel
+ * chunks, and the duplicate search is split by hash range, one set per range.
+ */
+public final class SeatingInputValidator {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private static final long KNOWN_FACILITIES = (1L << Facility.values().length) - 1;
+
+    private final ForkJoinPool pool;
+
+    public SeatingInputValidator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Check an exam, its students and its rooms
+     *
+     * @return Report of all errors and warnings, ordered by entity and row
+     */
+    public ValidationReport validate(Exam exam, List<Student> students, List<Room> rooms) {
+        List<Issue> issues = new ArrayList<>();
+        int studentCount = students == null ? 0 : students.size();
+        int roomCount = rooms == null ? 0 : rooms.size();
+
+        if (exam == null) {
+            issues.add(error("EXAM_MISSING", "exam", -1, null, "Exam cannot be null"));
+        }
+        if (studentCount == 0) {
+            issues.add(error("NO_STUDENTS", "student", -1, null, "Students list cannot be null or empty"));
+        }
+        if (roomCount == 0) {
+            issues.add(error("NO_ROOMS", "room", -1, null, "Rooms list cannot be null or empty"));
+        }
+
+        // Rooms first: the student checks need the facility masks they offer
+        long[] roomHashes = new long[roomCount];
+        List<Issue> roomIssues = new ArrayList<>();
+        long totalCapacity = 0;
+        long[] offered = new long[0];
+        for (int r = 0; r < roomCount; r++) {
+            Room room = rooms.get(r);
+            totalCapacity += checkRoom(room, r, roomHashes, roomIssues);
+            if (room != null) {
+                offered = addMask(offered, Facility.facilitiesOf(room));
+            }
+        }
+        roomIssues.addAll(duplicates(roomHashes, r -> rooms.get(r).getRoomId(), "room", "DUPLICATE_ROOM_ID",
+                "Duplicate room ID found: "));
+        roomIssues.sort(Comparator.comparingInt(Issue::getIndex));
+
+        long[] studentHashes = new long[studentCount];
+        List<Issue> studentIssues = checkStudents(students, offered, studentHashes);
+        studentIssues.addAll(duplicates(studentHashes, i -> students.get(i).getStudentId(), "student",
+                "DUPLICATE_STUDENT_ID", "Duplicate student ID found: "));
+        studentIssues.sort(Comparator.comparingInt(Issue::getIndex));
+
+        issues.addAll(studentIssues);
+        issues.addAll(roomIssues);
+        if (roomCount > 0 && studentCount > totalCapacity) {
+            issues.add(error("CAPACITY_EXCEEDED", "room", -1, null, "Not enough room capacity for all students ("
+                    + studentCount + " students, " + totalCapacity + " seats)"));
+        }
+        return new ValidationReport(issues, studentCount, roomCount);
+    }
+
+    /**
+     * @return Usable seats of the room
+     */
+    private static int checkRoom(Room room, int r, long[] hashes, List<Issue> issues) {
+        if (room == null) {
+            issues.add(error("ROOM_MISSING", "room", r, null, "Room at row " + r + " is null"));
+            return 0;
+        }
+        String id = room.getRoomId();
+        if (isBlank(id)) {
+            issues.add(error("ROOM_ID_MISSING", "room", r, id, "Room at row " + r + " has no room ID"));
+        } else {
+            hashes[r] = IdHashSet.hash(id);
+        }
+        Integer capacity = room.getCapacity();
+        if (capacity == null || capacity < 1 || capacity > Short.MAX_VALUE) {
+            issues.add(error("ROOM_CAPACITY_INVALID", "room", r, id, "Room " + id + " has invalid capacity "
+                    + capacity + " (must be 1 to " + Short.MAX_VALUE + ")"));
+            return 0;
+        }
+        Integer columns = room.getColumns();
+        if (columns != null && columns < 1) {
+            issues.add(warning("ROOM_LAYOUT_INVALID", "room", r, id, "Room " + id + " has " + columns
+                    + " columns; the default of " + GridSeatPlanner.DEFAULT_SEATS_PER_ROW + " seats per row is used"));
+        }
+        return capacity;
+    }
+
+    private List<Issue> checkStudents(List<Student> students, long[] offered, long[] hashes) {
+        int n = hashes.length;
+        if (n < PARALLEL_THRESHOLD) {
+            return checkStudents(students, offered, hashes, 0, n);
+        }
+        List<ForkJoinTask<List<Issue>>> chunks = new ArrayList<>();
+        for (int from = 0; from < n; from += CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(n, from + CHUNK_SIZE);
+            chunks.add(pool.submit(() -> checkStudents(students, offered, hashes, start, end)));
+        }
+        List<Issue> issues = new ArrayList<>();
+        for (ForkJoinTask<List<Issue>> chunk : chunks) {
+            issues.addAll(chunk.join());
+        }
+        return issues;
+    }
+
+    private static List<Issue> checkStudents(List<Student> students, long[] offered, long[] hashes, int from, int to) {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Student student = students.get(i);
+            if (student == null) {
+                issues.add(error("STUDENT_MISSING", "student", i, null, "Student at row " + i + " is null"));
+                continue;
+            }
+            String id = student.getStudentId();
+            if (isBlank(id)) {
+                issues.add(error("STUDENT_ID_MISSING", "student", i, id, "Student at row " + i + " has no student ID"));
+            } else {
+                hashes[i] = IdHashSet.hash(id);
+            }
+            if (isBlank(student.getExamSubject())) {
+                issues.add(error("SUBJECT_MISSING", "student", i, id, "Exam subject missing for student: " + id));
+            }
+
+            List<String> requirements = student.getSpecialRequirements();
+            if (requirements == null || requirements.isEmpty()) {
+                continue;
+            }
+            long mask = 0;
+            for (String requirement : requirements) {
+                Facility facility = Facility.parse(requirement);
+                if (facility == null) {
+                    issues.add(warning("UNKNOWN_REQUIREMENT", "student", i, id, "Student " + id
+                            + " has unrecognised special requirement \"" + requirement + "\""));
+                } else {
+                    mask |= facility.bit();
+                }
+            }
+            if (mask != 0 && !satisfiable(offered, mask & KNOWN_FACILITIES)) {
+                issues.add(warning("REQUIREMENT_UNSATISFIABLE", "student", i, id, "No room satisfies all special "
+                        + "requirements of student " + id));
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Duplicate ids among the non-zero hashes, split by hash range for large inputs
+     */
+    private List<Issue> duplicates(long[] hashes, IntFunction<String> idAt, String entity,
+                                   String code, String message) {
+        int n = hashes.length;
+        if (n < PARALLEL_THRESHOLD) {
+            return duplicates(hashes, null, 0, n, idAt, entity, code, message);
+        }
+        int partitions = Integer.highestOneBit(Math.max(2, pool.getParallelism()) * 2 - 1);
+        int shift = 64 - Integer.numberOfTrailingZeros(partitions);
+
+        // Bucket the rows by hash range in one pass, in row order, so each partition only visits its own
+        int[] bounds = new int[partitions + 1];
+        for (long hash : hashes) {
+            if (hash != 0) {
+                bounds[(int) (hash >>> shift) + 1]++;
+            }
+        }
+        for (int p = 0; p < partitions; p++) {
+            bounds[p + 1] += bounds[p];
+        }
+        int[] rows = new int[bounds[partitions]];
+        int[] next = Arrays.copyOf(bounds, partitions);
+        for (int i = 0; i < n; i++) {
+            if (hashes[i] != 0) {
+                rows[next[(int) (hashes[i] >>> shift)]++] = i;
+            }
+        }
+
+        List<ForkJoinTask<List<Issue>>> tasks = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            int from = bounds[p];
+            int to = bounds[p + 1];
+            tasks.add(pool.submit(() -> duplicates(hashes, rows, from, to, idAt, entity, code, message)));
+        }
+        List<Issue> issues = new ArrayList<>();
+        for (ForkJoinTask<List<Issue>> task : tasks) {
+            issues.addAll(task.join());
+        }
+        return issues;
+    }
+
+    /**
+     * Duplicate ids among the rows listed in {@code rows[from, to)}, or among rows
+     * {@code from} to {@code to} themselves if {@code rows} is null
+     */
+    private static List<Issue> duplicates(long[] hashes, int[] rows, int from, int to, IntFunction<String> idAt,
+                                          String entity, String code, String message) {
+        IdHashSet seen = new IdHashSet(to - from, idAt);
+        List<Issue> found = new ArrayList<>();
+        for (int k = from; k < to; k++) {
+            int i = rows == null ? k : rows[k];
+            long hash = hashes[i];
+            if (hash == 0) {
+                continue;
+            }
+            int earlier = seen.add(hash, i);
+            if (earlier >= 0) {
+                String id = idAt.apply(i);
+                found.add(error(code, entity, i, id, message + id + " (rows " + earlier + " and " + i + ")"));
+            }
+        }
+        return found;
+    }
+
+    private static long[] addMask(long[] masks, long mask) {
+        for (long m : masks) {
+            if (m == mask) {
+                return masks;
+            }
+        }
+        long[] grown = Arrays.copyOf(masks, masks.length + 1);
+        grown[masks.length] = mask;
+        return grown;
+    }
+
+    private static boolean satisfiable(long[] offered, long required) {
+        for (long mask : offered) {
+            if ((mask & required) == required) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static Issue error(String code, String entity, int index, String id, String message) {
+        return new Issue(Severity.ERROR, code, entity, index, id, message);
+    }
+
+    private static Issue warning(String code, String entity, int index, String id, String message) {
+        return new Issue(Severity.WARNING, code, entity, index, id, message);
+    }
+}
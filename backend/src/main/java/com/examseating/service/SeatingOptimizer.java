@@ -0,0 +1,473 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Anytime simulated-annealing optimizer for seating quality.
+ *
+ * Every seat of every room is a cell in one flat array, with grid neighbours
+ * stored in compressed adjacency lists. A move swaps two cells (a student with
+ * another student or with an empty seat, possibly in another room). The cost is
+ *
+ * <pre>
+ *   violationWeight * same-subject adjacent pairs
+ * + roomWeight      * rooms in use
+ * + balanceWeight   * variance of utilisation over rooms in use
+ * </pre>
+ *
+ * and is maintained incrementally: a swap only looks at the two cells'
+ * neighbours and at running sums of per-room utilisation, so each move is
+ * evaluated in constant time. Independent restarts with different seeds run on
+ * separate cores and the best result within the time budget is returned.
+ *
+ * Every improving move is recorded as the best so far. Rather than copying the
+ * layout each time, a run keeps a snapshot of an earlier layout and a journal
+ * of the moves accepted since, and remembers how much of the journal leads to
+ * the best layout; the snapshot is brought forward when the journal fills up.
+ */
+public final class SeatingOptimizer {
+
+    private static final double DEFAULT_VIOLATION_WEIGHT = 1.0;
+    private static final double DEFAULT_ROOM_WEIGHT = 5.0;
+    private static final double DEFAULT_BALANCE_WEIGHT = 10.0;
+
+    private static final double START_TEMPERATURE = 2.0;
+    private static final double END_TEMPERATURE = 0.01;
+    private static final int CLOCK_CHECK_INTERVAL = 4096;
+    private static final int MIN_JOURNAL_MOVES = 1 << 12;
+
+    private final double violationWeight;
+    private final double roomWeight;
+    private final double balanceWeight;
+
+    public SeatingOptimizer() {
+        this(DEFAULT_VIOLATION_WEIGHT, DEFAULT_ROOM_WEIGHT, DEFAULT_BALANCE_WEIGHT);
+    }
+
+    public SeatingOptimizer(double violationWeight, double roomWeight, double balanceWeight) {
+        this.violationWeight = violationWeight;
+        this.roomWeight = roomWeight;
+        this.balanceWeight = balanceWeight;
+    }
+
+    /**
+     * Outcome of an optimization run
+     */
+    public static final class Result {
+        private final SeatingPlan plan;
+        private final double cost;
+        private final int violations;
+        private final int roomsUsed;
+        private final long moves;
+
+        Result(SeatingPlan plan, double cost, int violations, int roomsUsed, long moves) {
+            this.plan = plan;
+            this.cost = cost;
+            this.violations = violations;
+            this.roomsUsed = roomsUsed;
+            this.moves = moves;
+        }
+
+        public SeatingPlan getPlan() {
+            return plan;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        /** Same-subject adjacent seat pairs in the best solution */
+        public int getViolations() {
+            return violations;
+        }
+
+        public int getRoomsUsed() {
+            return roomsUsed;
+        }
+
+        /** Moves evaluated across all restarts */
+        public long getMoves() {
+            return moves;
+        }
+    }
+
+    /**
+     * Improve a plan within a wall-clock budget.
+     *
+     * @param initial Starting plan; every student of it is kept
+     * @param budget Wall-clock time to spend
+     * @param seed Base seed; restart i uses seed + i
+     * @param restarts Number of independent restarts run in parallel
+     * @return Best solution found
+     */
+    public Result optimize(SeatingPlan initial, Duration budget, long seed, int restarts) {
+        Model model = new Model(initial);
+        long deadline = System.nanoTime() + budget.toNanos();
+        int workers = Math.max(1, restarts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Search>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                long restartSeed = seed + i;
+                futures.add(executor.submit(() -> {
+                    Search search = new Search(model, restartSeed);
+                    search.run(deadline);
+                    return search;
+                }));
+            }
+
+            Search best = null;
+            long moves = 0;
+            for (Future<Search> future : futures) {
+                Search search = future.get();
+                moves += search.moves;
+                if (best == null || search.bestCost < best.bestCost) {
+                    best = search;
+                }
+            }
+            return best.toResult(moves);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seating optimization interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seating optimization failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Immutable problem data shared by all restarts
+     */
+    private final class Model {
+        final SeatingPlan plan;
+        final int students;
+        final int cells;
+        final int roomCount;
+        final int[] roomStart;
+        final int[] seatRoom;
+        final int[] capacity;
+        final int[] neighbourStart;
+        final int[] neighbours;
+        final int[] subjectOf;
+        final int[] initialCell;
+
+        Model(SeatingPlan plan) {
+            this.plan = plan;
+            List<Room> rooms = plan.getRooms();
+            roomCount = rooms.size();
+            roomStart = new int[roomCount + 1];
+            capacity = new int[roomCount];
+            for (int r = 0; r < roomCount; r++) {
+                capacity[r] = rooms.get(r).getCapacity();
+                roomStart[r + 1] = roomStart[r] + capacity[r];
+            }
+            cells = roomStart[roomCount];
+
+            seatRoom = new int[cells];
+            neighbourStart = new int[cells + 1];
+            int[] buffer = new int[cells * 8];
+            int edges = 0;
+            for (int r = 0; r < roomCount; r++) {
+                int columns = GridSeatPlanner.seatsPerRow(rooms.get(r));
+                int base = roomStart[r];
+                for (int seat = 0; seat < capacity[r]; seat++) {
+                    int cell = base + seat;
+                    seatRoom[cell] = r;
+                    int row = seat / columns;
+                    int col = seat % columns;
+                    for (int dr = -1; dr <= 1; dr++) {
+                        for (int dc = -1; dc <= 1; dc++) {
+                            int nr = row + dr;
+                            int nc = col + dc;
+                            if ((dr == 0 && dc == 0) || nr < 0 || nc < 0 || nc >= columns) {
+                                continue;
+                            }
+                            int neighbour = nr * columns + nc;
+                            if (neighbour < capacity[r]) {
+                                buffer[edges++] = base + neighbour;
+                            }
+                        }
+                    }
+                    neighbourStart[cell + 1] = edges;
+                }
+            }
+            neighbours = Arrays.copyOf(buffer, edges);
+
+            students = plan.size();
+            subjectOf = new int[students];
+            initialCell = new int[students];
+            Map<String, Integer> subjectIds = new HashMap<>();
+            for (int i = 0; i < students; i++) {
+                String subject = plan.studentAt(i).getExamSubject();
+                subjectOf[i] = subjectIds.computeIfAbsent(subject, s -> subjectIds.size());
+                initialCell[i] = roomStart[plan.roomIndexAt(i)] + plan.seatNumberAt(i) - 1;
+            }
+        }
+    }
+
+    /**
+     * Mutable state of one annealing run
+     */
+    private final class Search {
+        final Model model;
+        final SplittableRandom random;
+        final int[] cellStudent;
+        final int[] cellSubject;
+        final int[] studentCell;
+        final int[] occupied;
+        int openRooms;
+        double utilisationSum;
+        double utilisationSquares;
+        int violations;
+        double cost;
+
+        // The best layout is the snapshot with the first bestMoves journal entries replayed,
+        // or the snapshot itself while the journal is not being kept
+        final int[] snapshot;
+        final int[] journal;
+        int journalMoves;
+        int bestMoves;
+        boolean journalKept = true;
+        double bestCost;
+        int bestViolations;
+        int bestOpenRooms;
+        long moves;
+
+        Search(Model model, long seed) {
+            this.model = model;
+            this.random = new SplittableRandom(seed);
+            cellStudent = new int[model.cells];
+            cellSubject = new int[model.cells];
+            Arrays.fill(cellStudent, -1);
+            Arrays.fill(cellSubject, -1);
+            studentCell = model.initialCell.clone();
+            occupied = new int[model.roomCount];
+            for (int i = 0; i < model.students; i++) {
+                int cell = studentCell[i];
+                cellStudent[cell] = i;
+                cellSubject[cell] = model.subjectOf[i];
+                occupied[model.seatRoom[cell]]++;
+            }
+            for (int r = 0; r < model.roomCount; r++) {
+                if (occupied[r] > 0) {
+                    double u = (double) occupied[r] / model.capacity[r];
+                    openRooms++;
+                    utilisationSum += u;
+                    utilisationSquares += u * u;
+                }
+            }
+            for (int cell = 0; cell < model.cells; cell++) {
+                violations += clashes(cell, cellSubject[cell]);
+            }
+            violations /= 2;
+            cost = cost(violations, openRooms, utilisationSum, utilisationSquares);
+            snapshot = studentCell.clone();
+            journal = new int[4 * Math.max(MIN_JOURNAL_MOVES, model.students)];
+            recordBest();
+        }
+
+        double cost(int violations, int openRooms, double sum, double squares) {
+            double variance = openRooms == 0 ? 0 : squares / openRooms - (sum / openRooms) * (sum / openRooms);
+            return violationWeight * violations + roomWeight * openRooms + balanceWeight * variance;
+        }
+
+        int clashes(int cell, int subject) {
+            if (subject < 0) {
+                return 0;
+            }
+            int count = 0;
+            for (int k = model.neighbourStart[cell]; k < model.neighbourStart[cell + 1]; k++) {
+                if (cellSubject[model.neighbours[k]] == subject) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        void run(long deadline) {
+            if (model.students == 0 || model.cells < 2) {
+                return;
+            }
+            long start = System.nanoTime();
+            double span = Math.max(1, deadline - start);
+            double temperature = START_TEMPERATURE;
+
+            while (true) {
+                if ((moves & (CLOCK_CHECK_INTERVAL - 1)) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    double progress = (now - start) / span;
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+                }
+                moves++;
+                tryMove(temperature);
+            }
+            if (journalKept) {
+                replay(bestMoves);
+            }
+        }
+
+        void tryMove(double temperature) {
+            int a = studentCell[random.nextInt(model.students)];
+            int b = random.nextInt(model.cells);
+            int studentB = cellStudent[b];
+            int subjectA = cellSubject[a];
+            int subjectB = cellSubject[b];
+            int roomA = model.seatRoom[a];
+            int roomB = model.seatRoom[b];
+            boolean relocates = studentB < 0 && roomA != roomB;
+            if (a == b || (subjectA == subjectB && !relocates)) {
+                return;
+            }
+
+            int violationDelta = 0;
+            if (subjectA != subjectB) {
+                int before = clashes(a, subjectA) + clashes(b, subjectB);
+                cellSubject[a] = subjectB;
+                cellSubject[b] = subjectA;
+                int after = clashes(a, subjectB) + clashes(b, subjectA);
+                cellSubject[a] = subjectA;
+                cellSubject[b] = subjectB;
+                violationDelta = after - before;
+            }
+
+            int newOpenRooms = openRooms;
+            double newSum = utilisationSum;
+            double newSquares = utilisationSquares;
+            if (relocates) {
+                double capA = model.capacity[roomA];
+                double capB = model.capacity[roomB];
+                double oldA = occupied[roomA] / capA;
+                double newA = (occupied[roomA] - 1) / capA;
+                double oldB = occupied[roomB] / capB;
+                double newB = (occupied[roomB] + 1) / capB;
+                newSum += newA - oldA + newB - oldB;
+                newSquares += newA * newA - oldA * oldA + newB * newB - oldB * oldB;
+                if (occupied[roomA] == 1) {
+                    newOpenRooms--;
+                }
+                if (occupied[roomB] == 0) {
+                    newOpenRooms++;
+                }
+            }
+
+            int newViolations = violations + violationDelta;
+            double newCost = cost(newViolations, newOpenRooms, newSum, newSquares);
+            double delta = newCost - cost;
+            if (delta > 0 && random.nextDouble() >= Math.exp(-delta / temperature)) {
+                return;
+            }
+
+            int studentA = cellStudent[a];
+            cellStudent[a] = studentB;
+            cellStudent[b] = studentA;
+            cellSubject[a] = subjectB;
+            cellSubject[b] = subjectA;
+            studentCell[studentA] = b;
+            if (studentB >= 0) {
+                studentCell[studentB] = a;
+            }
+            if (relocates) {
+                occupied[roomA]--;
+                occupied[roomB]++;
+            }
+            openRooms = newOpenRooms;
+            utilisationSum = newSum;
+            utilisationSquares = newSquares;
+            violations = newViolations;
+            cost = newCost;
+
+            if (journalKept) {
+                if (journalMoves * 4 == journal.length) {
+                    compact();
+                }
+                if (journalKept) {
+                    int k = journalMoves++ * 4;
+                    journal[k] = studentA;
+                    journal[k + 1] = b;
+                    journal[k + 2] = studentB;
+                    journal[k + 3] = a;
+                }
+            }
+            if (cost < bestCost) {
+                if (!journalKept) {
+                    // Only after half a journal of moves without improvement
+                    System.arraycopy(studentCell, 0, snapshot, 0, studentCell.length);
+                    journalMoves = 0;
+                    journalKept = true;
+                }
+                recordBest();
+            }
+        }
+
+        void recordBest() {
+            bestMoves = journalMoves;
+            bestCost = cost;
+            bestViolations = violations;
+            bestOpenRooms = openRooms;
+        }
+
+        /**
+         * Move the snapshot forward to the best layout. The moves since are kept if
+         * they fill at most half the journal, otherwise the journal is dropped until
+         * the next improvement, which copies the current layout instead.
+         */
+        void compact() {
+            replay(bestMoves);
+            int remaining = journalMoves - bestMoves;
+            if (remaining * 8 <= journal.length) {
+                System.arraycopy(journal, bestMoves * 4, journal, 0, remaining * 4);
+                journalMoves = remaining;
+            } else {
+                journalMoves = 0;
+                journalKept = false;
+            }
+            bestMoves = 0;
+        }
+
+        /**
+         * Apply the first {@code count} journal entries to the snapshot
+         */
+        void replay(int count) {
+            for (int k = 0; k < count * 4; k += 4) {
+                snapshot[journal[k]] = journal[k + 1];
+                if (journal[k + 2] >= 0) {
+                    snapshot[journal[k + 2]] = journal[k + 3];
+                }
+            }
+        }
+
+        Result toResult(long totalMoves) {
+            int students = model.students;
+            int[] studentIndex = new int[students];
+            int[] roomIndex = new int[students];
+            short[] seatNumbers = new short[students];
+            for (int i = 0; i < students; i++) {
+                int cell = snapshot[i];
+                int room = model.seatRoom[cell];
+                studentIndex[i] = model.plan.studentIndexAt(i);
+                roomIndex[i] = room;
+                seatNumbers[i] = (short) (cell - model.roomStart[room] + 1);
+            }
+            SeatingPlan plan = model.plan.withPlacements(studentIndex, roomIndex, seatNumbers, students);
+            return new Result(plan, bestCost, bestViolations, bestOpenRooms, totalMoves);
+        }
+    }
+}
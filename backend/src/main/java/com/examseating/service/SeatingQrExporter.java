@@ -0,0 +1,343 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.SeatingPlan;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders hall-ticket QR codes for a whole arrangement as PNGs in a zip.
+ *
+ * Seats are rendered in batches on a fixed pool of worker threads while the
+ * calling thread writes finished batches to the zip in seat order, with only a
+ * few batches in flight at a time. Each worker keeps its own scanline, image
+ * and deflate buffers, and QR modules are scaled straight into 1-bit PNG
+ * scanlines instead of going through a scaled BitMatrix and ImageIO. Rendered
+ * images are cached by their content, so seats whose QR payload has not
+ * changed are not rendered again on the next export. Tokens are deterministic
+ * and their window comes from the exam date (or the issue day), so a
+ * regenerated arrangement reuses the images of every seat that kept its place.
+ *
+ * Each code holds a signed seat token from {@link SeatTokenService}, valid for
+ * the exam's gate window, so gates verify a scan without looking anything up.
+ */
+@Service
+public class SeatingQrExporter {
+
+    static final int MODULE_SIZE = 4;
+    static final int QUIET_ZONE = 4;
+    /**
+     * Any mask gives a valid code; trying all eight for the lowest penalty is
+     * most of the encoding time and makes no practical difference to printed tickets
+     */
+    static final int MASK_PATTERN = 2;
+
+    private static final int BATCH_SIZE = 512;
+    private static final int CACHE_SIZE = 100_000;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    private final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+        Thread thread = new Thread(runnable, "qr-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Every renderer handed out, so their native deflaters can be released on shutdown */
+    private final Queue<Renderer> allRenderers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Renderer> renderers = ThreadLocal.withInitial(() -> {
+        Renderer renderer = new Renderer();
+        allRenderers.add(renderer);
+        return renderer;
+    });
+    private final LruCache<String, byte[]> imageCache = new LruCache<>(CACHE_SIZE);
+
+    @Autowired
+    private SeatTokenService seatTokenService;
+
+    /**
+     * Unsigned seat label, kept on seating assignments; printed codes carry a
+     * signed token instead
+     */
+    public static String payload(String studentId, String roomId, int seatNumber) {
+        return String.format("QR_%s_%s_%d", studentId, roomId, seatNumber);
+    }
+
+    /**
+     * PNG image of a single payload
+     */
+    public byte[] render(String payload) {
+        return imageCache.get(payload, p -> renderers.get().render(p));
+    }
+
+    /**
+     * Write one PNG per seat to a zip, named room/seat-student.png
+     *
+     * @return Number of images written
+     */
+    public long export(SeatingArrangement arrangement, Exam exam, OutputStream out) throws IOException {
+        SeatTokenService.Window window = seatTokenService.windowFor(exam, arrangement.getGeneratedAt());
+        String examId = exam != null ? exam.getExamId() : null;
+        SeatingPlan plan = arrangement.getPlan();
+        int size;
+        String[] payloads;
+        String[] names;
+        if (plan != null) {
+            size = plan.size();
+            payloads = new String[size];
+            names = new String[size];
+            for (int i = 0; i < size; i++) {
+                String studentId = plan.studentAt(i).getStudentId();
+                String roomId = plan.roomAt(i).getRoomId();
+                int seat = plan.seatNumberAt(i);
+                payloads[i] = seatTokenService.issue(studentId, examId, roomId, seat, window);
+                names[i] = entryName(studentId, roomId, seat);
+            }
+        } else {
+            List<SeatingAssignment> assignments = arrangement.getAssignments();
+            size = assignments == null ? 0 : assignments.size();
+            payloads = new String[size];
+            names = new String[size];
+            for (int i = 0; i < size; i++) {
+                SeatingAssignment assignment = assignments.get(i);
+                int seat = assignment.getSeatNumber();
+                payloads[i] = seatTokenService.issue(assignment.getStudentId(), examId, assignment.getRoomId(), seat,
+                        window);
+                names[i] = entryName(assignment.getStudentId(), assignment.getRoomId(), seat);
+            }
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        CRC32 crc = new CRC32();
+        ArrayDeque<Future<byte[][]>> inFlight = new ArrayDeque<>();
+        int submitted = 0;
+        int written = 0;
+        try {
+            while (written < size) {
+                // Keep a bounded window of batches rendering ahead of the writer
+                while (submitted < size && inFlight.size() < threads * 2) {
+                    int from = submitted;
+                    int to = Math.min(size, from + BATCH_SIZE);
+                    inFlight.add(executor.submit(() -> renderBatch(payloads, from, to)));
+                    submitted = to;
+                }
+                byte[][] images = inFlight.poll().get();
+                for (byte[] image : images) {
+                    // PNG data is already deflated, so store it as is
+                    ZipEntry entry = new ZipEntry(names[written++]);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(image.length);
+                    crc.reset();
+                    crc.update(image, 0, image.length);
+                    entry.setCrc(crc.getValue());
+                    zip.putNextEntry(entry);
+                    zip.write(image);
+                    zip.closeEntry();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering QR codes", e);
+        } catch (ExecutionException e) {
+            throw new IOException("QR rendering failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (Future<byte[][]> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+        zip.finish();
+        zip.flush();
+        System.out.println("🔳 Exported " + written + " QR codes (" + imageCache.getHits() + " cache hits so far)");
+        return written;
+    }
+
+    /**
+     * Stop the render pool and release the renderers' deflaters
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            System.out.println("⚠️ QR render threads still running at shutdown; leaving their deflaters open");
+            return;
+        }
+        Renderer renderer;
+        while ((renderer = allRenderers.poll()) != null) {
+            renderer.close();
+        }
+    }
+
+    /**
+     * QR image cache statistics
+     */
+    public Map<String, Object> getCacheStats() {
+        return imageCache.stats();
+    }
+
+    private byte[][] renderBatch(String[] payloads, int from, int to) {
+        byte[][] images = new byte[to - from][];
+        for (int i = from; i < to; i++) {
+            images[i - from] = render(payloads[i]);
+        }
+        return images;
+    }
+
+    private static String entryName(String studentId, String roomId, int seatNumber) {
+        return safe(roomId) + "/seat-" + seatNumber + "_" + safe(studentId) + ".png";
+    }
+
+    private static String safe(String text) {
+        if (text == null) {
+            return "unknown";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) || c == '-' || c == '.' ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Per-thread encoder state and buffers, grown as needed and never shared
+     */
+    private static final class Renderer {
+        private final Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final CRC32 crc = new CRC32();
+        private final byte[] header = new byte[13];
+        private byte[] raw = new byte[0];
+        private byte[] compressed = new byte[0];
+        private byte[] png = new byte[0];
+        private int pngLength;
+
+        Renderer() {
+            hints.put(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+            hints.put(EncodeHintType.QR_MASK_PATTERN, MASK_PATTERN);
+        }
+
+        byte[] render(String payload) {
+            QRCode code;
+            try {
+                code = Encoder.encode(payload, ErrorCorrectionLevel.M, hints);
+            } catch (WriterException e) {
+                throw new IllegalArgumentException("Cannot encode QR payload: " + payload, e);
+            }
+            ByteMatrix matrix = code.getMatrix();
+            int modules = matrix.getWidth();
+            byte[][] cells = matrix.getArray();
+            int pixels = (modules + 2 * QUIET_ZONE) * MODULE_SIZE;
+            int stride = 1 + ((pixels + 7) >>> 3);
+
+            // 1-bit greyscale scanlines (1 = white) after a filter byte of 0; module rows repeat MODULE_SIZE times
+            int rawLength = stride * pixels;
+            if (raw.length < rawLength) {
+                raw = new byte[rawLength];
+            }
+            Arrays.fill(raw, 0, rawLength, (byte) 0xFF);
+            for (int y = 0; y < pixels; y++) {
+                raw[y * stride] = 0;
+            }
+            for (int my = 0; my < modules; my++) {
+                int line = (QUIET_ZONE + my) * MODULE_SIZE * stride;
+                byte[] row = cells[my];
+                for (int mx = 0; mx < modules; mx++) {
+                    if (row[mx] == 1) {
+                        int x0 = (QUIET_ZONE + mx) * MODULE_SIZE;
+                        for (int x = x0; x < x0 + MODULE_SIZE; x++) {
+                            raw[line + 1 + (x >>> 3)] &= (byte) ~(0x80 >>> (x & 7));
+                        }
+                    }
+                }
+                for (int k = 1; k < MODULE_SIZE; k++) {
+                    System.arraycopy(raw, line, raw, line + k * stride, stride);
+                }
+            }
+
+            deflater.reset();
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            int compressedLength = 0;
+            if (compressed.length < rawLength / 2 + 64) {
+                compressed = new byte[rawLength / 2 + 64];
+            }
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+
+            ensurePng(PNG_SIGNATURE.length + 25 + 12 + compressedLength + 12);
+            System.arraycopy(PNG_SIGNATURE, 0, png, 0, PNG_SIGNATURE.length);
+            pngLength = PNG_SIGNATURE.length;
+            putInt(header, 0, pixels);
+            putInt(header, 4, pixels);
+            header[8] = 1;  // bit depth
+            header[9] = 0;  // greyscale
+            chunk("IHDR", header, 13);
+            chunk("IDAT", compressed, compressedLength);
+            chunk("IEND", header, 0);
+            return Arrays.copyOf(png, pngLength);
+        }
+
+        private void chunk(String type, byte[] data, int length) {
+            putInt(png, pngLength, length);
+            int typeStart = pngLength + 4;
+            for (int i = 0; i < 4; i++) {
+                png[typeStart + i] = (byte) type.charAt(i);
+            }
+            System.arraycopy(data, 0, png, typeStart + 4, length);
+            crc.reset();
+            crc.update(png, typeStart, 4 + length);
+            putInt(png, typeStart + 4 + length, (int) crc.getValue());
+            pngLength = typeStart + 8 + length;
+        }
+
+        private void ensurePng(int length) {
+            if (png.length < length) {
+                png = new byte[length];
+            }
+        }
+
+        void close() {
+            deflater.end();
+        }
+
+        private static void putInt(byte[] bytes, int offset, int value) {
+            bytes[offset] = (byte) (value >>> 24);
+            bytes[offset + 1] = (byte) (value >>> 16);
+            bytes[offset + 2] = (byte) (value >>> 8);
+            bytes[offset + 3] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the seating arrangement JSON returned by {@code POST /api/seating}.
+ *
+ * Seats are streamed through a Jackson {@link JsonGenerator} straight to the
+ * response, with no map per seat. Each seat's student and room come from the
+ * compact plan, which already holds references to both; arrangements without
+ * a plan are joined to their students and rooms through id indexes built once,
+ * so assembly is linear in the number of seats either way.
+ */
+@Service
+public class SeatingResponseWriter {
+
+    // Fields not carried by the arrangement, as in the original response
+    static final String DEFAULT_SUBJECT = "Mathematics";
+    static final String DEFAULT_DATE = "2024-12-20";
+
+    private static final SerializedString STUDENT_ID = new SerializedString("studentId");
+    private static final SerializedString STUDENT_NAME = new SerializedString("studentName");
+    private static final SerializedString STUDENT_EXAM = new SerializedString("studentExam");
+    private static final SerializedString DATE = new SerializedString("date");
+    private static final SerializedString ROOM_NO = new SerializedString("roomNo");
+    private static final SerializedString ROOM_NAME = new SerializedString("roomName");
+    private static final SerializedString SEAT_NO = new SerializedString("seatNo");
+    private static final SerializedString ROW = new SerializedString("row");
+    private static final SerializedString COLUMN = new SerializedString("column");
+    private static final SerializedString ROOM_CAPACITY = new SerializedString("roomCapacity");
+    private static final SerializedString ROOM_LAYOUT = new SerializedString("roomLayout");
+
+    // The response stream belongs to the caller
+    private final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    /**
+     * Write the response for an arrangement generated from the given students and rooms
+     *
+     * @return Number of seats written
+     */
+    public long write(SeatingArrangement arrangement, List<Student> students, List<Room> rooms, long seed,
+                      OutputStream out) throws IOException {
+        long written;
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeFieldName("seatingArrangement");
+            json.writeStartArray();
+            SeatingPlan plan = arrangement.getPlan();
+            written = plan != null ? writePlan(json, plan) : writeAssignments(json, arrangement, students, rooms);
+            json.writeEndArray();
+            json.writeNumberField("totalStudents", arrangement.getTotalStudents());
+            json.writeNumberField("seed", seed);
+            json.writeStringField("generatedAt", arrangement.getGeneratedAt().toString());
+            json.writeStringField("distribution", "Proper room-by-room allocation without overflow");
+            json.writeEndObject();
+        }
+        return written;
+    }
+
+    /**
+     * Write the seats of a batch of students, in request order, as
+     * {"count":n,"found":m,"seats":[[roomNo,seatNo,row,column],null,...]}
+     * with null for students without a seat
+     *
+     * @return Number of students found
+     */
+    public long writeLookup(SeatLookup lookup, List<String> studentIds, OutputStream out) throws IOException {
+        long found = 0;
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("count", studentIds.size());
+            json.writeFieldName("seats");
+            json.writeStartArray();
+            for (String studentId : studentIds) {
+                int i = lookup.find(studentId);
+                if (i < 0) {
+                    json.writeNull();
+                    continue;
+                }
+                json.writeStartArray();
+                json.writeString(lookup.roomAt(i).getRoomId());
+                json.writeNumber(lookup.seatNumberAt(i));
+                json.writeNumber(lookup.rowAt(i));
+                json.writeNumber(lookup.columnAt(i));
+                json.writeEndArray();
+                found++;
+            }
+            json.writeEndArray();
+            json.writeNumberField("found", found);
+            json.writeEndObject();
+        }
+        return found;
+    }
+
+    /**
+     * Write the answer to a seat-token scan, with the claims read straight
+     * from the checked token's bytes
+     */
+    public void writeVerification(SeatTokenService.Scan scan, OutputStream out) throws IOException {
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeBooleanField("valid", scan.getStatus() == SeatTokenService.Status.VALID);
+            json.writeStringField("status", scan.getStatus().name());
+            if (scan.hasClaims()) {
+                json.writeFieldName(STUDENT_ID);
+                writeField(json, scan, 0);
+                json.writeFieldName("examId");
+                writeField(json, scan, 1);
+                json.writeFieldName(ROOM_NO);
+                writeField(json, scan, 2);
+                json.writeFieldName(SEAT_NO);
+                json.writeNumber(scan.getSeatNumber());
+                json.writeFieldName("validUntil");
+                int length = scan.formatValidUntil();
+                if (length < 0) {
+                    json.writeString(Instant.ofEpochSecond(scan.getValidUntilMinute() * 60).toString());
+                } else {
+                    json.writeString(scan.text, 0, length);
+                }
+            }
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeField(JsonGenerator json, SeatTokenService.Scan scan, int field) throws IOException {
+        int at = scan.fieldAt[field];
+        json.writeUTF8String(scan.buf, at + 1, scan.buf[at] & 0xFF);
+    }
+
+    private static long writePlan(JsonGenerator json, SeatingPlan plan) throws IOException {
+        List<Room> rooms = plan.getRooms();
+        String[] layouts = new String[rooms.size()];
+        int[] seatsPerRow = new int[rooms.size()];
+        for (int r = 0; r < layouts.length; r++) {
+            layouts[r] = layout(rooms.get(r));
+            seatsPerRow[r] = GridSeatPlanner.seatsPerRow(rooms.get(r));
+        }
+        int size = plan.size();
+        for (int i = 0; i < size; i++) {
+            int r = plan.roomIndexAt(i);
+            int seat = plan.seatNumberAt(i);
+            writeSeat(json, plan.studentAt(i), rooms.get(r), seat, (seat - 1) / seatsPerRow[r] + 1,
+                    (seat - 1) % seatsPerRow[r] + 1, layouts[r]);
+        }
+        return size;
+    }
+
+    private static long writeAssignments(JsonGenerator json, SeatingArrangement arrangement, List<Student> students,
+                                         List<Room> rooms) throws IOException {
+        Map<String, Student> studentsById = new HashMap<>(students.size() * 2);
+        for (Student student : students) {
+            studentsById.putIfAbsent(student.getStudentId(), student);
+        }
+        Map<String, Room> roomsById = new HashMap<>(rooms.size() * 2);
+        for (Room room : rooms) {
+            roomsById.putIfAbsent(room.getRoomId(), room);
+        }
+
+        long written = 0;
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            Student student = studentsById.get(assignment.getStudentId());
+            Room room = roomsById.get(assignment.getRoomId());
+            if (student != null && room != null) {
+                writeSeat(json, student, room, assignment.getSeatNumber(), assignment.getRow(),
+                        assignment.getColumn(), layout(room));
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private static void writeSeat(JsonGenerator json, Student student, Room room, int seat, int row, int column,
+                                  String layout) throws IOException {
+        json.writeStartObject();
+        json.writeFieldName(STUDENT_ID);
+        json.writeString(student.getStudentId());
+        json.writeFieldName(STUDENT_NAME);
+        json.writeString(student.getName());
+        json.writeFieldName(STUDENT_EXAM);
+        json.writeString(DEFAULT_SUBJECT);
+        json.writeFieldName(DATE);
+        json.writeString(DEFAULT_DATE);
+        json.writeFieldName(ROOM_NO);
+        json.writeString(room.getRoomId());
+        json.writeFieldName(ROOM_NAME);
+        json.writeString(room.getName());
+        json.writeFieldName(SEAT_NO);
+        json.writeNumber(seat);
+        json.writeFieldName(ROW);
+        json.writeNumber(row);
+        json.writeFieldName(COLUMN);
+        json.writeNumber(column);
+        json.writeFieldName(ROOM_CAPACITY);
+        if (room.getCapacity() == null) {
+            json.writeNull();
+        } else {
+            json.writeNumber(room.getCapacity());
+        }
+        json.writeFieldName(ROOM_LAYOUT);
+        json.writeString(layout);
+        json.writeEndObject();
+    }
+
+    private static String layout(Room room) {
+        return room.getRows() + "x" + room.getColumns();
+    }
+}
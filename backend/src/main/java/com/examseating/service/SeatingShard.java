@@ -0,0 +1,105 @@
+package com.examseating.service;
+
+import com.examseating.model.ExamSession;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One unit of sharded planning: the students of a session dealt to one building.
+ *
+ * A shard is sent to a worker as subject ids and room geometry only, indexed
+ * locally; the coordinator keeps the mapping back to session students and
+ * catalog rooms. The wire format is plain {@link DataOutputStream} fields:
+ *
+ * <pre>
+ * request:  name, seed, rooms, (capacity, columns)*, subjects, subject*, students, subjectId*
+ * response: placed, (student, room, seat)*  |  -1, message
+ * </pre>
+ */
+final class SeatingShard {
+
+    final ExamSession session;
+    final String building;
+    final long seed;
+    /** Catalog index of each shard room */
+    final int[] rooms;
+    /** Session-local index of each shard student */
+    final int[] students;
+
+    /** Filled in from the worker's response, indexed like a plan */
+    int placed;
+    int[] placedStudent;
+    int[] placedRoom;
+    short[] placedSeat;
+
+    SeatingShard(ExamSession session, String building, long seed, int[] rooms, int[] students) {
+        this.session = session;
+        this.building = building;
+        this.seed = seed;
+        this.rooms = rooms;
+        this.students = students;
+    }
+
+    String name() {
+        return building + " @ " + session;
+    }
+
+    int size() {
+        return students.length;
+    }
+
+    void writeRequest(DataOutputStream out, List<Student> sessionStudents, List<Room> catalog) throws IOException {
+        out.writeUTF(name());
+        out.writeLong(seed);
+        out.writeInt(rooms.length);
+        for (int r : rooms) {
+            Room room = catalog.get(r);
+            out.writeInt(room.getCapacity());
+            out.writeInt(GridSeatPlanner.seatsPerRow(room));
+        }
+
+        Map<String, Integer> subjectIds = new HashMap<>();
+        List<String> subjects = new ArrayList<>();
+        int[] subjectOf = new int[students.length];
+        for (int i = 0; i < students.length; i++) {
+            String subject = sessionStudents.get(students[i]).getExamSubject();
+            subjectOf[i] = subjectIds.computeIfAbsent(subject, s -> {
+                subjects.add(s);
+                return subjects.size() - 1;
+            });
+        }
+        out.writeInt(subjects.size());
+        for (String subject : subjects) {
+            out.writeUTF(subject);
+        }
+        out.writeInt(students.length);
+        for (int subject : subjectOf) {
+            out.writeInt(subject);
+        }
+        out.flush();
+    }
+
+    void readResponse(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("Shard " + name() + ": " + in.readUTF());
+        }
+        placed = count;
+        placedStudent = new int[count];
+        placedRoom = new int[count];
+        placedSeat = new short[count];
+        for (int i = 0; i < count; i++) {
+            placedStudent[i] = in.readInt();
+            placedRoom[i] = in.readInt();
+            placedSeat[i] = in.readShort();
+        }
+    }
+}
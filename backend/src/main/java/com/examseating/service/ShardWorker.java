@@ -0,0 +1,108 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Worker process for {@link ShardedSeatingPlanner}.
+ *
+ * Reads shard requests from stdin and answers each on stdout, one at a time,
+ * until stdin is closed. Each shard is seated with the compact engine and
+ * grid-aware layout, exactly as a single-JVM grid-aware run would seat it.
+ * Needs nothing but the application classes; no Spring context is started.
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        // stdout carries the protocol; anything printed goes to stderr instead
+        OutputStream protocol = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err);
+        serve(System.in, protocol);
+    }
+
+    /**
+     * Answer shard requests until the input ends
+     */
+    static void serve(InputStream input, OutputStream output) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        CompactSeatingEngine engine = new CompactSeatingEngine();
+        while (true) {
+            try {
+                // Shard name; the coordinator reports it with any error
+                in.readUTF();
+            } catch (EOFException e) {
+                return;
+            }
+            long seed = in.readLong();
+            List<Room> rooms = readRooms(in);
+            List<Student> students = readStudents(in);
+
+            SeatingPlan plan;
+            try {
+                plan = engine.plan(students, rooms, new Random(seed), null);
+                plan = new GridSeatPlanner(seed).arrange(plan);
+            } catch (RuntimeException e) {
+                out.writeInt(-1);
+                out.writeUTF(String.valueOf(e.getMessage()));
+                out.flush();
+                continue;
+            }
+
+            out.writeInt(plan.size());
+            for (int i = 0; i < plan.size(); i++) {
+                out.writeInt(plan.studentIndexAt(i));
+                out.writeInt(plan.roomIndexAt(i));
+                out.writeShort(plan.seatNumberAt(i));
+            }
+            out.flush();
+        }
+    }
+
+    private static List<Room> readRooms(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<Room> rooms = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            int capacity = in.readInt();
+            int columns = in.readInt();
+            Room room = new Room("R" + r, "R" + r, capacity, (capacity + columns - 1) / columns, columns);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    private static List<Student> readStudents(DataInputStream in) throws IOException {
+        int subjectCount = in.readInt();
+        String[] subjects = new String[subjectCount];
+        for (int s = 0; s < subjectCount; s++) {
+            subjects[s] = in.readUTF();
+        }
+        int count = in.readInt();
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student();
+            student.setStudentId("S" + i);
+            student.setExamSubject(subjects[in.readInt()]);
+            students.add(student);
+        }
+        return students;
+    }
+}
@@ -0,0 +1,354 @@
+package com.examseating.service;
+
+import com.examseating.model.ExamSession;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Seats very large cohorts by sharding them across worker JVMs.
+ *
+ * Registrations are partitioned by {@link ExamSession}; within a session the
+ * students are dealt to buildings ({@link Room#getBuilding()}) in proportion to
+ * each building's capacity, subject by subject, so every building gets a
+ * similar mix. Each (session, building) shard is solved by a {@link ShardWorker}
+ * process over its stdin/stdout pipes, so nothing beyond the JDK is needed to
+ * run several JVMs on one machine. Shards go to whichever worker is free,
+ * largest first.
+ *
+ * The merge step checks global consistency before building the plans: every
+ * student of a session is seated exactly once, no student ID is seated twice
+ * in a session (even from different shards), and no seat of any room is used
+ * twice in a session or lies outside the room.
+ */
+public final class ShardedSeatingPlanner implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final List<Worker> workers = new ArrayList<>();
+
+    /**
+     * Start worker processes
+     *
+     * @param workerCommand Command that runs {@link ShardWorker}, see {@link #defaultWorkerCommand()}
+     * @param workerCount Number of worker processes
+     */
+    public ShardedSeatingPlanner(List<String> workerCommand, int workerCount) throws IOException {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                Process process = new ProcessBuilder(workerCommand)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                workers.add(new Worker(process));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Command running {@link ShardWorker} on this JVM's java binary and class path.
+     *
+     * Inside a jar built by spring-boot-maven-plugin the class path is only the
+     * jar itself and the application classes are nested under BOOT-INF, so the
+     * worker is started through the jar's PropertiesLauncher instead.
+     */
+    public static List<String> defaultWorkerCommand() {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String location = String.valueOf(ShardWorker.class.getProtectionDomain().getCodeSource().getLocation());
+        int nested = location.indexOf("!/BOOT-INF/");
+        if (location.startsWith("jar:") && nested > 0) {
+            String jar = Paths.get(URI.create(location.substring("jar:".length(), nested))).toString();
+            return Arrays.asList(java, "-cp", jar, "-Dloader.main=" + ShardWorker.class.getName(),
+                    "org.springframework.boot.loader.PropertiesLauncher");
+        }
+        return Arrays.asList(java, "-cp", System.getProperty("java.class.path"), ShardWorker.class.getName());
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * Plan every session across the workers.
+     *
+     * @param students Registrations for all sessions
+     * @param rooms Room catalog, shared by every session
+     * @param seed Base seed; each shard derives its own from it
+     * @param factory Creates entities when a plan is materialized
+     * @return Plan per session, in date and session order
+     */
+    public SortedMap<ExamSession, SeatingPlan> plan(List<Student> students, List<Room> rooms, long seed,
+                                                   SeatingPlan.AssignmentFactory factory) throws IOException {
+        Map<ExamSession, List<Student>> sessions = students.stream()
+                .collect(Collectors.groupingBy(ExamSession::of, TreeMap::new, Collectors.toList()));
+        Map<String, int[]> buildings = roomsByBuilding(rooms);
+
+        List<SeatingShard> shards = new ArrayList<>();
+        for (Map.Entry<ExamSession, List<Student>> entry : sessions.entrySet()) {
+            shards.addAll(partition(entry.getKey(), entry.getValue(), rooms, buildings, seed));
+        }
+        shards.sort(Comparator.comparingInt(SeatingShard::size).reversed());
+
+        solve(shards, sessions, rooms);
+
+        SortedMap<ExamSession, SeatingPlan> plans = new TreeMap<>();
+        for (Map.Entry<ExamSession, List<Student>> entry : sessions.entrySet()) {
+            ExamSession session = entry.getKey();
+            List<SeatingShard> sessionShards = shards.stream()
+                    .filter(shard -> shard.session.equals(session))
+                    .collect(Collectors.toList());
+            plans.put(session, merge(session, entry.getValue(), rooms, sessionShards, factory));
+        }
+        return plans;
+    }
+
+    private static Map<String, int[]> roomsByBuilding(List<Room> rooms) {
+        Map<String, List<Integer>> grouped = new LinkedHashMap<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            String building = rooms.get(r).getBuilding();
+            grouped.computeIfAbsent(building == null ? "" : building, b -> new ArrayList<>()).add(r);
+        }
+        Map<String, int[]> buildings = new LinkedHashMap<>();
+        grouped.forEach((building, indices) ->
+                buildings.put(building, indices.stream().mapToInt(Integer::intValue).toArray()));
+        return buildings;
+    }
+
+    /**
+     * Deal a session's students to buildings in proportion to their capacity
+     */
+    private static List<SeatingShard> partition(ExamSession session, List<Student> students, List<Room> rooms,
+                                                Map<String, int[]> buildings, long seed) {
+        String[] names = buildings.keySet().toArray(new String[0]);
+        int buildingCount = names.length;
+        long[] capacity = new long[buildingCount];
+        long total = 0;
+        for (int b = 0; b < buildingCount; b++) {
+            for (int r : buildings.get(names[b])) {
+                capacity[b] += rooms.get(r).getCapacity();
+            }
+            total += capacity[b];
+        }
+        int n = students.size();
+        if (n > total) {
+            throw new IllegalArgumentException("Session " + session + ": Not enough room capacity for all students");
+        }
+
+        // Largest-remainder quotas, never above a building's capacity
+        int[] quota = new int[buildingCount];
+        long[] remainder = new long[buildingCount];
+        int assigned = 0;
+        for (int b = 0; b < buildingCount; b++) {
+            quota[b] = (int) (n * capacity[b] / total);
+            remainder[b] = n * capacity[b] % total;
+            assigned += quota[b];
+        }
+        Integer[] byRemainder = new Integer[buildingCount];
+        for (int b = 0; b < buildingCount; b++) {
+            byRemainder[b] = b;
+        }
+        Arrays.sort(byRemainder, (a, b) -> Long.compare(remainder[b], remainder[a]));
+        for (int k = 0; assigned < n; k = (k + 1) % buildingCount) {
+            int b = byRemainder[k];
+            if (quota[b] < capacity[b]) {
+                quota[b]++;
+                assigned++;
+            }
+        }
+
+        // Students in subject order, dealt so each building sees every subject
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> students.get(i).getExamSubject(),
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        int[] dealt = new int[buildingCount];
+        int[][] members = new int[buildingCount][];
+        PriorityQueue<Integer> next = new PriorityQueue<>((a, b) -> Long.compare(
+                (2L * dealt[a] + 1) * quota[b], (2L * dealt[b] + 1) * quota[a]));
+        for (int b = 0; b < buildingCount; b++) {
+            members[b] = new int[quota[b]];
+            if (quota[b] > 0) {
+                next.add(b);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int b = next.poll();
+            members[b][dealt[b]++] = order[i];
+            if (dealt[b] < quota[b]) {
+                next.add(b);
+            }
+        }
+
+        List<SeatingShard> shards = new ArrayList<>();
+        for (int b = 0; b < buildingCount; b++) {
+            if (quota[b] > 0) {
+                long shardSeed = seed ^ session.hashCode() ^ ((long) names[b].hashCode() << 32);
+                shards.add(new SeatingShard(session, names[b], shardSeed, buildings.get(names[b]), members[b]));
+            }
+        }
+        return shards;
+    }
+
+    private void solve(List<SeatingShard> shards, Map<ExamSession, List<Student>> sessions, List<Room> rooms)
+            throws IOException {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Worker worker : workers) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < shards.size(); i = next.getAndIncrement()) {
+                        SeatingShard shard = shards.get(i);
+                        worker.solve(shard, sessions.get(shard.session), rooms);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shard workers", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Combine a session's shards into one plan, checking global uniqueness
+     */
+    private static SeatingPlan merge(ExamSession session, List<Student> students, List<Room> rooms,
+                                     List<SeatingShard> shards, SeatingPlan.AssignmentFactory factory) {
+        int n = students.size();
+        int[] studentIndex = new int[n];
+        int[] roomIndex = new int[n];
+        short[] seatNumber = new short[n];
+        long[] seated = new long[(n + 63) >>> 6];
+        long[][] taken = new long[rooms.size()][];
+        // Positions are unique per shard; the same ID registered twice could still come back from two shards
+        IdHashSet seatedIds = new IdHashSet(n, i -> students.get(i).getStudentId());
+
+        int size = 0;
+        for (SeatingShard shard : shards) {
+            for (int i = 0; i < shard.placed; i++) {
+                int student = shard.students[shard.placedStudent[i]];
+                int room = shard.rooms[shard.placedRoom[i]];
+                int seat = shard.placedSeat[i];
+                int capacity = rooms.get(room).getCapacity();
+                if (seat < 1 || seat > capacity) {
+                    throw new IllegalStateException("Shard " + shard.name() + ": seat " + seat + " outside room "
+                            + rooms.get(room).getRoomId());
+                }
+                String studentId = students.get(student).getStudentId();
+                if ((seated[student >>> 6] & (1L << student)) != 0
+                        || seatedIds.add(IdHashSet.hash(studentId), student) >= 0) {
+                    throw new IllegalStateException("Session " + session + ": student " + studentId
+                            + " seated twice");
+                }
+                if (taken[room] == null) {
+                    taken[room] = new long[(capacity + 63) >>> 6];
+                }
+                int bit = seat - 1;
+                if ((taken[room][bit >>> 6] & (1L << bit)) != 0) {
+                    throw new IllegalStateException("Session " + session + ": seat " + seat + " of room "
+                            + rooms.get(room).getRoomId() + " assigned twice");
+                }
+                seated[student >>> 6] |= 1L << student;
+                taken[room][bit >>> 6] |= 1L << bit;
+                studentIndex[size] = student;
+                roomIndex[size] = room;
+                seatNumber[size] = (short) seat;
+                size++;
+            }
+        }
+        if (size != n) {
+            throw new IllegalStateException("Session " + session + ": " + (n - size) + " students were not seated");
+        }
+        return new SeatingPlan(students, rooms, studentIndex, roomIndex, seatNumber, size, factory);
+    }
+
+    @Override
+    public void close() {
+        for (Worker worker : workers) {
+            worker.close();
+        }
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+
+        Worker(Process process) {
+            this.process = process;
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream(), 1 << 16));
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream(), 1 << 16));
+        }
+
+        void solve(SeatingShard shard, List<Student> sessionStudents, List<Room> rooms) throws IOException {
+            try {
+                shard.writeRequest(out, sessionStudents, rooms);
+                shard.readResponse(in);
+            } catch (IOException e) {
+                throw new IOException("Shard " + shard.name() + ": worker failed", e);
+            }
+        }
+
+        void close() {
+            try {
+                // Closing stdin ends the worker's request loop
+                out.close();
+                if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.examseating.service;
+
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Shared strings table of a workbook, spooled to temporary files.
+ *
+ * POI's read-only table keeps every distinct string of the workbook on the
+ * heap, which grows with the sheet. Here the strings are written once to a data
+ * file and their offsets to an index file; both are memory-mapped, so lookups
+ * cost one small decode and the heap stays the same size for any workbook.
+ */
+final class SharedStringsSpool implements SharedStrings, AutoCloseable {
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private final int count;
+    private byte[] scratch = new byte[256];
+
+    private SharedStringsSpool(Path dataFile, Path indexFile, int count) throws IOException {
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.count = count;
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            this.index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Spool the sharedStrings.xml part; a null stream gives an empty table
+     */
+    static SharedStringsSpool spool(InputStream sharedStringsXml) throws IOException {
+        Path dataFile = Files.createTempFile("sst", ".data");
+        Path indexFile = Files.createTempFile("sst", ".index");
+        int count = 0;
+        try (DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(
+                     Files.newOutputStream(dataFile), 1 << 16));
+             DataOutputStream indexOut = new DataOutputStream(new BufferedOutputStream(
+                     Files.newOutputStream(indexFile), 1 << 16))) {
+            indexOut.writeInt(0);
+            if (sharedStringsXml != null) {
+                SpoolHandler handler = new SpoolHandler(dataOut, indexOut);
+                XMLReader reader = XMLHelper.newXMLReader();
+                reader.setContentHandler(handler);
+                reader.parse(new InputSource(sharedStringsXml));
+                count = handler.count;
+            }
+        } catch (SAXException | ParserConfigurationException e) {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(indexFile);
+            throw new IOException("Unreadable shared strings table: " + e.getMessage(), e);
+        }
+        return new SharedStringsSpool(dataFile, indexFile, count);
+    }
+
+    /**
+     * String at a table index
+     */
+    String stringAt(int idx) {
+        int start = index.getInt(idx * 4);
+        int end = index.getInt(idx * 4 + 4);
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = data.get(start + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(stringAt(idx));
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(dataFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    /**
+     * Concatenates the text runs of each si element, skipping phonetic runs
+     */
+    private static final class SpoolHandler extends DefaultHandler {
+        private final DataOutputStream dataOut;
+        private final DataOutputStream indexOut;
+        private final StringBuilder text = new StringBuilder();
+        private boolean inText;
+        private boolean inPhonetic;
+        private int count;
+
+        SpoolHandler(DataOutputStream dataOut, DataOutputStream indexOut) {
+            this.dataOut = dataOut;
+            this.indexOut = indexOut;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "si":
+                    text.setLength(0);
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                case "t":
+                    inText = !inPhonetic;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "si":
+                    write();
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "t":
+                    inText = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private void write() throws SAXException {
+            try {
+                byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                dataOut.write(bytes);
+                indexOut.writeInt(dataOut.size());
+                count++;
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+        }
+    }
+}
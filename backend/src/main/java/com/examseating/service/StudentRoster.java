@@ -0,0 +1,151 @@
+package com.examseating.service;
+
+import com.examseating.model.Student;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column-oriented student roster decoded from a memory-mapped CSV file.
+ *
+ * Subjects and sessions are dictionary-encoded and dates are stored as epoch
+ * days, all as int columns. Student IDs and names stay in the mapped file as
+ * (offset, length) int pairs and are only decoded into strings when a row is
+ * read, so a million-row roster costs a few dozen bytes per row and no
+ * per-row objects until {@link Student}s are actually needed.
+ */
+public final class StudentRoster {
+
+    /** Epoch day of a row without a date */
+    static final int NO_DATE = Integer.MIN_VALUE;
+    /** Dictionary id of a missing value */
+    static final int NONE = -1;
+    /** Length flag of a field that contains doubled quotes */
+    static final int ESCAPED = 1 << 31;
+
+    private final ByteBuffer data;
+    private final int size;
+    private final int[] idStart;
+    private final int[] idLength;
+    private final int[] nameStart;
+    private final int[] nameLength;
+    private final int[] subject;
+    private final int[] examDate;
+    private final int[] session;
+    private final List<String> subjects;
+    private final List<String> sessions;
+    private final List<String> issues;
+    private final int issueCount;
+
+    StudentRoster(ByteBuffer data, int size, int[] idStart, int[] idLength, int[] nameStart, int[] nameLength,
+                  int[] subject, int[] examDate, int[] session, List<String> subjects, List<String> sessions,
+                  List<String> issues, int issueCount) {
+        this.data = data;
+        this.size = size;
+        this.idStart = idStart;
+        this.idLength = idLength;
+        this.nameStart = nameStart;
+        this.nameLength = nameLength;
+        this.subject = subject;
+        this.examDate = examDate;
+        this.session = session;
+        this.subjects = Collections.unmodifiableList(subjects);
+        this.sessions = Collections.unmodifiableList(sessions);
+        this.issues = Collections.unmodifiableList(issues);
+        this.issueCount = issueCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String studentIdAt(int i) {
+        return text(data, idStart[i], idLength[i]);
+    }
+
+    public String nameAt(int i) {
+        return text(data, nameStart[i], nameLength[i]);
+    }
+
+    /**
+     * Dictionary id of the row's subject, indexing {@link #getSubjects()}, or -1
+     */
+    public int subjectIdAt(int i) {
+        return subject[i];
+    }
+
+    public String subjectAt(int i) {
+        return subject[i] == NONE ? null : subjects.get(subject[i]);
+    }
+
+    public LocalDate examDateAt(int i) {
+        return examDate[i] == NO_DATE ? null : LocalDate.ofEpochDay(examDate[i]);
+    }
+
+    public String sessionAt(int i) {
+        return session[i] == NONE ? null : sessions.get(session[i]);
+    }
+
+    public List<String> getSubjects() {
+        return subjects;
+    }
+
+    public List<String> getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Problems with skipped rows; only the first few are kept
+     */
+    public List<String> getIssues() {
+        return issues;
+    }
+
+    /**
+     * Number of skipped rows
+     */
+    public int getIssueCount() {
+        return issueCount;
+    }
+
+    /**
+     * Student entity for a row, created on each call
+     */
+    public Student studentAt(int i) {
+        Student student = new Student();
+        student.setStudentId(studentIdAt(i));
+        student.setName(nameAt(i));
+        student.setExamSubject(subjectAt(i));
+        student.setExamDate(examDateAt(i));
+        student.setSession(sessionAt(i));
+        return student;
+    }
+
+    /**
+     * All rows as entities, created once, for the list-based seating engines
+     */
+    public List<Student> toStudents() {
+        List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(studentAt(i));
+        }
+        return students;
+    }
+
+    /**
+     * Decode a field of the mapped file, undoubling quotes if flagged
+     */
+    static String text(ByteBuffer data, int start, int lengthAndFlag) {
+        int length = lengthAndFlag & ~ESCAPED;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = data.duplicate();
+        view.position(start);
+        view.get(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return (lengthAndFlag & ESCAPED) != 0 ? value.replace("\"\"", "\"") : value;
+    }
+}
@@ -0,0 +1,114 @@
+package com.examseating.service;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams the rows of the first sheet of an .xlsx file.
+ *
+ * The sheet XML is read with POI's SAX-based event reader, so only the
+ * current row is ever held in memory. Cells are passed as raw text with no
+ * number formatting: numbers appear as stored (dates as Excel serial numbers)
+ * and strings come from a {@link SharedStringsSpool}.
+ */
+final class XlsxRowReader {
+
+    /**
+     * Receives rows in sheet order
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        /**
+         * @param rowNumber 0-based sheet row
+         * @param cells Cell text by column index, null for empty cells; reused between rows
+         */
+        void row(int rowNumber, List<String> cells);
+    }
+
+    private XlsxRowReader() {
+    }
+
+    static void read(Path xlsx, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(xlsx.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            try (SharedStringsSpool strings = SharedStringsSpool.spool(sharedStringsData(reader))) {
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(null, strings, new Rows(handler), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (InvalidFormatException e) {
+            throw new IllegalArgumentException("Not a valid .xlsx file: " + e.getMessage(), e);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read spreadsheet: " + e.getMessage(), e);
+        }
+    }
+
+    private static InputStream sharedStringsData(XSSFReader reader) throws IOException {
+        try {
+            return reader.getSharedStringsData();
+        } catch (InvalidFormatException e) {
+            // Workbooks with only numbers and inline strings have no table
+            return null;
+        }
+    }
+
+    private static final class Rows implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private int nextColumn;
+
+        Rows(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            String value = formattedValue == null || formattedValue.trim().isEmpty() ? null : formattedValue.trim();
+            if (cells.size() == column) {
+                cells.add(value);
+            } else {
+                cells.set(column, value);
+            }
+            nextColumn = column + 1;
+        }
+    }
+}
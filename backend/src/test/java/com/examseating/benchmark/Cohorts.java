@@ -0,0 +1,71 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic rosters shared by the benchmarks and the scaling tests
+ */
+public final class Cohorts {
+
+    public static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "Biology", "English",
+            "History", "Geography", "Economics", "Computer Science", "Statistics", "Accounting", "Hindi"};
+
+    private Cohorts() {
+    }
+
+    /**
+     * Students with IDs STU000000 upwards, over the first {@code subjects} subjects
+     */
+    public static List<Student> students(int count, int subjects, long seed) {
+        Random random = new Random(seed);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = String.format("STU%06d", i);
+            students.add(new Student(id, "Student " + i, "R" + id, "Class " + (i % 12 + 1), "A",
+                    SUBJECTS[random.nextInt(subjects)]));
+        }
+        return students;
+    }
+
+    /**
+     * Rooms of 20 to 120 seats on 5-column grids, with at least {@code seats} seats in all
+     */
+    public static List<Room> rooms(int seats, long seed) {
+        Random random = new Random(seed);
+        List<Room> rooms = new ArrayList<>();
+        int capacity = 0;
+        while (capacity < seats) {
+            int rows = 4 + random.nextInt(21);
+            Room room = new Room(String.format("ROOM%05d", rooms.size()), "Room " + rooms.size(), rows * 5, rows, 5);
+            rooms.add(room);
+            capacity += room.getCapacity();
+        }
+        return rooms;
+    }
+
+    public static Exam exam() {
+        Exam exam = new Exam();
+        exam.setId(1L);
+        exam.setExamId("EXAM001");
+        exam.setSubject("Mathematics");
+        return exam;
+    }
+
+    /**
+     * Silence the services' console logging, which would otherwise dominate the timings;
+     * returns the stream to restore
+     */
+    public static PrintStream quiet() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return out;
+    }
+}
@@ -0,0 +1,124 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Student;
+import com.examseating.service.CsvRosterReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Students CSV parsing: the mapped, chunked reader on all cores and on one,
+ * against reading lines and splitting them into {@link Student} entities.
+ *
+ * Run with {@code ./benchmark.sh CsvRosterReaderBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CsvRosterReaderBenchmark {
+
+    @Param({"100000", "1000000"})
+    int students;
+
+    private Path csv;
+    private ForkJoinPool singleThread;
+    private CsvRosterReader parallelReader;
+    private CsvRosterReader serialReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csv = Files.createTempFile("students", ".csv");
+        Random random = new Random(1);
+        LocalDate first = LocalDate.of(2025, 3, 3);
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("Student ID,Student Name,Student Exam,Date\n");
+            for (int i = 0; i < students; i++) {
+                out.write(String.format("STU%07d,\"Student %d, %s\",%s,%s%n", i, i, i % 2 == 0 ? "Jr" : "Sr",
+                        Cohorts.SUBJECTS[random.nextInt(Cohorts.SUBJECTS.length)], first.plusDays(random.nextInt(10))));
+            }
+        }
+        singleThread = new ForkJoinPool(1);
+        parallelReader = new CsvRosterReader(ForkJoinPool.commonPool());
+        serialReader = new CsvRosterReader(singleThread);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        singleThread.shutdown();
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public int mappedParallel() throws IOException {
+        return parallelReader.readStudents(csv).size();
+    }
+
+    @Benchmark
+    public int mappedSingleThread() throws IOException {
+        return serialReader.readStudents(csv).size();
+    }
+
+    @Benchmark
+    public int readLineSplit() throws IOException {
+        List<Student> roster = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            in.readLine();
+            String line;
+            while ((line = in.readLine()) != null) {
+                List<String> fields = splitQuoted(line);
+                Student student = new Student();
+                student.setStudentId(fields.get(0));
+                student.setName(fields.get(1));
+                student.setExamSubject(fields.get(2));
+                student.setExamDate(LocalDate.parse(fields.get(3)));
+                roster.add(student);
+            }
+        }
+        return roster.size();
+    }
+
+    private static List<String> splitQuoted(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
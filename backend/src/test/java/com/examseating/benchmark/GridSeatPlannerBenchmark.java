@@ -0,0 +1,63 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Student;
+import com.examseating.service.GridSeatPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Laying out one 1,000-seat hall (40 rows of 25) on its grid, full and with a
+ * tenth of the seats spare, for cohorts of 1 to 12 subjects drawn at random.
+ *
+ * Run with {@code ./benchmark.sh GridSeatPlannerBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GridSeatPlannerBenchmark {
+
+    private static final int ROWS = 40;
+    private static final int COLUMNS = 25;
+
+    @Param({"1", "4", "8", "12"})
+    int subjects;
+
+    @Param({"900", "1000"})
+    int students;
+
+    private final GridSeatPlanner planner = new GridSeatPlanner(42L);
+    private int[] subjectIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Student> cohort = Cohorts.students(students, subjects, 1);
+        Map<String, Integer> ids = new HashMap<>();
+        subjectIds = new int[students];
+        for (int i = 0; i < students; i++) {
+            subjectIds[i] = ids.computeIfAbsent(cohort.get(i).getExamSubject(), s -> ids.size());
+        }
+    }
+
+    @Benchmark
+    public GridSeatPlanner.Layout hall() {
+        return planner.place(ROWS * COLUMNS, COLUMNS, subjectIds, subjects);
+    }
+}
@@ -0,0 +1,80 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.Student;
+import com.examseating.service.RoomSelectionStrategy;
+import com.examseating.service.SeatingAlgorithmService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seating a cohort in rooms chosen by each selection strategy, over catalogs of
+ * 10 to 2000 rooms. The cohort fills about 60% of the catalog, so the packing
+ * strategies have to choose among the rooms; ASCENDING_CAPACITY skips the
+ * choice and is the baseline for what the packing adds.
+ *
+ * Run with {@code ./benchmark.sh RoomPackerBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RoomPackerBenchmark {
+
+    @Param({"10", "100", "500", "2000"})
+    int catalog;
+
+    @Param({"ASCENDING_CAPACITY", "BEST_FIT_DECREASING", "EXACT"})
+    RoomSelectionStrategy strategy;
+
+    private final SeatingAlgorithmService service = new SeatingAlgorithmService();
+    private final Exam exam = Cohorts.exam();
+    private List<Student> cohort;
+    private List<Room> rooms;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = Cohorts.quiet();
+        Random random = new Random(2);
+        rooms = new ArrayList<>(catalog);
+        int capacity = 0;
+        for (int i = 0; i < catalog; i++) {
+            int rows = 4 + random.nextInt(21);
+            rooms.add(new Room(String.format("ROOM%05d", i), "Room " + i, rows * 5, rows, 5));
+            capacity += rows * 5;
+        }
+        cohort = Cohorts.students(capacity * 3 / 5, 8, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public SeatingArrangement select() {
+        return service.generateSeatingArrangement(exam, cohort, rooms, 42L, strategy);
+    }
+}
@@ -0,0 +1,119 @@
+package com.examseating.benchmark;
+
+import com.examseating.ExamSeatingApplication;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.Student;
+import com.examseating.service.SeatingAlgorithmService;
+import com.examseating.service.SeatingBulkWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persisting an arrangement into the in-memory H2 database: through
+ * {@link SeatingBulkWriter}, and through JPA by cascading a materialised
+ * arrangement with Hibernate's insert batching. Rows written per invocation
+ * are deleted between invocations.
+ *
+ * Run with {@code ./benchmark.sh SeatingBulkWriteBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SeatingBulkWriteBenchmark {
+
+    @Param({"10000", "100000"})
+    int students;
+
+    private ConfigurableApplicationContext context;
+    private SeatingBulkWriter writer;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transaction;
+    private JdbcTemplate jdbcTemplate;
+    private SeatingArrangement planned;
+    private List<Student> cohort;
+    private List<Room> rooms;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = Cohorts.quiet();
+        context = new SpringApplicationBuilder(ExamSeatingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "logging.level.com.examseating=WARN",
+                        "catalog.cache.warm-up=false")
+                .run();
+        writer = context.getBean(SeatingBulkWriter.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        cohort = Cohorts.students(students, 8, 1);
+        rooms = Cohorts.rooms(students, 2);
+        planned = new SeatingAlgorithmService().generateGridAwareSeatingArrangement(Cohorts.exam(), cohort, rooms, 42L);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clear() {
+        jdbcTemplate.update("delete from seating_assignments");
+        jdbcTemplate.update("delete from seating_arrangements");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public Object bulkWriter() {
+        return writer.write(planned).get("rows");
+    }
+
+    @Benchmark
+    public int jpaCascade() {
+        // Entities are built inside the timing, as a JPA caller would have to
+        SeatingArrangement arrangement = new SeatingArrangement();
+        arrangement.setExamId(planned.getExamId());
+        arrangement.setTotalStudents(planned.getTotalStudents());
+        arrangement.setTotalRooms(planned.getTotalRooms());
+        arrangement.setGeneratedAt(planned.getGeneratedAt());
+        arrangement.setAssignments(planned.getPlan().toAssignments());
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            transaction.executeWithoutResult(status -> {
+                entityManager.joinTransaction();
+                entityManager.persist(arrangement);
+                entityManager.flush();
+            });
+        } finally {
+            entityManager.close();
+        }
+        return arrangement.getAssignments().size();
+    }
+}
@@ -0,0 +1,95 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+import com.examseating.service.SeatingAlgorithmService;
+import com.examseating.service.SeatingCsvExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming CSV export of a compact plan against materialising the assignments
+ * and building the CSV as a string. Run with
+ * {@code ./benchmark.sh SeatingCsvExportBenchmark -prof gc} to compare allocation too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SeatingCsvExportBenchmark {
+
+    @Param({"10000", "100000", "300000", "1000000"})
+    int students;
+
+    private final SeatingCsvExporter exporter = new SeatingCsvExporter();
+    private final Exam exam = Cohorts.exam();
+    private final WritableByteChannel sink = Channels.newChannel(OutputStream.nullOutputStream());
+    private SeatingPlan plan;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = Cohorts.quiet();
+        plan = new SeatingAlgorithmService().generateCompactSeatingArrangement(exam,
+                Cohorts.students(students, 8, 1), Cohorts.rooms(students, 2), 42L).getPlan();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        return exporter.export(plan, exam, sink);
+    }
+
+    @Benchmark
+    public int materialised() throws IOException {
+        Map<String, Student> students = new HashMap<>();
+        plan.getStudents().forEach(student -> students.put(student.getStudentId(), student));
+        Map<String, Room> rooms = new HashMap<>();
+        plan.getRooms().forEach(room -> rooms.put(room.getRoomId(), room));
+        StringBuilder csv = new StringBuilder("Student ID,Student Name,Student Exam,Date,Room No,Room Name,"
+                + "Seat No,Row,Column,Room Capacity,Room Layout\n");
+        for (SeatingAssignment assignment : plan.toAssignments()) {
+            Student student = students.get(assignment.getStudentId());
+            Room room = rooms.get(assignment.getRoomId());
+            csv.append(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%d,%d,%d,%d,\"%dx%d\"%n",
+                    assignment.getStudentId(), student.getName(), assignment.getExamSubject(),
+                    exam.getExamDate(), room.getRoomId(),
+                    room.getName(), assignment.getSeatNumber(), assignment.getRow(), assignment.getColumn(),
+                    room.getCapacity(), room.getRows(), room.getColumns()));
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        sink.write(ByteBuffer.wrap(bytes));
+        return bytes.length;
+    }
+}
@@ -0,0 +1,82 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.Student;
+import com.examseating.service.SeatingAlgorithmService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List-based seating against the compact engine, which gives the same placements.
+ * The compact result is measured with its assignments materialised, as when it
+ * is persisted or serialised. The grid-aware arrangement adds the per-room
+ * layout to the compact plan.
+ *
+ * Run with {@code ./benchmark.sh SeatingEngineBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SeatingEngineBenchmark {
+
+    @Param({"10000", "100000", "300000"})
+    int students;
+
+    private final SeatingAlgorithmService service = new SeatingAlgorithmService();
+    private final Exam exam = Cohorts.exam();
+    private List<Student> cohort;
+    private List<Room> rooms;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = Cohorts.quiet();
+        cohort = Cohorts.students(students, 8, 1);
+        rooms = Cohorts.rooms(students, 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public SeatingArrangement listBased() {
+        return service.generateSeatingArrangement(exam, cohort, rooms, 42L);
+    }
+
+    @Benchmark
+    public int compact() {
+        return service.generateCompactSeatingArrangement(exam, cohort, rooms, 42L).getAssignments().size();
+    }
+
+    @Benchmark
+    public SeatingArrangement compactPlanOnly() {
+        return service.generateCompactSeatingArrangement(exam, cohort, rooms, 42L);
+    }
+
+    @Benchmark
+    public SeatingArrangement gridAware() {
+        return service.generateGridAwareSeatingArrangement(exam, cohort, rooms, 42L);
+    }
+}
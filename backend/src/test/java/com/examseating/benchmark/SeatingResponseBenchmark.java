@@ -0,0 +1,148 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.Student;
+import com.examseating.service.SeatingAlgorithmService;
+import com.examseating.service.SeatingResponseWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The /api/seating response: streamed from the compact plan, streamed from
+ * materialised assignments, and built as it was before, with a stream scan of
+ * all students and rooms per seat and a map per seat. The old way is
+ * quadratic, so it has its own roster state and stops at 20000 students while
+ * the streamed paths go up to 200000.
+ *
+ * Run with {@code ./benchmark.sh SeatingResponseBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SeatingResponseBenchmark {
+
+    /**
+     * A seated cohort, as a compact plan and as materialised assignments
+     */
+    public abstract static class Roster {
+        final SeatingResponseWriter writer = new SeatingResponseWriter();
+        final ObjectMapper mapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        final OutputStream sink = OutputStream.nullOutputStream();
+        List<Student> cohort;
+        List<Room> rooms;
+        SeatingArrangement planned;
+        SeatingArrangement materialised;
+        private PrintStream out;
+
+        void load(int students) {
+            out = Cohorts.quiet();
+            cohort = Cohorts.students(students, 8, 1);
+            rooms = Cohorts.rooms(students, 2);
+            SeatingAlgorithmService service = new SeatingAlgorithmService();
+            planned = service.generateGridAwareSeatingArrangement(Cohorts.exam(), cohort, rooms, 42L);
+            materialised = new SeatingArrangement();
+            materialised.setTotalStudents(planned.getTotalStudents());
+            materialised.setGeneratedAt(planned.getGeneratedAt());
+            materialised.setAssignments(planned.getPlan().toAssignments());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            System.setOut(out);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Streamed extends Roster {
+        @Param({"2000", "20000", "200000"})
+        int students;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            load(students);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Scanned extends Roster {
+        @Param({"2000", "20000"})
+        int scannedStudents;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            load(scannedStudents);
+        }
+    }
+
+    @Benchmark
+    public long streamedFromPlan(Streamed roster) throws IOException {
+        return roster.writer.write(roster.planned, roster.cohort, roster.rooms, 42L, roster.sink);
+    }
+
+    @Benchmark
+    public long streamedFromAssignments(Streamed roster) throws IOException {
+        return roster.writer.write(roster.materialised, roster.cohort, roster.rooms, 42L, roster.sink);
+    }
+
+    @Benchmark
+    public int scannedPerSeat(Scanned roster) throws IOException {
+        List<Student> cohort = roster.cohort;
+        List<Room> rooms = roster.rooms;
+        SeatingArrangement materialised = roster.materialised;
+        List<Map<String, Object>> seating = new ArrayList<>();
+        for (SeatingAssignment assignment : materialised.getAssignments()) {
+            Student student = cohort.stream()
+                    .filter(s -> s.getStudentId().equals(assignment.getStudentId()))
+                    .findFirst().orElse(null);
+            Room room = rooms.stream()
+                    .filter(r -> r.getRoomId().equals(assignment.getRoomId()))
+                    .findFirst().orElse(null);
+            if (student != null && room != null) {
+                Map<String, Object> seat = new HashMap<>();
+                seat.put("studentId", student.getStudentId());
+                seat.put("studentName", student.getName());
+                seat.put("studentExam", "Mathematics");
+                seat.put("date", "2024-12-20");
+                seat.put("roomNo", room.getRoomId());
+                seat.put("roomName", room.getName());
+                seat.put("seatNo", assignment.getSeatNumber());
+                seat.put("row", assignment.getRow());
+                seat.put("column", assignment.getColumn());
+                seat.put("roomCapacity", room.getCapacity());
+                seat.put("roomLayout", room.getRows() + "x" + room.getColumns());
+                seating.add(seat);
+            }
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("seatingArrangement", seating);
+        response.put("totalStudents", materialised.getTotalStudents());
+        roster.mapper.writeValue(roster.sink, response);
+        return seating.size();
+    }
+}
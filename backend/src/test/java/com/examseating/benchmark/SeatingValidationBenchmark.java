@@ -0,0 +1,90 @@
+package com.examseating.benchmark;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+import com.examseating.model.ValidationReport;
+import com.examseating.service.SeatingInputValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input validation before seating: the one-pass {@link SeatingInputValidator}
+ * on the common pool, against the HashSet checks it replaced, which stopped
+ * at the first problem and checked only nulls, duplicate IDs and capacity.
+ *
+ * Run with {@code ./benchmark.sh SeatingValidationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SeatingValidationBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    int students;
+
+    private final SeatingInputValidator validator = new SeatingInputValidator(ForkJoinPool.commonPool());
+    private final Exam exam = Cohorts.exam();
+    private List<Student> cohort;
+    private List<Room> rooms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cohort = Cohorts.students(students, 8, 1);
+        rooms = Cohorts.rooms(students, 2);
+    }
+
+    @Benchmark
+    public ValidationReport onePass() {
+        return validator.validate(exam, cohort, rooms);
+    }
+
+    @Benchmark
+    public int hashSets() {
+        if (exam == null) {
+            throw new IllegalArgumentException("Exam cannot be null");
+        }
+        if (cohort == null || cohort.isEmpty()) {
+            throw new IllegalArgumentException("Students list cannot be null or empty");
+        }
+        if (rooms == null || rooms.isEmpty()) {
+            throw new IllegalArgumentException("Rooms list cannot be null or empty");
+        }
+        Set<String> studentIds = new HashSet<>();
+        for (Student student : cohort) {
+            if (!studentIds.add(student.getStudentId())) {
+                throw new IllegalArgumentException("Duplicate student ID found: " + student.getStudentId());
+            }
+        }
+        Set<String> roomIds = new HashSet<>();
+        for (Room room : rooms) {
+            if (!roomIds.add(room.getRoomId())) {
+                throw new IllegalArgumentException("Duplicate room ID found: " + room.getRoomId());
+            }
+        }
+        int totalCapacity = rooms.stream().mapToInt(Room::getCapacity).sum();
+        if (cohort.size() > totalCapacity) {
+            throw new IllegalArgumentException("Not enough room capacity for all students");
+        }
+        return totalCapacity;
+    }
+}
@@ -0,0 +1,78 @@
+package com.examseating.controller;
+
+import com.examseating.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against its own empty database, so the mock roster (STU001 to STU020) is seated
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:seat-lookup")
+@AutoConfigureMockMvc
+class SeatLookupControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SpyBean
+    private StudentRepository studentRepository;
+
+    @Test
+    void resolvesJsonAndLineSeparatedBatchesFromOneLookup() throws Exception {
+        MvcResult json = mvc.perform(post("/api/seating/lookup").contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"STU001\", \"NOPE\", \"STU020\"]"))
+                .andExpect(status().isOk()).andReturn();
+        mvc.perform(asyncDispatch(json))
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.found").value(2))
+                .andExpect(jsonPath("$.seats[0][0]").value(startsWith("ROOM")))
+                .andExpect(jsonPath("$.seats[0].length()").value(4))
+                .andExpect(jsonPath("$.seats[1]").doesNotExist())
+                .andExpect(jsonPath("$.seats[2].length()").value(4));
+
+        MvcResult text = mvc.perform(post("/api/seating/lookup").contentType(MediaType.TEXT_PLAIN)
+                        .content("STU001\n\n  STU002 \r\nNOPE\n"))
+                .andExpect(status().isOk()).andReturn();
+        mvc.perform(asyncDispatch(text))
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.found").value(2));
+
+        // The roster is unchanged, so only the first batch loaded it
+        verify(studentRepository, atMost(1)).findActiveWithRequirements();
+    }
+
+    @Test
+    void rejectsBatchesOverTheLimit() throws Exception {
+        String ids = String.join(",", Collections.nCopies(10_001, "\"STU001\""));
+        MvcResult json = mvc.perform(post("/api/seating/lookup").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + ids + "]"))
+                .andReturn();
+        mvc.perform(asyncDispatch(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("At most 10000")));
+
+        MvcResult text = mvc.perform(post("/api/seating/lookup").contentType(MediaType.TEXT_PLAIN)
+                        .content(String.join("\n", Collections.nCopies(10_001, "STU001"))))
+                .andReturn();
+        mvc.perform(asyncDispatch(text))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,70 @@
+package com.examseating.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SeatTokenSecurityTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void issuingTokensNeedsAuthentication() throws Exception {
+        mvc.perform(get("/api/seating/token/STU001")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/seating/qr-codes")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/seating/token/STU001/")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/seating/qr-codes/")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void issuingTokensNeedsAdmin() throws Exception {
+        mvc.perform(get("/api/seating/token/STU001")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void evictingTheCatalogCacheNeedsAdmin() throws Exception {
+        mvc.perform(post("/api/catalog/cache/evict")).andExpect(status().isForbidden());
+        mvc.perform(post("/api/catalog/cache/evict/")).andExpect(status().isForbidden());
+        mvc.perform(get("/api/catalog/cache")).andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminEvictsTheCatalogCache() throws Exception {
+        mvc.perform(post("/api/catalog/cache/evict").param("roomId", "ROOM001"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.success").value(true));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminIssuesTokensThatVerify() throws Exception {
+        String body = mvc.perform(get("/api/seating/token/STU001"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = body.replaceAll(".*\"token\":\"([A-Z2-7]+)\".*", "$1");
+
+        mvc.perform(get("/api/seating/verify").param("token", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.status").value("VALID"))
+                .andExpect(jsonPath("$.studentId").value("STU001"))
+                .andExpect(jsonPath("$.validUntil").value(body.replaceAll(".*\"validUntil\":\"([^\"]+)\".*", "$1")));
+        mvc.perform(get("/api/seating/verify").param("token", token.substring(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.studentId").doesNotExist());
+    }
+}
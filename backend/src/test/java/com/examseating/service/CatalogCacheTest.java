@@ -0,0 +1,107 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.repository.ExamRepository;
+import com.examseating.repository.RoomRepository;
+import com.examseating.repository.RoomSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheTest {
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ExamRepository examRepository;
+
+    @InjectMocks
+    private CatalogCache catalogCache;
+
+    @Test
+    void countsHitsAndMissesAndLoadsOnce() {
+        when(roomRepository.findActiveWithFacilities()).thenReturn(Arrays.asList(
+                new Room("ROOM002", "Annexe", 20, 4, 5), new Room("ROOM001", "Main Hall", 50, 10, 5)));
+
+        assertEquals("ROOM001", catalogCache.getRooms().get(0).getRoomId());
+        assertEquals("Annexe", catalogCache.getRoom("ROOM002").get().getName());
+        assertFalse(catalogCache.getRoom("ROOM009").isPresent());
+        assertEquals("ROOM002", catalogCache.getRoomPage("ROOM001", 10).get(0).getRoomId());
+
+        verify(roomRepository, times(1)).findActiveWithFacilities();
+        Map<String, Object> stats = rooms();
+        assertEquals(true, stats.get("loaded"));
+        assertEquals(2, stats.get("size"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(3L, stats.get("hits"));
+        assertEquals(0.75, stats.get("hitRate"));
+    }
+
+    @Test
+    void refreshPatchesOnlyTheNamedRoom() {
+        Room hall = new Room("ROOM001", "Main Hall", 50, 10, 5);
+        Room annexe = new Room("ROOM002", "Annexe", 20, 4, 5);
+        when(roomRepository.findActiveWithFacilities()).thenReturn(Arrays.asList(hall, annexe));
+        String version = catalogCache.getRoomsVersion();
+
+        when(roomRepository.findActiveWithFacilities("ROOM002"))
+                .thenReturn(Optional.of(new Room("ROOM002", "Annexe (refitted)", 24, 4, 6)));
+        catalogCache.evictRoom("ROOM002");
+
+        assertEquals("Annexe (refitted)", catalogCache.getRoom("ROOM002").get().getName());
+        RoomSummary row = catalogCache.getRoomPage("ROOM001", 1).get(0);
+        assertEquals(24, row.getCapacity());
+        assertSame(hall, catalogCache.getRoom("ROOM001").get());
+        assertNotEquals(version, catalogCache.getRoomsVersion());
+
+        // A room deactivated since is dropped from the snapshot
+        when(roomRepository.findActiveWithFacilities("ROOM001")).thenReturn(Optional.empty());
+        catalogCache.evictRoom("ROOM001");
+        assertFalse(catalogCache.getRoom("ROOM001").isPresent());
+        assertEquals(1, catalogCache.getRooms().size());
+
+        verify(roomRepository, times(1)).findActiveWithFacilities();
+        assertEquals(2L, rooms().get("evictions"));
+    }
+
+    @Test
+    void invalidateReloadsOnTheNextRead() {
+        when(roomRepository.findActiveWithFacilities())
+                .thenReturn(Arrays.asList(new Room("ROOM001", "Main Hall", 50, 10, 5)))
+                .thenReturn(Arrays.asList(new Room("ROOM001", "Main Hall", 50, 10, 5),
+                        new Room("ROOM003", "Lab", 30, 6, 5)));
+        assertEquals(1, catalogCache.getRooms().size());
+
+        catalogCache.evictRooms();
+        Map<String, Object> stats = rooms();
+        assertEquals(false, stats.get("loaded"));
+        assertEquals(1L, stats.get("invalidations"));
+
+        assertEquals(2, catalogCache.getRooms().size());
+        assertTrue(catalogCache.getRoom("ROOM003").isPresent());
+        verify(roomRepository, times(2)).findActiveWithFacilities();
+        assertEquals(2L, rooms().get("misses"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> rooms() {
+        return (Map<String, Object>) catalogCache.stats().get("rooms");
+    }
+}
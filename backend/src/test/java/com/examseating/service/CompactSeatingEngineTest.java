@@ -0,0 +1,60 @@
+package com.examseating.service;
+
+import com.examseating.benchmark.Cohorts;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.Student;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The compact engine must place every student exactly where the list-based
+ * algorithm does for the same seed
+ */
+class CompactSeatingEngineTest {
+
+    private final SeatingAlgorithmService service = new SeatingAlgorithmService();
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 1, 0",
+            "2, 2, 1",
+            "37, 3, 42",
+            "500, 5, -7",
+            "1000, 1, 3",
+            "4999, 12, 123456789",
+            "20000, 8, 2024"})
+    void placesEveryStudentLikeTheListBasedAlgorithm(int count, int subjects, long seed) {
+        List<Student> students = Cohorts.students(count, subjects, seed);
+        List<Room> rooms = Cohorts.rooms(count + (int) Math.floorMod(seed, 50L), seed);
+
+        List<SeatingAssignment> expected;
+        List<SeatingAssignment> actual;
+        PrintStream out = Cohorts.quiet();
+        try {
+            expected = service.generateSeatingArrangement(Cohorts.exam(), students, rooms, seed).getAssignments();
+            actual = service.generateCompactSeatingArrangement(Cohorts.exam(), students, rooms, seed).getAssignments();
+        } finally {
+            System.setOut(out);
+        }
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            SeatingAssignment e = expected.get(i);
+            SeatingAssignment a = actual.get(i);
+            String where = "assignment " + i + " (" + e.getStudentId() + ")";
+            assertEquals(e.getStudentId(), a.getStudentId(), where);
+            assertEquals(e.getRoomId(), a.getRoomId(), where);
+            assertEquals(e.getSeatNumber(), a.getSeatNumber(), where);
+            assertEquals(e.getRow(), a.getRow(), where);
+            assertEquals(e.getColumn(), a.getColumn(), where);
+            assertEquals(e.getExamSubject(), a.getExamSubject(), where);
+            assertEquals(e.getQrCode(), a.getQrCode(), where);
+        }
+    }
+}
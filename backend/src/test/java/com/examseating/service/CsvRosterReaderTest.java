@@ -0,0 +1,67 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRosterReaderTest {
+
+    private final CsvRosterReader reader = new CsvRosterReader(ForkJoinPool.commonPool());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void skipsAndReportsBadRoomRows() throws IOException {
+        Path csv = write("Room No,Room Name,Number of Seats,Seat Matrix (Rows x Columns)\n"
+                + "ROOM001,Main Hall A,25,5x5\n"
+                + "ROOM002,Main Hall B,lots,9x5\n"
+                + ",Nameless,30,6x5\n"
+                + "ROOM004,Lab,20,square\n"
+                + "\n"
+                + "ROOM005,\"Hall \"\"C\"\"\",,4x6\n");
+
+        RoomRoster roster = reader.readRooms(csv);
+
+        List<Room> rooms = roster.getRooms();
+        assertEquals(2, rooms.size());
+        assertEquals("ROOM001", rooms.get(0).getRoomId());
+        assertEquals("Hall \"C\"", rooms.get(1).getName());
+        assertEquals(24, rooms.get(1).getCapacity());
+        assertEquals(3, roster.getIssueCount());
+        assertTrue(roster.getIssues().get(0).startsWith("Row 2: not a number"), roster.getIssues().get(0));
+        assertEquals("Row 3: missing room number", roster.getIssues().get(1));
+        assertTrue(roster.getIssues().get(2).startsWith("Row 4: not a rows x columns layout"), roster.getIssues().get(2));
+    }
+
+    @Test
+    void readsTheStudentTemplate() throws IOException {
+        Path csv = write("Student ID,Student Name,Student Exam,Date\n"
+                + "STU001,\"Doe, John\",Mathematics,2024-12-20\n"
+                + ",No ID,Physics,2024-12-20\n"
+                + "STU003,Jane Smith,Physics,20/12/2024\n");
+
+        StudentRoster roster = reader.readStudents(csv);
+
+        assertEquals(2, roster.size());
+        assertEquals("Doe, John", roster.studentAt(0).getName());
+        assertEquals("2024-12-20", roster.studentAt(1).getExamDate().toString());
+        assertEquals(1, roster.getIssueCount());
+    }
+
+    private Path write(String content) throws IOException {
+        Path csv = Files.createTempFile(dir, "roster", ".csv");
+        Files.write(csv, content.getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+}
@@ -0,0 +1,86 @@
+package com.examseating.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Each case has a layout without same-subject neighbours: every subject fits in
+ * the seat classes (row % 2, column % 2), which no two neighbours share
+ */
+class GridSeatPlannerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "40, 25, 240 260 240 260",
+            "40, 25, 125 125 125 125 125 125 125 125",
+            "40, 25, 250 200 150 100",
+            "40, 25, 240",
+            "7, 5, 12 8 9 6",
+            "7, 5, 9 12 6 8",
+            "9, 7, 20 15 10 5 4",
+            "1, 8, 4 4",
+            "13, 1, 4 3 3 3",
+            "6, 6, 9 9 9"})
+    void leavesNoSameSubjectNeighboursWhenATilingExists(int rows, int columns, String counts) {
+        int[] perSubject = Arrays.stream(counts.split(" ")).mapToInt(Integer::parseInt).toArray();
+        int[] subjects = new int[Arrays.stream(perSubject).sum()];
+        int k = 0;
+        for (int s = 0; s < perSubject.length; s++) {
+            for (int i = 0; i < perSubject[s]; i++) {
+                subjects[k++] = s;
+            }
+        }
+        // Shuffle so input order says nothing about the layout
+        Random random = new Random(rows * 31L + columns);
+        for (int i = subjects.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = subjects[i];
+            subjects[i] = subjects[j];
+            subjects[j] = t;
+        }
+        int seats = rows * columns;
+
+        GridSeatPlanner.Layout layout = new GridSeatPlanner(1L).place(seats, columns, subjects, perSubject.length);
+
+        int[] seatSubject = new int[seats];
+        Arrays.fill(seatSubject, -1);
+        Set<Integer> taken = new HashSet<>();
+        for (int i = 0; i < subjects.length; i++) {
+            int seat = layout.getSeatNumbers()[i];
+            assertTrue(seat >= 1 && seat <= seats && taken.add(seat), "bad or repeated seat " + seat);
+            seatSubject[seat - 1] = subjects[i];
+        }
+        assertEquals(0, violations(seatSubject, columns));
+        assertEquals(0, layout.getViolations());
+    }
+
+    private static int violations(int[] seatSubject, int columns) {
+        int pairs = 0;
+        for (int seat = 0; seat < seatSubject.length; seat++) {
+            int row = seat / columns;
+            int col = seat % columns;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int r = row + dr;
+                    int c = col + dc;
+                    int other = r * columns + c;
+                    if ((dr == 0 && dc == 0) || r < 0 || c < 0 || c >= columns || other >= seatSubject.length) {
+                        continue;
+                    }
+                    if (seatSubject[seat] >= 0 && seatSubject[seat] == seatSubject[other]) {
+                        pairs++;
+                    }
+                }
+            }
+        }
+        return pairs / 2;
+    }
+}
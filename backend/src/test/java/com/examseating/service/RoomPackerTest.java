@@ -0,0 +1,94 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomPackerTest {
+
+    @Test
+    void exactMatchesBruteForceOnSmallCatalogs() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 300; trial++) {
+            List<Room> rooms = rooms(1 + random.nextInt(14), random);
+            int total = rooms.stream().mapToInt(Room::getCapacity).sum();
+            int demand = 1 + random.nextInt(total);
+
+            // Fewest rooms, then least capacity, over every subset
+            int bestCount = Integer.MAX_VALUE;
+            int bestCapacity = Integer.MAX_VALUE;
+            for (int mask = 1; mask < 1 << rooms.size(); mask++) {
+                int capacity = capacity(rooms, mask);
+                int count = Integer.bitCount(mask);
+                if (capacity >= demand && (count < bestCount || (count == bestCount && capacity < bestCapacity))) {
+                    bestCount = count;
+                    bestCapacity = capacity;
+                }
+            }
+
+            int[] exact = RoomPacker.select(rooms, demand, RoomSelectionStrategy.EXACT);
+            assertEquals(bestCount, exact.length, "rooms opened, trial " + trial);
+            assertEquals(bestCapacity, capacity(rooms, exact), "seats opened, trial " + trial);
+
+            int[] greedy = RoomPacker.select(rooms, demand, RoomSelectionStrategy.BEST_FIT_DECREASING);
+            assertEquals(bestCount, greedy.length, "rooms opened by best fit, trial " + trial);
+            assertTrue(capacity(rooms, greedy) >= demand, "best fit covers the cohort, trial " + trial);
+        }
+    }
+
+    @Test
+    void exactStaysWithinItsBudgetOnLargeCatalogs() {
+        Random random = new Random(5);
+        for (int size : new int[] {1_000, 10_000, 50_000}) {
+            List<Room> rooms = rooms(size, random);
+            int demand = rooms.stream().mapToInt(Room::getCapacity).sum() / 3;
+            int[] ascending = CompactSeatingEngine.sortRoomsByCapacity(rooms);
+            int[] capacities = new int[ascending.length];
+            for (int i = 0; i < ascending.length; i++) {
+                capacities[i] = rooms.get(ascending[i]).getCapacity();
+            }
+
+            int[] exact = assertTimeout(Duration.ofSeconds(10),
+                    () -> RoomPacker.select(rooms, demand, RoomSelectionStrategy.EXACT));
+            assertEquals(RoomPacker.minimumRooms(capacities, demand), exact.length);
+            assertTrue(capacity(rooms, exact) >= demand);
+            int[] greedy = RoomPacker.select(rooms, demand, RoomSelectionStrategy.BEST_FIT_DECREASING);
+            assertTrue(capacity(rooms, exact) <= capacity(rooms, greedy));
+        }
+    }
+
+    private static List<Room> rooms(int count, Random random) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int capacity = 10 + random.nextInt(111);
+            rooms.add(new Room("R" + i, "Room " + i, capacity, null, null));
+        }
+        return rooms;
+    }
+
+    private static int capacity(List<Room> rooms, int mask) {
+        int capacity = 0;
+        for (int i = 0; i < rooms.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                capacity += rooms.get(i).getCapacity();
+            }
+        }
+        return capacity;
+    }
+
+    private static int capacity(List<Room> rooms, int[] selected) {
+        int capacity = 0;
+        for (int i : selected) {
+            capacity += rooms.get(i).getCapacity();
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,111 @@
+package com.examseating.service;
+
+import com.examseating.model.ImportReport;
+import com.examseating.model.Student;
+import com.examseating.model.ValidationReport.Issue;
+import com.examseating.repository.StudentRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RosterImportServiceTest {
+
+    @Autowired
+    private RosterImportService rosterImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importsTheUploadTemplateLayout() throws IOException {
+        Path xlsx = sheet(new String[][] {
+                {"Student ID", "Student Name", "Student Exam", "Date"},
+                {"TPL001", "John Doe", "Mathematics", "2024-12-20"},
+                {"TPL002", "Jane Smith", "Physics", "2024-12-21"}});
+
+        ImportReport report = rosterImportService.importStudents(xlsx, 10);
+
+        assertEquals(2, report.getImported(), String.valueOf(report.getIssues()));
+        Student student = stored("TPL").get("TPL001");
+        assertEquals("TPL001", student.getRollNumber());
+        assertEquals(RosterImportService.UNASSIGNED, student.getClassName());
+        assertEquals(RosterImportService.UNASSIGNED, student.getSection());
+        assertEquals(LocalDate.of(2024, 12, 20), student.getExamDate());
+    }
+
+    @Test
+    void rejectsDuplicatesWithinAndAcrossBatches() throws IOException {
+        Path xlsx = sheet(new String[][] {
+                {"Student ID", "Student Name", "Roll Number", "Class", "Section", "Subject"},
+                {"DUP001", "A", "DUP-R1", "10", "A", "Mathematics"},
+                {"DUP001", "B", "DUP-R2", "10", "A", "Mathematics"},
+                {"DUP003", "C", "DUP-R3", "10", "A", "Physics"},
+                {"DUP004", "D", "DUP-R4", "10", "A", "Physics"},
+                {"DUP001", "E", "DUP-R5", "10", "A", "Physics"},
+                {"DUP006", "F", "DUP-R3", "10", "A", "Physics"}});
+
+        ImportReport report = rosterImportService.importStudents(xlsx, 2);
+
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertTrue(report.getIssues().stream().map(Issue::getCode).allMatch("DUPLICATE_KEY"::equals),
+                String.valueOf(report.getIssues()));
+        assertEquals(List.of(2, 5, 6), report.getIssues().stream().map(Issue::getIndex).sorted()
+                .collect(Collectors.toList()));
+        assertEquals("A", stored("DUP").get("DUP001").getName());
+    }
+
+    @Test
+    void reportsMissingIdentifyingColumns() throws IOException {
+        Path xlsx = sheet(new String[][] {
+                {"Student ID", "Date"},
+                {"MIS001", "2024-12-20"}});
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> rosterImportService.importStudents(xlsx, 10));
+        assertEquals("Spreadsheet has no Student Name, Student Exam column", e.getMessage());
+    }
+
+    private Map<String, Student> stored(String prefix) {
+        return studentRepository.findAll().stream()
+                .filter(s -> s.getStudentId().startsWith(prefix))
+                .collect(Collectors.toMap(Student::getStudentId, Function.identity()));
+    }
+
+    private Path sheet(String[][] rows) throws IOException {
+        Path xlsx = Files.createTempFile(dir, "roster", ".xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(xlsx)) {
+            Sheet sheet = workbook.createSheet();
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < rows[r].length; c++) {
+                    row.createCell(c).setCellValue(rows[r][c]);
+                }
+            }
+            workbook.write(out);
+        }
+        return xlsx;
+    }
+}
@@ -0,0 +1,221 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatingAlgorithmServiceTest {
+
+    private static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "Biology", "English"};
+    private static final String[][] REQUIREMENTS = {
+            {"wheelchair access"}, {"near exit"}, {"extra time"}, {"ground floor", "near exit"}, {"separate room"}};
+
+    private final SeatingAlgorithmService service = new SeatingAlgorithmService();
+
+    @Test
+    void specialRequirementTiersNeverShareASeatAtScale() {
+        Random random = new Random(11);
+        List<Room> rooms = new ArrayList<>();
+        for (int r = 0; r < 400; r++) {
+            Room room = new Room(String.format("R%04d", r), "Room " + r, 30 + random.nextInt(40), 6, 8);
+            room.setCapacity(room.getRows() * room.getColumns() - random.nextInt(10));
+            room.setFloor(String.valueOf(random.nextInt(4)));
+            if (r % 3 == 0) {
+                room.setFacilities(new ArrayList<>(Arrays.asList(REQUIREMENTS[random.nextInt(REQUIREMENTS.length)])));
+            }
+            rooms.add(room);
+        }
+        int capacity = rooms.stream().mapToInt(Room::getCapacity).sum();
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < capacity - 50; i++) {
+            Student student = student(i, SUBJECTS[random.nextInt(SUBJECTS.length)]);
+            if (random.nextInt(10) == 0) {
+                student.setSpecialRequirements(Arrays.asList(REQUIREMENTS[random.nextInt(REQUIREMENTS.length)]));
+            }
+            students.add(student);
+        }
+
+        SeatingArrangement arrangement = service.generateSeatingWithSpecialRequirements(exam(), students, rooms);
+
+        Map<String, Integer> capacities = new HashMap<>();
+        rooms.forEach(room -> capacities.put(room.getRoomId(), room.getCapacity()));
+        Map<String, Integer> occupants = new HashMap<>();
+        Set<String> seats = new HashSet<>();
+        Set<String> seated = new HashSet<>();
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            assertTrue(seats.add(assignment.getRoomId() + "/" + assignment.getSeatNumber()),
+                    "seat handed out twice: " + assignment.getRoomId() + "/" + assignment.getSeatNumber());
+            assertTrue(seated.add(assignment.getStudentId()), "student seated twice");
+            assertTrue(assignment.getSeatNumber() >= 1
+                    && assignment.getSeatNumber() <= capacities.get(assignment.getRoomId()), "seat outside room");
+            occupants.merge(assignment.getRoomId(), 1, Integer::sum);
+        }
+        // Every seat is used except those left empty in rooms given to a single separate-room
+        // student; once the empty rooms run out, the rest fall back to shared rooms
+        int unusable = 0;
+        int privateRooms = 0;
+        for (String roomId : separateRoomsOf(arrangement, students)) {
+            if (occupants.get(roomId) == 1) {
+                unusable += capacities.get(roomId) - 1;
+                privateRooms++;
+            }
+        }
+        assertTrue(privateRooms > 0, "no separate-room student got a room of their own");
+        assertEquals(Math.min(students.size(), capacity - unusable), arrangement.getAssignments().size());
+    }
+
+    @Test
+    void separateRoomStudentsEachGetARoomOfTheirOwn() {
+        List<Room> rooms = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Room room = new Room("Q00" + r, "Quiet room " + r, 10, 2, 5);
+            room.setFacilities(new ArrayList<>(List.of("Quiet Room")));
+            rooms.add(room);
+        }
+        rooms.add(new Room("H001", "Hall", 40, 8, 5));
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Student student = student(i, SUBJECTS[i]);
+            student.setSpecialRequirements(Collections.singletonList("separate room"));
+            students.add(student);
+        }
+        for (int i = 2; i < 52; i++) {
+            students.add(student(i, SUBJECTS[i % SUBJECTS.length]));
+        }
+
+        SeatingArrangement arrangement = service.generateSeatingWithSpecialRequirements(exam(), students, rooms);
+
+        Map<String, List<String>> byRoom = new HashMap<>();
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            byRoom.computeIfAbsent(assignment.getRoomId(), id -> new ArrayList<>()).add(assignment.getStudentId());
+        }
+        Set<String> separateRooms = separateRoomsOf(arrangement, students);
+        assertEquals(2, separateRooms.size(), "each separate-room student has a room: " + byRoom);
+        for (String roomId : separateRooms) {
+            assertEquals(1, byRoom.get(roomId).size(), "separate room " + roomId + " is shared: " + byRoom);
+        }
+        // The remaining quiet room and the hall take everyone else
+        assertEquals(students.size(), arrangement.getAssignments().size());
+    }
+
+    @Test
+    void regularStudentsKeepClearOfSpecialRequirementNeighbours() {
+        // One 6x8 room; its front row goes to near-exit Mathematics students first
+        Room room = new Room("R001", "Room 1", 48, 6, 8);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Student student = student(i, "Mathematics");
+            student.setSpecialRequirements(Collections.singletonList("near exit"));
+            students.add(student);
+        }
+        for (int i = 8; i < 48; i++) {
+            students.add(student(i, i < 24 ? "Mathematics" : "Physics"));
+        }
+
+        SeatingArrangement arrangement = service.generateSeatingWithSpecialRequirements(exam(), students, List.of(room));
+
+        String[] subjects = new String[48];
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            subjects[assignment.getSeatNumber() - 1] = assignment.getExamSubject();
+        }
+        for (int seat = 8; seat < 16; seat++) {
+            assertEquals("Physics", subjects[seat], "second row seat " + (seat + 1) + " sits behind Mathematics");
+        }
+    }
+
+    @Test
+    void rosterChangesLeaveTheCachedArrangementAndItsLookupIntact() {
+        List<Room> rooms = List.of(new Room("R001", "Room 1", 48, 6, 8), new Room("R002", "Room 2", 48, 6, 8));
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            students.add(student(i, SUBJECTS[i % SUBJECTS.length]));
+        }
+        SeatingArrangement cached = service.getOrGenerateSeatingArrangement(exam(), students, rooms, 5L);
+        SeatLookup lookup = service.getSeatLookup(cached);
+        Map<String, String> seatsBefore = seatsOf(cached);
+
+        List<Student> added = List.of(student(100, "Physics"), student(101, "Physics"));
+        SeatingArrangement changed = service.applyChanges(cached, rooms, added, List.of("STU000003"));
+
+        assertTrue(changed != cached);
+        assertTrue(cached.getPlan() != null);
+        assertEquals(seatsBefore, seatsOf(cached));
+        assertTrue(lookup.find("STU000003") >= 0);
+        assertTrue(service.getSeatLookup(service.getOrGenerateSeatingArrangement(exam(), students, rooms, 5L)) == lookup);
+
+        Map<String, String> seatsAfter = seatsOf(changed);
+        assertEquals(61, seatsAfter.size());
+        assertEquals(61, new HashSet<>(seatsAfter.values()).size());
+        seatsBefore.remove("STU000003");
+        seatsBefore.forEach((id, seat) -> assertEquals(seat, seatsAfter.get(id)));
+        List<SeatingAssignment> assignments = changed.getAssignments();
+        assertEquals("STU000101", assignments.get(assignments.size() - 1).getStudentId());
+
+        // The copy belongs to the caller, so further changes are made to it in place
+        assertTrue(service.applyChanges(changed, rooms, List.of(student(102, "English")), null) == changed);
+        assertEquals(62, seatsOf(changed).size());
+
+        // Further changes to the cached arrangement build on the same copy
+        assertTrue(service.applyChanges(cached, rooms, null, List.of("STU000100")) == changed);
+        assertEquals(61, seatsOf(changed).size());
+        assertTrue(!seatsOf(changed).containsKey("STU000100"));
+        assertEquals(60, seatsOf(cached).size());
+    }
+
+    private static Map<String, String> seatsOf(SeatingArrangement arrangement) {
+        Map<String, String> seats = new HashMap<>();
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            seats.put(assignment.getStudentId(), assignment.getRoomId() + "/" + assignment.getSeatNumber());
+        }
+        return seats;
+    }
+
+    /**
+     * Rooms seating a student who asked for a separate room
+     */
+    private static Set<String> separateRoomsOf(SeatingArrangement arrangement, List<Student> students) {
+        Set<String> separate = new HashSet<>();
+        for (Student student : students) {
+            if (student.getSpecialRequirements() != null
+                    && student.getSpecialRequirements().contains("separate room")) {
+                separate.add(student.getStudentId());
+            }
+        }
+        Set<String> rooms = new HashSet<>();
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            if (separate.contains(assignment.getStudentId())) {
+                rooms.add(assignment.getRoomId());
+            }
+        }
+        return rooms;
+    }
+
+    private static Student student(int i, String subject) {
+        String id = String.format("STU%06d", i);
+        return new Student(id, "Student " + i, "R" + id, "Class 1", "A", subject);
+    }
+
+    private static Exam exam() {
+        Exam exam = new Exam();
+        exam.setId(1L);
+        exam.setExamId("EXAM001");
+        exam.setSubject("Mathematics");
+        return exam;
+    }
+}
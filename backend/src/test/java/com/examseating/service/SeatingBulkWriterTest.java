@@ -0,0 +1,85 @@
+package com.examseating.service;
+
+import com.examseating.benchmark.Cohorts;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SeatingBulkWriterTest {
+
+    @Autowired
+    private SeatingBulkWriter seatingBulkWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writesEveryPlannedSeatAcrossChunks() {
+        // Two full chunks, a partial one, and a short multi-row insert at the end
+        int size = 2 * SeatingBulkWriter.CHUNK_SIZE + 3 * SeatingBulkWriter.ROWS_PER_INSERT + 17;
+        List<Student> students = Cohorts.students(size, 8, 1);
+        List<Room> rooms = Cohorts.rooms(size, 2);
+        SeatingArrangement arrangement = new SeatingAlgorithmService()
+                .generateGridAwareSeatingArrangement(Cohorts.exam(), students, rooms, 42L);
+
+        Map<String, Object> report = seatingBulkWriter.write(arrangement);
+
+        long id = (Long) report.get("arrangementId");
+        assertEquals(size, report.get("rows"));
+        assertEquals(size, count("select count(*) from seating_assignments where arrangement_id = ?", id));
+        assertEquals(size, count("select count(distinct id) from seating_assignments where arrangement_id = ?", id));
+        for (int i = 0; i < size; i += 997) {
+            assertStored(id, arrangement.getPlan().assignmentAt(i));
+        }
+        assertStored(id, arrangement.getPlan().assignmentAt(size - 1));
+    }
+
+    @Test
+    void writesMaterialisedAssignments() {
+        List<Student> students = Cohorts.students(600, 4, 3);
+        SeatingArrangement planned = new SeatingAlgorithmService()
+                .generateGridAwareSeatingArrangement(Cohorts.exam(), students, Cohorts.rooms(600, 4), 7L);
+        SeatingArrangement arrangement = new SeatingArrangement();
+        arrangement.setExamId(planned.getExamId());
+        arrangement.setTotalStudents(planned.getTotalStudents());
+        arrangement.setTotalRooms(planned.getTotalRooms());
+        arrangement.setGeneratedAt(planned.getGeneratedAt());
+        arrangement.setAssignments(planned.getPlan().toAssignments());
+
+        long id = (Long) seatingBulkWriter.write(arrangement).get("arrangementId");
+
+        assertEquals(600, count("select count(*) from seating_assignments where arrangement_id = ?", id));
+        for (SeatingAssignment assignment : arrangement.getAssignments()) {
+            if (assignment.getSeatNumber() % 50 == 1) {
+                assertStored(id, assignment);
+            }
+        }
+    }
+
+    private long count(String sql, long arrangementId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, arrangementId);
+    }
+
+    private void assertStored(long arrangementId, SeatingAssignment expected) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("select room_id, exam_subject, seat_number, seat_row, "
+                + "seat_column, qr_code from seating_assignments where arrangement_id = ? and student_id = ?",
+                arrangementId, expected.getStudentId());
+        assertEquals(expected.getRoomId(), row.get("ROOM_ID"));
+        assertEquals(expected.getExamSubject(), row.get("EXAM_SUBJECT"));
+        assertEquals(expected.getSeatNumber(), row.get("SEAT_NUMBER"));
+        assertEquals(expected.getRow(), row.get("SEAT_ROW"));
+        assertEquals(expected.getColumn(), row.get("SEAT_COLUMN"));
+        assertEquals(expected.getQrCode(), row.get("QR_CODE"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.examseating.service;
+
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SeatingCsvExporterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void derivesMissingRoomDimensions() throws IOException {
+        List<Student> students = Arrays.asList(
+                new Student("STU001", "John Doe", "R1", "Class 1", "A", "Mathematics"),
+                new Student("STU002", "Jane Smith", "R2", "Class 1", "A", "Physics"),
+                new Student("STU003", "Mike Johnson", "R3", "Class 1", "A", "Physics"));
+        List<Room> rooms = Arrays.asList(
+                new Room("ROOM001", "Main Hall A", 50, 10, 5),
+                new Room("ROOM002", "Annexe", 12, null, null),
+                new Room("ROOM003", "Unmeasured", null, null, null));
+        SeatingPlan plan = new SeatingPlan(students, rooms, new int[] {0, 1, 2}, new int[] {0, 1, 2},
+                new short[] {7, 7, 1}, 3, null);
+        Path csv = dir.resolve("seating.csv");
+
+        new SeatingCsvExporter().export(plan, null, csv);
+
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(SeatingCsvExporter.HEADER.trim(), lines.get(0));
+        assertEquals("\"STU001\",\"John Doe\",\"Mathematics\",\"\",\"ROOM001\",\"Main Hall A\",7,2,2,50,\"10x5\"",
+                lines.get(1));
+        assertEquals("\"STU002\",\"Jane Smith\",\"Physics\",\"\",\"ROOM002\",\"Annexe\",7,2,2,12,\"3x5\"",
+                lines.get(2));
+        assertEquals("\"STU003\",\"Mike Johnson\",\"Physics\",\"\",\"ROOM003\",\"Unmeasured\",1,1,1,,\"\"",
+                lines.get(3));
+    }
+}
@@ -0,0 +1,109 @@
+package com.examseating.service;
+
+import com.examseating.benchmark.Cohorts;
+import com.examseating.model.Room;
+import com.examseating.model.Student;
+import com.examseating.model.ValidationReport;
+import com.examseating.model.ValidationReport.Issue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatingInputValidatorTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final SeatingInputValidator validator = new SeatingInputValidator(pool);
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void reportsEveryProblemInEntityAndRowOrder() {
+        Student noId = new Student(" ", "Nameless", "R1", "Class 1", "A", "Physics");
+        Student noSubject = new Student("STU002", "Jane Smith", "R2", "Class 1", "A", null);
+        Student picky = new Student("STU003", "Mike Johnson", "R3", "Class 1", "A", "Physics");
+        picky.setSpecialRequirements(Arrays.asList("jetpack", "wheelchair access"));
+        Student duplicate = new Student("STU002", "Jane Again", "R4", "Class 1", "A", "Physics");
+        List<Student> students = Arrays.asList(noId, noSubject, null, picky, duplicate);
+
+        Room flat = new Room("ROOM001", "Flat", 2, 1, 0);
+        Room broken = new Room("ROOM002", "Broken", 0, 0, 5);
+        Room twin = new Room("ROOM001", "Twin", 1, 1, 1);
+        List<Room> rooms = Arrays.asList(flat, broken, twin);
+
+        ValidationReport report = validator.validate(null, students, rooms);
+
+        assertEquals(Arrays.asList("EXAM_MISSING", "STUDENT_ID_MISSING", "SUBJECT_MISSING", "STUDENT_MISSING",
+                        "UNKNOWN_REQUIREMENT", "REQUIREMENT_UNSATISFIABLE", "DUPLICATE_STUDENT_ID",
+                        "ROOM_LAYOUT_INVALID", "ROOM_CAPACITY_INVALID", "DUPLICATE_ROOM_ID", "CAPACITY_EXCEEDED"),
+                report.getIssues().stream().map(Issue::getCode).collect(Collectors.toList()));
+        assertEquals(8, report.getErrorCount());
+        assertEquals(3, report.getWarnings().size());
+        assertFalse(report.isValid());
+        assertEquals("Duplicate student ID found: STU002 (rows 1 and 4)", report.getIssues().get(6).getMessage());
+        assertEquals("Duplicate room ID found: ROOM001 (rows 0 and 2)", report.getIssues().get(9).getMessage());
+        assertEquals("Exam cannot be null (and 7 more errors)", report.summary());
+    }
+
+    @Test
+    void findsDuplicatesAcrossHashPartitions() {
+        // Large enough for the chunked student checks and the partitioned duplicate search
+        List<Student> students = new ArrayList<>(Cohorts.students(SeatingInputValidator.PARALLEL_THRESHOLD + 100, 4, 1));
+        int[] copied = {7, 40_000, SeatingInputValidator.PARALLEL_THRESHOLD + 50};
+        for (int row : copied) {
+            Student original = students.get(row);
+            students.add(new Student(original.getStudentId(), "Copy", "X", "Class 1", "A", "Physics"));
+        }
+        List<Room> rooms = new ArrayList<>(Cohorts.rooms(students.size(), 2));
+        rooms.add(new Room(rooms.get(3).getRoomId(), "Copy", 20, 4, 5));
+
+        ValidationReport report = validator.validate(Cohorts.exam(), students, rooms);
+
+        List<Issue> errors = report.getErrors();
+        assertEquals(4, errors.size(), report.getIssues().toString());
+        int first = students.size() - copied.length;
+        for (int k = 0; k < copied.length; k++) {
+            Issue issue = errors.get(k);
+            assertEquals("DUPLICATE_STUDENT_ID", issue.getCode());
+            assertEquals(first + k, issue.getIndex());
+            assertTrue(issue.getMessage().endsWith("(rows " + copied[k] + " and " + (first + k) + ")"),
+                    issue.getMessage());
+        }
+        assertEquals("DUPLICATE_ROOM_ID", errors.get(3).getCode());
+        assertEquals(rooms.size() - 1, errors.get(3).getIndex());
+    }
+
+    @Test
+    void tellsApartDifferentIdsWithTheSameHash() {
+        String[] ids = {"A", "B", "B", "A", "C"};
+        IdHashSet set = new IdHashSet(4, row -> ids[row]);
+        long hash = 42L;
+
+        assertEquals(-1, set.add(hash, 0));
+        assertEquals(-1, set.add(hash, 1));
+        assertEquals(1, set.add(hash, 2));
+        assertEquals(0, set.add(hash, 3));
+        assertEquals(-1, set.add(hash, 4));
+        assertEquals(0, set.find(hash, "A"));
+        assertEquals(1, set.find(hash, "B"));
+        assertEquals(4, set.find(hash, "C"));
+        assertEquals(-1, set.find(hash, "D"));
+        assertEquals(-1, set.find(IdHashSet.hash("A"), "A"));
+
+        // Without the ids, equal hashes are taken to be equal ids
+        IdHashSet trusting = new IdHashSet(4, null);
+        assertEquals(-1, trusting.add(hash, 0));
+        assertEquals(0, trusting.add(hash, 1));
+    }
+}
@@ -0,0 +1,121 @@
+package com.examseating.service;
+
+import com.examseating.benchmark.Cohorts;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatingOptimizerTest {
+
+    @Test
+    void neverEndsWorseThanItStarted() {
+        SeatingPlan initial = plan(Cohorts.students(2000, 4, 3), Cohorts.rooms(2400, 5));
+        SeatingOptimizer optimizer = new SeatingOptimizer();
+
+        // Without any time the starting layout is the result
+        SeatingOptimizer.Result start = optimizer.optimize(initial, Duration.ZERO, 1L, 1);
+        SeatingOptimizer.Result result = optimizer.optimize(initial, Duration.ofMillis(300), 1L, 2);
+
+        assertEquals(violations(initial), start.getViolations());
+        assertTrue(result.getCost() <= start.getCost(), result.getCost() + " > " + start.getCost());
+        assertKeepsEveryStudentInOwnSeat(initial, result.getPlan());
+        assertEquals(violations(result.getPlan()), result.getViolations());
+        assertEquals(roomsUsed(result.getPlan()), result.getRoomsUsed());
+    }
+
+    @Test
+    void clearsEveryConflictWhenThereIsRoom() {
+        // 30 students packed into the first of two 50-seat rooms, from three subjects
+        List<Room> rooms = Arrays.asList(new Room("R001", "Room 1", 50, 10, 5), new Room("R002", "Room 2", 50, 10, 5));
+        SeatingPlan initial = plan(Cohorts.students(30, 3, 7), rooms);
+        assertTrue(violations(initial) > 0);
+
+        SeatingOptimizer.Result result = new SeatingOptimizer(1.0, 0.0, 0.0)
+                .optimize(initial, Duration.ofMillis(300), 7L, 1);
+
+        assertKeepsEveryStudentInOwnSeat(initial, result.getPlan());
+        assertEquals(0, violations(result.getPlan()));
+        assertEquals(0, result.getViolations());
+    }
+
+    private static SeatingPlan plan(List<Student> students, List<Room> rooms) {
+        PrintStream out = Cohorts.quiet();
+        try {
+            return new SeatingAlgorithmService()
+                    .generateCompactSeatingArrangement(Cohorts.exam(), students, rooms, 42L).getPlan();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static void assertKeepsEveryStudentInOwnSeat(SeatingPlan initial, SeatingPlan result) {
+        assertEquals(initial.size(), result.size());
+        Set<Integer> students = new HashSet<>();
+        Set<String> seats = new HashSet<>();
+        for (int i = 0; i < result.size(); i++) {
+            assertTrue(students.add(result.studentIndexAt(i)), "student placed twice");
+            assertTrue(seats.add(result.roomIndexAt(i) + "/" + result.seatNumberAt(i)), "seat taken twice");
+            assertTrue(result.seatNumberAt(i) >= 1 && result.seatNumberAt(i) <= result.roomAt(i).getCapacity());
+        }
+        for (int i = 0; i < initial.size(); i++) {
+            assertTrue(students.contains(initial.studentIndexAt(i)), "student dropped");
+        }
+    }
+
+    /**
+     * Same-subject pairs of seats touching across a side or a corner
+     */
+    private static int violations(SeatingPlan plan) {
+        List<Room> rooms = plan.getRooms();
+        String[][] subjects = new String[rooms.size()][];
+        for (int r = 0; r < rooms.size(); r++) {
+            subjects[r] = new String[rooms.get(r).getCapacity()];
+        }
+        for (int i = 0; i < plan.size(); i++) {
+            subjects[plan.roomIndexAt(i)][plan.seatNumberAt(i) - 1] = plan.studentAt(i).getExamSubject();
+        }
+        int pairs = 0;
+        for (int r = 0; r < rooms.size(); r++) {
+            int columns = GridSeatPlanner.seatsPerRow(rooms.get(r));
+            String[] seats = subjects[r];
+            for (int seat = 0; seat < seats.length; seat++) {
+                int row = seat / columns;
+                int col = seat % columns;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int r2 = row + dr;
+                        int c2 = col + dc;
+                        int other = r2 * columns + c2;
+                        if ((dr == 0 && dc == 0) || r2 < 0 || c2 < 0 || c2 >= columns || other >= seats.length) {
+                            continue;
+                        }
+                        if (seats[seat] != null && Objects.equals(seats[seat], seats[other])) {
+                            pairs++;
+                        }
+                    }
+                }
+            }
+        }
+        return pairs / 2;
+    }
+
+    private static int roomsUsed(SeatingPlan plan) {
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < plan.size(); i++) {
+            used.add(plan.roomIndexAt(i));
+        }
+        return used.size();
+    }
+}
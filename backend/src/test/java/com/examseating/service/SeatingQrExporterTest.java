@@ -0,0 +1,137 @@
+package com.examseating.service;
+
+import com.examseating.benchmark.Cohorts;
+import com.examseating.model.Exam;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingPlan;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatingQrExporterTest {
+
+    private static final String KEYS = "1:c2VhdC10b2tlbi10ZXN0LWtleS0wMDAwMDAwMDAwMDA=";
+
+    private final SeatTokenService tokens = new SeatTokenService(KEYS);
+    private final SeatingQrExporter exporter = new SeatingQrExporter();
+    private final Exam exam = Cohorts.exam();
+    private PrintStream out;
+
+    SeatingQrExporterTest() {
+        ReflectionTestUtils.setField(exporter, "seatTokenService", tokens);
+    }
+
+    @AfterEach
+    void shutDown() throws InterruptedException {
+        exporter.shutdown();
+        if (out != null) {
+            System.setOut(out);
+        }
+    }
+
+    @Test
+    void writesOneScannableStoredPngPerSeat() throws Exception {
+        SeatingArrangement arrangement = arrangement(40, new Date());
+        SeatingPlan plan = arrangement.getPlan();
+
+        Map<String, byte[]> entries = unzip(export(arrangement));
+
+        assertEquals(40, entries.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < plan.size(); i++) {
+            String studentId = plan.studentAt(i).getStudentId();
+            String roomId = plan.roomAt(i).getRoomId();
+            byte[] png = entries.get(roomId + "/seat-" + plan.seatNumberAt(i) + "_" + studentId + ".png");
+            assertTrue(png != null, "no image for " + studentId);
+
+            String token = new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(
+                    new BufferedImageLuminanceSource(ImageIO.read(new ByteArrayInputStream(png)))))).getText();
+            assertEquals(SeatTokenService.Status.VALID, tokens.verify(token, now));
+            SeatTokenService.Claims claims = tokens.claims(token);
+            assertEquals(studentId, claims.getStudentId());
+            assertEquals(exam.getExamId(), claims.getExamId());
+            assertEquals(roomId, claims.getRoomId());
+            assertEquals(plan.seatNumberAt(i), claims.getSeatNumber());
+        }
+    }
+
+    @Test
+    void regeneratedArrangementReusesEveryImage() throws IOException {
+        // The exam has no date, so tokens are valid from the start of the issue day
+        long day = System.currentTimeMillis() / 86_400_000L * 86_400_000L;
+        byte[] first = export(arrangement(300, new Date(day + 60_000)));
+        long misses = (Long) exporter.getCacheStats().get("misses");
+        long hits = (Long) exporter.getCacheStats().get("hits");
+
+        byte[] again = export(arrangement(300, new Date(day + 3_600_000)));
+
+        assertEquals(misses, exporter.getCacheStats().get("misses"));
+        assertEquals(hits + 300, exporter.getCacheStats().get("hits"));
+        assertEquals(unzip(first).keySet(), unzip(again).keySet());
+    }
+
+    @Test
+    void shutdownStopsThePoolAndReleasesTheRenderers() throws Exception {
+        export(arrangement(1500, new Date()));
+        Queue<?> renderers = (Queue<?>) ReflectionTestUtils.getField(exporter, "allRenderers");
+        assertTrue(!renderers.isEmpty());
+
+        exporter.shutdown();
+
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(exporter, "executor");
+        assertTrue(executor.isTerminated());
+        assertTrue(renderers.isEmpty());
+        SeatingArrangement arrangement = arrangement(10, new Date());
+        assertThrows(RejectedExecutionException.class,
+                () -> exporter.export(arrangement, exam, OutputStream.nullOutputStream()));
+    }
+
+    private SeatingArrangement arrangement(int students, Date generatedAt) {
+        out = out != null ? out : Cohorts.quiet();
+        SeatingArrangement arrangement = new SeatingAlgorithmService().generateGridAwareSeatingArrangement(
+                exam, Cohorts.students(students, 4, 1), Cohorts.rooms(students, 2), 42L);
+        arrangement.setGeneratedAt(generatedAt);
+        return arrangement;
+    }
+
+    private byte[] export(SeatingArrangement arrangement) throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        exporter.export(arrangement, exam, zip);
+        return zip.toByteArray();
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                assertEquals(ZipEntry.STORED, entry.getMethod());
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
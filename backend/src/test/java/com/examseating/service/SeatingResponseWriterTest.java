@@ -0,0 +1,73 @@
+package com.examseating.service;
+
+import com.examseating.benchmark.Cohorts;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatingResponseWriterTest {
+
+    private final SeatingResponseWriter writer = new SeatingResponseWriter();
+
+    @Test
+    void planAndAssignmentsGiveTheSameResponse() throws IOException {
+        List<Student> students = Cohorts.students(3000, 6, 9);
+        List<Room> rooms = Cohorts.rooms(3000, 9);
+        SeatingArrangement planned;
+        PrintStream out = Cohorts.quiet();
+        try {
+            planned = new SeatingAlgorithmService().generateGridAwareSeatingArrangement(Cohorts.exam(), students, rooms, 9L);
+        } finally {
+            System.setOut(out);
+        }
+        SeatingArrangement materialised = new SeatingArrangement();
+        materialised.setTotalStudents(planned.getTotalStudents());
+        materialised.setGeneratedAt(planned.getGeneratedAt());
+        materialised.setAssignments(planned.getPlan().toAssignments());
+
+        ByteArrayOutputStream fromPlan = new ByteArrayOutputStream();
+        ByteArrayOutputStream fromAssignments = new ByteArrayOutputStream();
+        assertEquals(3000, writer.write(planned, students, rooms, 9L, fromPlan));
+        assertEquals(3000, writer.write(materialised, students, rooms, 9L, fromAssignments));
+
+        String json = fromPlan.toString(StandardCharsets.UTF_8);
+        assertEquals(json, fromAssignments.toString(StandardCharsets.UTF_8));
+        assertTrue(json.startsWith("{\"seatingArrangement\":[{\"studentId\":"), json.substring(0, 80));
+    }
+
+    @Test
+    void verificationAnswersFromTheCheckedTokenAlone() throws IOException {
+        SeatTokenService tokens = new SeatTokenService("");
+        SeatTokenService.Scan scan = new SeatTokenService.Scan();
+        long now = System.currentTimeMillis();
+        // Leap days, century years, and either side of the first year Instant prints with a sign
+        long[] ends = {now / 60_000 + 90, 28_486_080L, 15_864_480L, 4_223_371_679L, 4_223_371_680L, 4_294_967_295L};
+        for (long end : ends) {
+            SeatTokenService.Window window = new SeatTokenService.Window(end - 60, 60);
+            String token = tokens.issue("STU\u00c9\"1", "EXAM001", "ROOM/7", 321, window);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(SeatTokenService.Status.VALID, tokens.verify(token, (end - 30) * 60_000, scan));
+            writer.writeVerification(scan, out);
+
+            assertEquals("{\"valid\":true,\"status\":\"VALID\",\"studentId\":\"STU\u00c9\\\"1\","
+                    + "\"examId\":\"EXAM001\",\"roomNo\":\"ROOM/7\",\"seatNo\":321,\"validUntil\":\""
+                    + window.getValidUntil().toInstant() + "\"}", out.toString(StandardCharsets.UTF_8));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tokens.verify("NOT-A-TOKEN", now, scan);
+        writer.writeVerification(scan, out);
+        assertEquals("{\"valid\":false,\"status\":\"MALFORMED\"}", out.toString(StandardCharsets.UTF_8));
+    }
+}
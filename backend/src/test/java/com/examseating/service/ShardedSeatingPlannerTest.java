@@ -0,0 +1,130 @@
+package com.examseating.service;
+
+import com.examseating.model.Exam;
+import com.examseating.model.ExamSession;
+import com.examseating.model.Room;
+import com.examseating.model.SeatingArrangement;
+import com.examseating.model.SeatingAssignment;
+import com.examseating.model.SeatingPlan;
+import com.examseating.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the sharded planner against real worker JVMs
+ */
+class ShardedSeatingPlannerTest {
+
+    private static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "Biology"};
+    private static final LocalDate DAY_ONE = LocalDate.of(2024, 12, 20);
+    private static final LocalDate DAY_TWO = LocalDate.of(2024, 12, 21);
+
+    @Test
+    void seatsEverySessionAcrossWorkerProcesses() throws Exception {
+        List<Room> rooms = rooms();
+        List<Student> students = new ArrayList<>();
+        students.addAll(students(DAY_ONE, "AM", 0, 400));
+        students.addAll(students(DAY_TWO, "PM", 200, 350));
+
+        SortedMap<ExamSession, SeatingPlan> plans;
+        try (ShardedSeatingPlanner planner = new ShardedSeatingPlanner(ShardedSeatingPlanner.defaultWorkerCommand(), 3)) {
+            plans = planner.plan(students, rooms, 42L, (s, r, seat) -> new SeatingAssignment(s.getStudentId(), r.getRoomId(), seat, null, null));
+        }
+
+        assertEquals(2, plans.size());
+        for (SeatingPlan plan : plans.values()) {
+            Set<String> seatedIds = new HashSet<>();
+            Set<String> seats = new HashSet<>();
+            for (int i = 0; i < plan.size(); i++) {
+                assertTrue(seatedIds.add(plan.studentAt(i).getStudentId()), "student seated twice");
+                Room room = plan.roomAt(i);
+                int seat = plan.seatNumberAt(i);
+                assertTrue(seat >= 1 && seat <= room.getCapacity(), "seat outside room");
+                assertTrue(seats.add(room.getRoomId() + "/" + seat), "seat assigned twice");
+            }
+            assertEquals(plan.getStudents().size(), plan.size());
+        }
+    }
+
+    @Test
+    void mergeRejectsAnIdRegisteredTwiceInASession() throws Exception {
+        List<Student> students = students(DAY_ONE, "AM", 0, 300);
+        // Same ID again, dealt to a different building than the original
+        students.add(student("STU00000", "Physics", DAY_ONE, "AM"));
+
+        try (ShardedSeatingPlanner planner = new ShardedSeatingPlanner(ShardedSeatingPlanner.defaultWorkerCommand(), 2)) {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> planner.plan(students, rooms(), 42L, (s, r, seat) -> new SeatingAssignment(s.getStudentId(), r.getRoomId(), seat, null, null)));
+            assertTrue(e.getMessage().contains("STU00000 seated twice"), e.getMessage());
+        }
+    }
+
+    @Test
+    void serviceValidatesEachSessionBeforeStartingWorkers() {
+        SeatingAlgorithmService service = new SeatingAlgorithmService();
+        List<Student> students = students(DAY_ONE, "AM", 0, 100);
+        students.add(student("STU00005", "Physics", DAY_ONE, "AM"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.generateShardedSessionArrangements(exam(), students, rooms(), 42L, 2));
+        assertTrue(e.getMessage().contains("Duplicate student ID"), e.getMessage());
+    }
+
+    @Test
+    void aStudentMaySitSeveralSessions() {
+        SeatingAlgorithmService service = new SeatingAlgorithmService();
+        List<Student> students = new ArrayList<>();
+        students.addAll(students(DAY_ONE, "AM", 0, 120));
+        students.addAll(students(DAY_TWO, "AM", 0, 120));
+
+        SortedMap<ExamSession, SeatingArrangement> arrangements =
+                service.generateShardedSessionArrangements(exam(), students, rooms(), 7L, 2);
+
+        assertEquals(2, arrangements.size());
+        arrangements.values().forEach(a -> assertEquals(120, a.getPlan().size()));
+    }
+
+    private static List<Room> rooms() {
+        List<Room> rooms = new ArrayList<>();
+        String[] buildings = {"North", "South", "East"};
+        for (int r = 0; r < 12; r++) {
+            Room room = new Room(String.format("R%03d", r), "Room " + r, 48, 6, 8);
+            room.setBuilding(buildings[r % buildings.length]);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    private static List<Student> students(LocalDate date, String session, int firstId, int count) {
+        List<Student> students = new ArrayList<>();
+        for (int i = firstId; i < firstId + count; i++) {
+            students.add(student(String.format("STU%05d", i), SUBJECTS[i % SUBJECTS.length], date, session));
+        }
+        return students;
+    }
+
+    private static Student student(String id, String subject, LocalDate date, String session) {
+        Student student = new Student(id, "Student " + id, "R" + id, "Class 1", "A", subject);
+        student.setExamDate(date);
+        student.setSession(session);
+        return student;
+    }
+
+    private static Exam exam() {
+        Exam exam = new Exam();
+        exam.setId(1L);
+        exam.setExamId("EXAM001");
+        exam.setSubject("Mathematics");
+        return exam;
+    }
+}